@@ -0,0 +1,105 @@
+#!/usr/bin/env python3
+"""Open many idle standup streams against a running backend and count what they receive.
+
+Each stream gets its own single-use ticket from POST /api/auth/stream-ticket,
+then opens GET /api/standups/teams/{team}/stream?ticket=... and reads
+Server-Sent Events until --hold seconds have passed. Every 10 seconds it
+prints how many streams are open and how many heartbeats and standup events
+arrived, so heap and fan-out can be watched while it runs.
+
+Standard library only. See README.md for how the published numbers were taken.
+"""
+
+import argparse
+import asyncio
+import json
+import time
+from urllib.parse import urlsplit
+
+counts = {"open": 0, "refused": 0, "closed": 0, "heartbeat": 0, "standup": 0}
+
+
+async def request_ticket(host, port, token):
+    reader, writer = await asyncio.open_connection(host, port)
+    try:
+        writer.write((
+            "POST /api/auth/stream-ticket HTTP/1.1\r\n"
+            f"Host: {host}\r\n"
+            f"Authorization: Bearer {token}\r\n"
+            "Content-Length: 0\r\n"
+            "Connection: close\r\n\r\n"
+        ).encode())
+        await writer.drain()
+        response = await reader.read()
+    finally:
+        writer.close()
+    head, _, body = response.partition(b"\r\n\r\n")
+    if not head.startswith(b"HTTP/1.1 200"):
+        raise RuntimeError(head.split(b"\r\n", 1)[0].decode())
+    # The body may be chunked; the ticket object is the only JSON in it
+    start, end = body.index(b"{"), body.rindex(b"}") + 1
+    return json.loads(body[start:end])["ticket"]
+
+
+async def subscribe(host, port, team_id, token):
+    try:
+        ticket = await request_ticket(host, port, token)
+        reader, writer = await asyncio.open_connection(host, port)
+    except Exception:
+        counts["refused"] += 1
+        return
+    writer.write((
+        f"GET /api/standups/teams/{team_id}/stream?ticket={ticket} HTTP/1.1\r\n"
+        f"Host: {host}\r\n"
+        "Accept: text/event-stream\r\n\r\n"
+    ).encode())
+    await writer.drain()
+    status = await reader.readline()
+    if not status.startswith(b"HTTP/1.1 200"):
+        counts["refused"] += 1
+        writer.close()
+        return
+    counts["open"] += 1
+    try:
+        while line := await reader.readline():
+            if line.startswith(b":heartbeat"):
+                counts["heartbeat"] += 1
+            elif line.startswith(b"event:standup"):
+                counts["standup"] += 1
+    except (ConnectionError, asyncio.CancelledError):
+        pass
+    finally:
+        counts["open"] -= 1
+        counts["closed"] += 1
+        writer.close()
+
+
+async def main(args):
+    url = urlsplit(args.url)
+    host, port = url.hostname, url.port or 80
+    tasks = []
+    for i in range(args.streams):
+        tasks.append(asyncio.create_task(subscribe(host, port, args.team, args.token)))
+        # Ramp up in batches so the accept queue keeps up
+        if i % 200 == 199:
+            await asyncio.sleep(0.05)
+
+    started = time.monotonic()
+    while (elapsed := time.monotonic() - started) < args.hold:
+        await asyncio.sleep(min(10, args.hold - elapsed))
+        print(f"{int(time.monotonic() - started):>4}s {counts}", flush=True)
+
+    for task in tasks:
+        task.cancel()
+    await asyncio.gather(*tasks, return_exceptions=True)
+    print(f"done {counts}", flush=True)
+
+
+if __name__ == "__main__":
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("--url", default="http://127.0.0.1:8080", help="backend base URL (plain HTTP)")
+    parser.add_argument("--team", type=int, required=True, help="team whose stream to open")
+    parser.add_argument("--token", required=True, help="access token of a member of the team")
+    parser.add_argument("--streams", type=int, default=2000, help="number of streams to open")
+    parser.add_argument("--hold", type=int, default=90, help="seconds to keep the streams open")
+    asyncio.run(main(parser.parse_args()))
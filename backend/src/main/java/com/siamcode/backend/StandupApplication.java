@@ -15,6 +15,7 @@ import java.util.Scanner;
  */
 @SpringBootApplication
 @org.springframework.scheduling.annotation.EnableAsync
+@org.springframework.scheduling.annotation.EnableScheduling
 public class StandupApplication {
 
     public static void main(String[] args) {
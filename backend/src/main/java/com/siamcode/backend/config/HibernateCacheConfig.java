@@ -0,0 +1,110 @@
+package com.siamcode.backend.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for entities that are read on almost every
+ * request and rarely change (teams, users, team members), plus the query
+ * cache for membership lookups. Everything is kept in-process with Ehcache.
+ *
+ * Each region is created here with its own entry limit and time to live, and
+ * Hibernate is told to fail on any region not listed, so nothing is cached
+ * unbounded by accident. Other instances' changes are evicted as they are
+ * announced on the invalidation bus; the TTL bounds staleness should a
+ * message be lost. Hit and miss counts per region are in
+ * /actuator/metrics as hibernate.second.level.cache.requests and
+ * hibernate.cache.query.requests.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String TEAMS_REGION = "teams";
+    public static final String USERS_REGION = "users";
+    public static final String TEAM_MEMBERS_REGION = "team-members";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${entity.cache.teams.max.entries:10000}")
+    private long teamsMaxEntries;
+
+    @Value("${entity.cache.teams.ttl.seconds:600}")
+    private long teamsTtlSeconds;
+
+    @Value("${entity.cache.users.max.entries:20000}")
+    private long usersMaxEntries;
+
+    @Value("${entity.cache.users.ttl.seconds:600}")
+    private long usersTtlSeconds;
+
+    @Value("${entity.cache.team.members.max.entries:50000}")
+    private long teamMembersMaxEntries;
+
+    @Value("${entity.cache.team.members.ttl.seconds:600}")
+    private long teamMembersTtlSeconds;
+
+    @Value("${entity.cache.queries.max.entries:20000}")
+    private long queriesMaxEntries;
+
+    @Value("${entity.cache.queries.ttl.seconds:300}")
+    private long queriesTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // A unique URI keeps each application context (e.g. in tests) on its own manager
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:standupmeet:hibernate:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+
+        createRegion(cacheManager, TEAMS_REGION, teamsMaxEntries, timeToLive(teamsTtlSeconds));
+        createRegion(cacheManager, USERS_REGION, usersMaxEntries, timeToLive(usersTtlSeconds));
+        createRegion(cacheManager, TEAM_MEMBERS_REGION, teamMembersMaxEntries, timeToLive(teamMembersTtlSeconds));
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queriesMaxEntries, timeToLive(queriesTtlSeconds));
+        // One entry per table; must never expire or be evicted, or stale query results could be served
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 10_000, ExpiryPolicyBuilder.noExpiration());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maxEntries,
+            ExpiryPolicy<Object, Object> expiry) {
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(expiry)));
+    }
+
+    private static ExpiryPolicy<Object, Object> timeToLive(long seconds) {
+        return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(seconds));
+    }
+}
@@ -0,0 +1,71 @@
+package com.siamcode.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary and replica pools, active when replica.datasource.url is set.
+ * Without it the single auto-configured pool is used as before.
+ *
+ * JPA gets a LazyConnectionDataSourceProxy around the routing DataSource:
+ * the physical connection is only taken when the first statement runs, after
+ * the transaction has been marked read-only, so the routing can see it.
+ */
+@Configuration
+@ConditionalOnExpression("!'${replica.datasource.url:}'.isEmpty()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+            @Value("${replica.datasource.url}") String url,
+            @Value("${replica.datasource.username:}") String username,
+            @Value("${replica.datasource.password:}") String password) {
+        // Credentials default to the primary's
+        boolean ownCredentials = !username.isEmpty();
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(ownCredentials ? username : properties.determineUsername())
+                .password(ownCredentials ? password : properties.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource, MeterRegistry meterRegistry,
+            @Value("${replica.sticky.ms:5000}") long stickyMs) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, Duration.ofMillis(stickyMs),
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
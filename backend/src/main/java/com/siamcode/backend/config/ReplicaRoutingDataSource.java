@@ -0,0 +1,111 @@
+package com.siamcode.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to
+ * the primary. Reads still go to the primary for a short window (the
+ * expected replication lag) in two cases:
+ * - after one of a user's read-write transactions commits, for that user's
+ *   reads on this instance, so they see their own writes;
+ * - after cached entities (teams, users, memberships, the shard directory,
+ *   email suppressions) changed here or on another instance, for all
+ *   reads, so a lagging
+ *   replica cannot put the old rows back into the caches. Changes to
+ *   uncached data, standups included, never pin.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final int STICKY_USERS_SWEEP_SIZE = 10000;
+
+    private enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final long stickyNanos;
+    // Users reading from the primary until the given System.nanoTime()
+    private final Map<Long, Long> stickyUsers = new ConcurrentHashMap<>();
+    private volatile long pinnedUntil;
+
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow,
+            MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.stickyNanos = stickyWindow.toNanos();
+        this.pinnedUntil = System.nanoTime();
+
+        replicaReads = Counter.builder("datasource.routing.reads").tag("target", "replica")
+                .register(meterRegistry);
+        primaryReads = Counter.builder("datasource.routing.reads").tag("target", "primary")
+                .description("Read-only transactions kept on the primary to avoid replication lag")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send every read to the primary until replicas have caught up with a
+     * change to cached data
+     */
+    public void pinToPrimary() {
+        pinnedUntil = System.nanoTime() + stickyNanos;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null) {
+                stickAfterCommit(userId);
+            }
+            return Target.PRIMARY;
+        }
+
+        long now = System.nanoTime();
+        Long userUntil = userId != null ? stickyUsers.get(userId) : null;
+        if (now - pinnedUntil < 0 || (userUntil != null && now - userUntil < 0)) {
+            primaryReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+
+    private void stickAfterCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.nanoTime();
+                stickyUsers.put(userId, now + stickyNanos);
+                if (stickyUsers.size() > STICKY_USERS_SWEEP_SIZE) {
+                    stickyUsers.values().removeIf(until -> now - until >= 0);
+                }
+            }
+        });
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return userId;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.siamcode.backend.config;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The shard that team-scoped data is read from and written to on the
+ * current thread. Bound per request by ShardRoutingInterceptor and around
+ * background work by ShardRouter; work handed to other threads must carry
+ * it over with {@link #call}.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The bound shard, or null if none is
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run with the given shard bound (nothing bound if null), restoring the
+     * previous one afterwards
+     */
+    public static <T> T call(Integer shard, Callable<T> work) throws Exception {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.siamcode.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * The connection pools of all shards and the routing DataSource over them.
+ * Deliberately not a DataSource bean itself, so the primary DataSource is
+ * still auto-configured as before.
+ */
+public class ShardDataSources implements AutoCloseable {
+
+    private final List<HikariDataSource> pools;
+    private final ShardRoutingDataSource routingDataSource;
+    private final LazyConnectionDataSourceProxy lazyRoutingDataSource;
+
+    public ShardDataSources(List<HikariDataSource> pools) {
+        this.pools = List.copyOf(pools);
+        this.routingDataSource = new ShardRoutingDataSource(List.copyOf(pools));
+        this.routingDataSource.afterPropertiesSet();
+
+        // The shard is picked when the first statement runs, not when the
+        // transaction begins; the defaults spare it a connection at startup
+        this.lazyRoutingDataSource = new LazyConnectionDataSourceProxy();
+        this.lazyRoutingDataSource.setTargetDataSource(routingDataSource);
+        this.lazyRoutingDataSource.setDefaultAutoCommit(true);
+        this.lazyRoutingDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        this.lazyRoutingDataSource.afterPropertiesSet();
+    }
+
+    public int getShardCount() {
+        return pools.size();
+    }
+
+    /**
+     * The pool of one shard, for work that manages its own connections
+     */
+    public DataSource getShard(int shard) {
+        return pools.get(shard);
+    }
+
+    /**
+     * DataSource routing to the shard bound in ShardContext
+     */
+    public DataSource getRoutingDataSource() {
+        return lazyRoutingDataSource;
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,37 @@
+package com.siamcode.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends team-scoped data to the shard bound in ShardContext. Inside a
+ * transaction a shard must be bound: falling back to one would silently
+ * read or write another team's database. Outside transactions (Hibernate
+ * looking at the schema while starting up) shard 0 is used.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    ShardRoutingDataSource(List<DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        if (shard == null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("No shard bound for team-scoped data");
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,70 @@
+package com.siamcode.backend.config;
+
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.service.ShardRouter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Binds the shard of the team a request is about: the {teamId} path
+ * variable, or for /api/standups/{standupId} the shard holding that standup.
+ * Requests about no single team (the feed, backfill jobs) pick shards
+ * themselves.
+ */
+public class ShardRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    private final ShardRouter shardRouter;
+    private final StandupRepository standupRepository;
+
+    public ShardRoutingInterceptor(ShardRouter shardRouter, StandupRepository standupRepository) {
+        this.shardRouter = shardRouter;
+        this.standupRepository = standupRepository;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return true;
+        }
+
+        Long teamId = parseId(variables.get("teamId"));
+        Long standupId = parseId(variables.get("standupId"));
+        if (teamId != null) {
+            ShardContext.bind(shardRouter.shardOf(teamId));
+        } else if (standupId != null) {
+            ShardContext.bind(shardRouter.locate(() -> standupRepository.existsById(standupId)));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        ShardContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ShardContext.clear();
+    }
+
+    private static Long parseId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            // Left to the controller to reject
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.siamcode.backend.config;
+
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A transaction on the team-scoped (sharded) tables, on the shard bound in
+ * ShardContext. Global tables read inside it go through their own
+ * transactions. Without sharding this is the ordinary transaction manager.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(transactionManager = ShardTransactional.TRANSACTION_MANAGER)
+public @interface ShardTransactional {
+
+    String TRANSACTION_MANAGER = "shardTransactionManager";
+
+    @AliasFor(annotation = Transactional.class)
+    boolean readOnly() default false;
+}
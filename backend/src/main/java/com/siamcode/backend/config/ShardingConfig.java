@@ -0,0 +1,247 @@
+package com.siamcode.backend.config;
+
+import com.siamcode.backend.entity.BlockerAlert;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.StandupSummary;
+import com.siamcode.backend.entity.StandupTombstone;
+import com.siamcode.backend.entity.TeamStandupSequence;
+import com.siamcode.backend.entity.WeeklySummary;
+import com.siamcode.backend.repository.BlockerAlertRepository;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.repository.StandupSummaryRepository;
+import com.siamcode.backend.repository.StandupTombstoneRepository;
+import com.siamcode.backend.repository.TeamStandupSequenceRepository;
+import com.siamcode.backend.repository.WeeklySummaryRepository;
+import com.siamcode.backend.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jpa.EntityManagerFactoryBuilder;
+import org.springframework.boot.transaction.autoconfigure.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypesScanner;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Team-based sharding, active when sharding.enabled is true.
+ *
+ * Tables keyed by team (standups, their tombstones and change sequences,
+ * daily and weekly summaries, blocker alerts) get their own persistence unit
+ * over ShardDataSources, routed per transaction to the shard bound in
+ * ShardContext. Everything else (users, teams, members, tokens, the shard
+ * directory) stays in the default persistence unit on the primary database,
+ * replica included. Shard 0 is the primary database, through a pool of its
+ * own so shard transactions never wait for a global connection they hold;
+ * sharding.urls lists the others, in a fixed order since a shard's number is
+ * its position.
+ *
+ * Generated ids of shard n start at n << 40, so ids stay unique across
+ * shards: rows keep their ids when a team moves, and a standup can be found
+ * by id alone. Hibernate creates or updates the schema of each shard at
+ * startup, as spring.jpa.hibernate.ddl-auto says.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@Import({ ShardingConfig.GlobalRepositories.class, ShardingConfig.ShardRepositories.class })
+@Slf4j
+public class ShardingConfig {
+
+    private static final int SHARD_ID_BITS = 40;
+
+    private static final List<Class<?>> SHARDED_ENTITIES = List.of(Standup.class, StandupTombstone.class,
+            TeamStandupSequence.class, StandupSummary.class, WeeklySummary.class, BlockerAlert.class);
+
+    // Tables of the sharded entities with generated ids
+    private static final List<String> ID_TABLES = List.of("standups", "standup_tombstones",
+            "standup_summaries", "weekly_summaries", "blocker_alerts");
+
+    // The shards are never cached; their data is read per team and changes all the time
+    private static final Map<String, Object> NO_CACHE = Map.of(
+            CacheSettings.USE_SECOND_LEVEL_CACHE, false,
+            CacheSettings.USE_QUERY_CACHE, false);
+
+    // Not configuration classes of their own, so component scanning skips them without sharding
+    @EnableJpaRepositories(basePackageClasses = StandupRepository.class,
+            excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                    StandupRepository.class, StandupTombstoneRepository.class,
+                    TeamStandupSequenceRepository.class, StandupSummaryRepository.class,
+                    WeeklySummaryRepository.class, BlockerAlertRepository.class }))
+    static class GlobalRepositories {
+    }
+
+    @EnableJpaRepositories(basePackageClasses = StandupRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                    StandupRepository.class, StandupTombstoneRepository.class,
+                    TeamStandupSequenceRepository.class, StandupSummaryRepository.class,
+                    WeeklySummaryRepository.class, BlockerAlertRepository.class }),
+            entityManagerFactoryRef = "shardEntityManagerFactory",
+            transactionManagerRef = ShardTransactional.TRANSACTION_MANAGER)
+    static class ShardRepositories {
+    }
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${sharding.urls:}") List<String> urls,
+            @Value("${sharding.username:}") String username,
+            @Value("${sharding.password:}") String password) {
+        List<String> shardUrls = new ArrayList<>();
+        shardUrls.add(properties.determineUrl());
+        urls.stream().map(String::trim).filter(url -> !url.isEmpty()).forEach(shardUrls::add);
+
+        // Credentials default to the primary's
+        boolean ownCredentials = !username.isEmpty();
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int shard = 0; shard < shardUrls.size(); shard++) {
+            boolean primary = shard == 0 || !ownCredentials;
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(shardUrls.get(shard))
+                    .username(primary ? properties.determineUsername() : username)
+                    .password(primary ? properties.determinePassword() : password)
+                    .build();
+            Binder.get(environment).bind("sharding.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("shard-" + shard);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        log.info("Team data is sharded across {} databases", pools.size());
+        return new ShardDataSources(pools);
+    }
+
+    @Bean
+    @Primary
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(EntityManagerFactoryBuilder builder,
+            DataSource dataSource, ResourceLoader resourceLoader) {
+        return builder.dataSource(dataSource)
+                .managedTypes(managedTypes(resourceLoader, false))
+                .build();
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean shardEntityManagerFactory(EntityManagerFactoryBuilder builder,
+            ShardDataSources shards, ResourceLoader resourceLoader) {
+        PersistenceManagedTypes types = managedTypes(resourceLoader, true);
+        // Shard 0 is set up by the factory below, which starts up on it
+        for (int shard = 1; shard < shards.getShardCount(); shard++) {
+            updateSchema(builder, types, shards.getShard(shard), shard);
+        }
+        return builder.dataSource(shards.getRoutingDataSource())
+                .managedTypes(types)
+                .persistenceUnit("shards")
+                .properties(NO_CACHE)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean(ShardTransactional.TRANSACTION_MANAGER)
+    public JpaTransactionManager shardTransactionManager(
+            @Qualifier("shardEntityManagerFactory") EntityManagerFactory shardEntityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(shardEntityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public ShardRoutingInterceptor shardRoutingInterceptor(ShardRouter shardRouter,
+            StandupRepository standupRepository) {
+        return new ShardRoutingInterceptor(shardRouter, standupRepository);
+    }
+
+    /**
+     * Run the schema tool of a throwaway factory against one shard, then move
+     * its id sequences into the shard's range
+     */
+    private static void updateSchema(EntityManagerFactoryBuilder builder, PersistenceManagedTypes types,
+            DataSource shardDataSource, int shard) {
+        LocalContainerEntityManagerFactoryBean schemaFactory = builder.dataSource(shardDataSource)
+                .managedTypes(types)
+                .persistenceUnit("shard-" + shard + "-schema")
+                .properties(NO_CACHE)
+                .build();
+        schemaFactory.afterPropertiesSet();
+        schemaFactory.destroy();
+        reserveIdRange(shardDataSource, shard);
+    }
+
+    private static void reserveIdRange(DataSource shardDataSource, int shard) {
+        long floor = (long) shard << SHARD_ID_BITS;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shardDataSource);
+        boolean postgres;
+        try {
+            postgres = "PostgreSQL".equals(
+                    JdbcUtils.extractDatabaseMetaData(shardDataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot reach shard " + shard, e);
+        }
+
+        for (String table : ID_TABLES) {
+            if (postgres) {
+                // Takes one id; the sequence only ever moves forward
+                Long next = jdbcTemplate.queryForObject("SELECT nextval(pg_get_serial_sequence(?, 'id'))",
+                        Long.class, table);
+                if (next != null && next < floor) {
+                    jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?, false)",
+                            Long.class, table, floor);
+                }
+            } else {
+                Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                if (max != null && max < floor) {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + floor);
+                }
+            }
+        }
+    }
+
+    private static PersistenceManagedTypes managedTypes(ResourceLoader resourceLoader, boolean sharded) {
+        Set<String> shardedNames = SHARDED_ENTITIES.stream().map(Class::getName).collect(Collectors.toSet());
+        List<String> names = new PersistenceManagedTypesScanner(resourceLoader)
+                .scan(Standup.class.getPackageName())
+                .getManagedClassNames().stream()
+                .filter(name -> shardedNames.contains(name) == sharded)
+                .collect(Collectors.toList());
+        return PersistenceManagedTypes.of(names, List.of());
+    }
+}
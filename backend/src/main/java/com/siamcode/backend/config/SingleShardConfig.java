@@ -0,0 +1,20 @@
+package com.siamcode.backend.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Without sharding, team-scoped data lives in the primary database like
+ * everything else: @ShardTransactional is the ordinary transaction manager.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class SingleShardConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor shardTransactionManagerAlias() {
+        return beanFactory -> beanFactory.registerAlias("transactionManager", ShardTransactional.TRANSACTION_MANAGER);
+    }
+}
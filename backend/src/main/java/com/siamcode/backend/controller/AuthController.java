@@ -1,11 +1,16 @@
 package com.siamcode.backend.controller;
 
 import com.siamcode.backend.dto.request.LoginRequest;
+import com.siamcode.backend.dto.request.RefreshTokenRequest;
 import com.siamcode.backend.dto.request.RegisterRequest;
 import com.siamcode.backend.dto.request.VerifyPasswordRequest;
 import com.siamcode.backend.dto.response.AuthResponse;
+import com.siamcode.backend.dto.response.StreamTicketResponse;
+import com.siamcode.backend.security.AuthRateLimiter;
+import com.siamcode.backend.security.JwtAuthenticationDetails;
 import com.siamcode.backend.security.SecurityHelper;
 import com.siamcode.backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -19,6 +24,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final SecurityHelper securityHelper;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -27,18 +33,45 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        authRateLimiter.check(httpRequest, request.getEmail());
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request.getRefreshToken());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest request) {
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+        JwtAuthenticationDetails accessToken = null;
+        Long userId = null;
+        if (securityHelper.isAuthenticated()) {
+            userId = securityHelper.getCurrentUserId();
+            accessToken = securityHelper.getTokenDetails();
+        }
+        authService.logout(refreshToken, accessToken, userId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/verify-password")
-    public ResponseEntity<Void> verifyPassword(@Valid @RequestBody VerifyPasswordRequest request) {
+    public ResponseEntity<Void> verifyPassword(@Valid @RequestBody VerifyPasswordRequest request,
+            HttpServletRequest httpRequest) {
         Long userId = securityHelper.getCurrentUserId();
+        authRateLimiter.checkUser(httpRequest, userId);
         authService.verifyPassword(userId, request.getPassword());
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<StreamTicketResponse> streamTicket() {
+        return ResponseEntity.ok(authService.issueStreamTicket(securityHelper.getCurrentUserId()));
+    }
+
     @GetMapping("/verify")
     public ResponseEntity<String> verifyEmail(@RequestParam String token) {
         authService.verifyEmail(token);
@@ -46,7 +79,8 @@ public class AuthController {
     }
 
     @PostMapping("/forgot-password")
-    public ResponseEntity<Void> forgotPassword(@RequestParam String email) {
+    public ResponseEntity<Void> forgotPassword(@RequestParam String email, HttpServletRequest httpRequest) {
+        authRateLimiter.check(httpRequest, email);
         authService.initiatePasswordReset(email);
         return ResponseEntity.ok().build();
     }
@@ -58,8 +92,9 @@ public class AuthController {
     }
 
     @PostMapping("/resend-verification")
-    public ResponseEntity<String> resendVerification() {
+    public ResponseEntity<String> resendVerification(HttpServletRequest httpRequest) {
         Long userId = securityHelper.getCurrentUserId();
+        authRateLimiter.checkUser(httpRequest, userId);
         authService.resendVerificationEmail(userId);
         return ResponseEntity.ok("Verification email sent successfully.");
     }
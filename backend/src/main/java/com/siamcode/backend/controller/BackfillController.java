@@ -0,0 +1,59 @@
+package com.siamcode.backend.controller;
+
+import com.siamcode.backend.dto.request.BackfillRequest;
+import com.siamcode.backend.dto.response.BackfillJobResponse;
+import com.siamcode.backend.security.SecurityHelper;
+import com.siamcode.backend.service.BackfillService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/backfill")
+@RequiredArgsConstructor
+public class BackfillController {
+
+    private final BackfillService backfillService;
+    private final SecurityHelper securityHelper;
+
+    /**
+     * Start building missing summaries for past dates of the given teams
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<BackfillJobResponse> startJob(@Valid @RequestBody BackfillRequest request) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        BackfillJobResponse response = backfillService.startJob(request, currentUserId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<BackfillJobResponse>> getJobs() {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return ResponseEntity.ok(backfillService.getJobs(currentUserId));
+    }
+
+    /**
+     * Progress of a single backfill job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BackfillJobResponse> getJob(@PathVariable String jobId) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return ResponseEntity.ok(backfillService.getJob(jobId, currentUserId));
+    }
+
+    @PostMapping("/jobs/{jobId}/pause")
+    public ResponseEntity<BackfillJobResponse> pauseJob(@PathVariable String jobId) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return ResponseEntity.ok(backfillService.pauseJob(jobId, currentUserId));
+    }
+
+    @PostMapping("/jobs/{jobId}/resume")
+    public ResponseEntity<BackfillJobResponse> resumeJob(@PathVariable String jobId) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return ResponseEntity.ok(backfillService.resumeJob(jobId, currentUserId));
+    }
+}
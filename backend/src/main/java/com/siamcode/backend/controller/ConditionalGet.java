@@ -0,0 +1,30 @@
+package com.siamcode.backend.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET handling for endpoints that can compute a cheap validator
+ * before loading their payload.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Set the ETag and Cache-Control headers and check If-None-Match. Returns
+     * true if a 304 has been prepared, in which case the handler should
+     * return null without loading anything.
+     *
+     * Cache-Control is set up front so the 304 carries it too, and so Spring
+     * Security does not replace it with its default no-store.
+     */
+    static boolean isNotModified(ServletWebRequest request, String etag, CacheControl cacheControl) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,36 @@
+package com.siamcode.backend.controller;
+
+import com.siamcode.backend.service.SummaryResponseCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Responses whose body is JSON that was encoded (and possibly gzipped)
+ * ahead of time, written out as is.
+ */
+final class EncodedJson {
+
+    private EncodedJson() {
+    }
+
+    static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    static ResponseEntity<byte[]> of(SummaryResponseCache.Encoded encoded) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (encoded.gzipped()) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(encoded.body());
+    }
+
+    static ResponseEntity<byte[]> of(byte[] json) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+}
@@ -0,0 +1,28 @@
+package com.siamcode.backend.controller;
+
+import com.siamcode.backend.dto.response.FeedPageResponse;
+import com.siamcode.backend.security.SecurityHelper;
+import com.siamcode.backend.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final FeedService feedService;
+    private final SecurityHelper securityHelper;
+
+    /**
+     * Standups and summaries across all of the caller's teams, newest first
+     */
+    @GetMapping
+    public ResponseEntity<FeedPageResponse> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return ResponseEntity.ok(feedService.getFeed(currentUserId, cursor, limit));
+    }
+}
@@ -0,0 +1,62 @@
+package com.siamcode.backend.controller;
+
+import com.siamcode.backend.repository.TeamRepository;
+import com.siamcode.backend.repository.TeamShardRepository;
+import com.siamcode.backend.service.ShardMoveService;
+import com.siamcode.backend.service.ShardMoveService.TeamMove;
+import com.siamcode.backend.service.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Shard administration at /actuator/shards: teams per shard, and moving
+ * teams (POST /actuator/shards/{teamId} with {"shard": n}, or
+ * POST /actuator/shards with {"limit": n} to move teams the ring places
+ * elsewhere, e.g. after adding a shard).
+ */
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardsEndpoint {
+
+    private final ShardRouter shardRouter;
+    private final ShardMoveService shardMoveService;
+    private final TeamShardRepository teamShardRepository;
+    private final TeamRepository teamRepository;
+
+    public record ShardsReport(int shards, Map<Integer, Long> teams, List<Long> moving) {
+    }
+
+    @ReadOperation
+    public ShardsReport shards() {
+        Map<Integer, Long> teams = new TreeMap<>();
+        long placed = 0;
+        for (Object[] row : teamShardRepository.countByShard()) {
+            teams.put((Integer) row[0], (Long) row[1]);
+            placed += (Long) row[1];
+        }
+        // Teams from before sharding have no directory entry and are on shard 0
+        teams.merge(0, Math.max(teamRepository.count() - placed, 0), Long::sum);
+        return new ShardsReport(shardRouter.getShardCount(), teams, teamShardRepository.findMovingTeamIds());
+    }
+
+    @WriteOperation
+    public TeamMove move(@Selector Long teamId, int shard) {
+        return shardMoveService.moveTeam(teamId, shard);
+    }
+
+    @WriteOperation
+    public List<TeamMove> rebalance(int limit) {
+        return shardMoveService.rebalance(limit);
+    }
+}
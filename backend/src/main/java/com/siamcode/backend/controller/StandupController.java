@@ -1,15 +1,24 @@
 package com.siamcode.backend.controller;
 
 import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.dto.response.StandupChangesResponse;
 import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.dto.response.UserResponse;
+import com.siamcode.backend.exception.PreconditionFailedException;
+import com.siamcode.backend.exception.PreconditionRequiredException;
 import com.siamcode.backend.security.SecurityHelper;
 import com.siamcode.backend.service.StandupService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -27,23 +36,64 @@ public class StandupController {
             @Valid @RequestBody CreateStandupRequest request) {
         Long currentUserId = securityHelper.getCurrentUserId();
         StandupResponse response = standupService.createStandup(teamId, currentUserId, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(String.valueOf(response.getVersion())).body(response);
     }
 
+    /**
+     * Requires If-Match with the standup's version (its ETag, also in the
+     * "version" field). A stale version gets 412 so concurrent edits never
+     * silently overwrite each other; If-Match: * skips the check.
+     */
     @PutMapping("/{standupId}")
     public ResponseEntity<StandupResponse> updateStandup(
             @PathVariable Long standupId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody CreateStandupRequest request) {
         Long currentUserId = securityHelper.getCurrentUserId();
-        StandupResponse response = standupService.updateStandup(standupId, currentUserId, request);
-        return ResponseEntity.ok(response);
+        StandupResponse response = standupService.updateStandup(standupId, currentUserId, parseIfMatch(ifMatch),
+                request);
+        return ResponseEntity.ok().eTag(String.valueOf(response.getVersion())).body(response);
     }
 
+    /**
+     * Standups created, updated or deleted after the given change sequence.
+     * Start with since=0 and pass back nextSince each time.
+     */
+    @GetMapping("/teams/{teamId}/changes")
+    public ResponseEntity<StandupChangesResponse> getStandupChanges(
+            @PathVariable Long teamId,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return ResponseEntity.ok(standupService.getStandupChanges(teamId, since, limit, currentUserId));
+    }
+
+    /**
+     * Live standup changes for a team as Server-Sent Events. EventSource
+     * cannot set headers, so instead of the access token the caller may pass
+     * ?ticket= from POST /api/auth/stream-ticket.
+     */
+    @GetMapping(value = "/teams/{teamId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStandups(@PathVariable Long teamId) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return standupService.streamStandups(teamId, currentUserId);
+    }
+
+    /**
+     * Supports If-None-Match: an unchanged day costs one validator query and
+     * returns 304. Standups of any day can still be edited or deleted, so
+     * clients always revalidate.
+     */
     @GetMapping("/teams/{teamId}")
     public ResponseEntity<List<StandupResponse>> getStandupsByDate(
             @PathVariable Long teamId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            ServletWebRequest webRequest) {
         Long currentUserId = securityHelper.getCurrentUserId();
+        String etag = standupService.getStandupsVersion(teamId, date, currentUserId);
+        if (ConditionalGet.isNotModified(webRequest, etag, CacheControl.noCache().cachePrivate())) {
+            return null;
+        }
         List<StandupResponse> standups = standupService.getStandupsByTeamAndDate(teamId, date, currentUserId);
         return ResponseEntity.ok(standups);
     }
@@ -59,10 +109,44 @@ public class StandupController {
         return ResponseEntity.ok(standups);
     }
 
+    /**
+     * Team members who haven't submitted a standup for the date (defaults to today)
+     */
+    @GetMapping("/teams/{teamId}/pending")
+    public ResponseEntity<List<UserResponse>> getPendingMembers(
+            @PathVariable Long teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        List<UserResponse> pending = standupService.getPendingMembers(teamId, date, currentUserId);
+        return ResponseEntity.ok(pending);
+    }
+
     @DeleteMapping("/{standupId}")
     public ResponseEntity<Void> deleteStandup(@PathVariable Long standupId) {
         Long currentUserId = securityHelper.getCurrentUserId();
         standupService.deleteStandup(standupId, currentUserId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * The version named by an If-Match header, or null for "*"
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new PreconditionRequiredException("If-Match header with the standup version is required");
+        }
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            // Not a version we ever issued, so it cannot match the current one
+            throw new PreconditionFailedException("If-Match does not match the current standup version");
+        }
+    }
 }
@@ -3,12 +3,18 @@ package com.siamcode.backend.controller;
 import com.siamcode.backend.dto.response.StandupSummaryResponse;
 import com.siamcode.backend.security.SecurityHelper;
 import com.siamcode.backend.service.StandupSummaryService;
+import com.siamcode.backend.service.SummaryResponseCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
 @RestController
@@ -19,6 +25,9 @@ public class StandupSummaryController {
     private final StandupSummaryService standupSummaryService;
     private final SecurityHelper securityHelper;
 
+    @Value("${summaries.http.cache.past.max.age.seconds:86400}")
+    private long pastSummaryMaxAgeSeconds;
+
     @PostMapping("/teams/{teamId}/generate")
     public ResponseEntity<StandupSummaryResponse> generateSummary(
             @PathVariable Long teamId,
@@ -28,11 +37,38 @@ public class StandupSummaryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Supports If-None-Match. A summary of a day that is over in every
+     * timezone is not going to change short of an explicit regenerate, so it
+     * may be cached for a while and is served as pre-encoded JSON from the
+     * response cache; anything else is revalidated each time.
+     */
     @GetMapping("/teams/{teamId}")
-    public ResponseEntity<StandupSummaryResponse> getSummaryByDate(
+    public ResponseEntity<?> getSummaryByDate(
             @PathVariable Long teamId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            ServletWebRequest webRequest) {
         Long currentUserId = securityHelper.getCurrentUserId();
+        Long summaryId = standupSummaryService.getSummaryId(teamId, date, currentUserId);
+        // A missing summary may still be generated or backfilled, so only an existing one counts
+        boolean settled = summaryId != null && date.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(1));
+        boolean gzip = settled && EncodedJson.acceptsGzip(webRequest);
+        // The gzipped body is a different representation, so it gets its own tag
+        String etag = "summary-" + teamId + "-" + date + "-" + (summaryId != null ? summaryId : "none")
+                + (gzip ? "-gzip" : "");
+        CacheControl cacheControl = settled
+                ? CacheControl.maxAge(Duration.ofSeconds(pastSummaryMaxAgeSeconds)).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+        if (ConditionalGet.isNotModified(webRequest, etag, cacheControl)) {
+            return null;
+        }
+        if (settled) {
+            SummaryResponseCache.Encoded encoded = standupSummaryService.getEncodedSummary(teamId, summaryId, gzip,
+                    currentUserId);
+            if (encoded != null) {
+                return EncodedJson.of(encoded);
+            }
+        }
         StandupSummaryResponse response = standupSummaryService.getSummaryByTeamAndDate(teamId, date, currentUserId);
         return ResponseEntity.ok(response);
     }
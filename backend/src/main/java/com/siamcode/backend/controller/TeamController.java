@@ -2,15 +2,22 @@ package com.siamcode.backend.controller;
 
 import com.siamcode.backend.dto.request.AddTeamMemberRequest;
 import com.siamcode.backend.dto.request.CreateTeamRequest;
+import com.siamcode.backend.dto.request.UpdateReminderSettingsRequest;
 import com.siamcode.backend.dto.request.UpdateTeamRequest;
+import com.siamcode.backend.dto.response.TeamDashboardResponse;
 import com.siamcode.backend.dto.response.TeamResponse;
 import com.siamcode.backend.dto.response.UserResponse;
 import com.siamcode.backend.security.SecurityHelper;
+import com.siamcode.backend.service.TeamDashboardService;
 import com.siamcode.backend.service.TeamService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,6 +26,7 @@ import java.util.List;
 public class TeamController {
 
     private final TeamService teamService;
+    private final TeamDashboardService teamDashboardService;
     private final SecurityHelper securityHelper;
 
     @PostMapping
@@ -41,6 +49,18 @@ public class TeamController {
         return ResponseEntity.ok(team);
     }
 
+    /**
+     * Team, members, standups and summary for a date (team-local today by
+     * default), latest weekly summary and heatmap in a single response
+     */
+    @GetMapping("/{teamId}/dashboard")
+    public ResponseEntity<TeamDashboardResponse> getTeamDashboard(
+            @PathVariable Long teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        return ResponseEntity.ok(teamDashboardService.getDashboard(teamId, date, currentUserId));
+    }
+
     @GetMapping("/{teamId}/members")
     public ResponseEntity<List<UserResponse>> getTeamMembers(@PathVariable Long teamId) {
         List<UserResponse> members = teamService.getTeamMembers(teamId);
@@ -56,6 +76,15 @@ public class TeamController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/{teamId}/reminder-settings")
+    public ResponseEntity<TeamResponse> updateReminderSettings(
+            @PathVariable Long teamId,
+            @Valid @RequestBody UpdateReminderSettingsRequest request) {
+        Long currentUserId = securityHelper.getCurrentUserId();
+        TeamResponse response = teamService.updateReminderSettings(teamId, request, currentUserId);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{teamId}")
     public ResponseEntity<Void> deleteTeam(@PathVariable Long teamId) {
         Long currentUserId = securityHelper.getCurrentUserId();
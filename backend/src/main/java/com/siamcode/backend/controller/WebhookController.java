@@ -0,0 +1,31 @@
+package com.siamcode.backend.controller;
+
+import com.siamcode.backend.service.EmailSuppressionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/webhooks")
+@RequiredArgsConstructor
+public class WebhookController {
+
+    private final EmailSuppressionService emailSuppressionService;
+
+    /**
+     * Resend delivery events (bounces and complaints feed the suppression list).
+     * Not found unless resend.webhook.secret is set.
+     */
+    @PostMapping("/resend")
+    public ResponseEntity<Void> handleResendEvent(
+            @RequestHeader(value = "svix-id", required = false) String messageId,
+            @RequestHeader(value = "svix-timestamp", required = false) String timestamp,
+            @RequestHeader(value = "svix-signature", required = false) String signature,
+            @RequestBody String payload) {
+        if (!emailSuppressionService.isWebhookEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        emailSuppressionService.handleResendWebhook(messageId, timestamp, signature, payload);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -4,10 +4,10 @@ import com.siamcode.backend.dto.response.WeeklySummaryResponse;
 import com.siamcode.backend.security.SecurityHelper;
 import com.siamcode.backend.service.WeeklySummaryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("/api/weekly-summaries")
@@ -26,21 +26,41 @@ public class WeeklySummaryController {
                 return ResponseEntity.ok(response);
         }
 
+        /**
+         * Served from the response cache: weekly summaries never change once
+         * written, so the list is assembled from pre-encoded JSON
+         */
         @GetMapping("/teams/{teamId}")
-        public ResponseEntity<List<WeeklySummaryResponse>> getWeeklySummaries(
-                        @PathVariable Long teamId) {
+        public ResponseEntity<byte[]> getWeeklySummaries(
+                        @PathVariable Long teamId,
+                        ServletWebRequest webRequest) {
                 Long currentUserId = securityHelper.getCurrentUserId();
-                List<WeeklySummaryResponse> summaries = weeklySummaryService.getWeeklySummaries(
-                                teamId, currentUserId);
-                return ResponseEntity.ok(summaries);
+                if (isNotModified(teamId, currentUserId, "", webRequest)) {
+                        return null;
+                }
+                return EncodedJson.of(weeklySummaryService.getEncodedWeeklySummaries(teamId, currentUserId));
         }
 
         @GetMapping("/teams/{teamId}/latest")
-        public ResponseEntity<WeeklySummaryResponse> getLatestWeeklySummary(
-                        @PathVariable Long teamId) {
+        public ResponseEntity<byte[]> getLatestWeeklySummary(
+                        @PathVariable Long teamId,
+                        ServletWebRequest webRequest) {
                 Long currentUserId = securityHelper.getCurrentUserId();
-                WeeklySummaryResponse summary = weeklySummaryService.getLatestWeeklySummary(
-                                teamId, currentUserId);
-                return ResponseEntity.ok(summary);
+                boolean gzip = EncodedJson.acceptsGzip(webRequest);
+                if (isNotModified(teamId, currentUserId, gzip ? "-gzip" : "", webRequest)) {
+                        return null;
+                }
+                return EncodedJson.of(weeklySummaryService.getEncodedLatestWeeklySummary(
+                                teamId, gzip, currentUserId));
+        }
+
+        /**
+         * Weekly summaries are only ever added, so one validator covers both
+         * the list and the latest summary
+         */
+        private boolean isNotModified(Long teamId, Long currentUserId, String etagSuffix,
+                        ServletWebRequest webRequest) {
+                String etag = weeklySummaryService.getWeeklySummariesVersion(teamId, currentUserId) + etagSuffix;
+                return ConditionalGet.isNotModified(webRequest, etag, CacheControl.noCache().cachePrivate());
         }
 }
@@ -0,0 +1,18 @@
+package com.siamcode.backend.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateReminderSettingsRequest {
+    @Size(max = 64, message = "Timezone must be at most 64 characters")
+    private String timezone; // IANA zone id, e.g. "America/New_York"
+
+    private LocalTime reminderTime; // null disables automatic reminders
+}
@@ -0,0 +1,28 @@
+package com.siamcode.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJobResponse {
+    private String id;
+    private String status; // RUNNING, PAUSED, COMPLETED
+    private List<Long> teamIds;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int totalTasks;
+    private int processedTasks;
+    private int createdCount;
+    private int skippedCount;
+    private int failedCount;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
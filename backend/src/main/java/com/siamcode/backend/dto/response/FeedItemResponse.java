@@ -0,0 +1,23 @@
+package com.siamcode.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the activity feed. Exactly one of standup and summary is set,
+ * matching the type ("STANDUP" or "SUMMARY").
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedItemResponse {
+    private String type;
+    private Long teamId;
+    private String teamName;
+    private LocalDateTime createdAt;
+    private StandupResponse standup;
+    private StandupSummaryResponse summary;
+}
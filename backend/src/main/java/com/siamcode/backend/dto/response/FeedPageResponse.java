@@ -0,0 +1,16 @@
+package com.siamcode.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPageResponse {
+    private List<FeedItemResponse> items;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
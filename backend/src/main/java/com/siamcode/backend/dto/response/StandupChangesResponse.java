@@ -0,0 +1,23 @@
+package com.siamcode.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandupChangesResponse {
+    // Standups created or updated since the requested sequence (current state)
+    private List<StandupResponse> upserts;
+    private List<Long> deletedIds;
+    // Pass back as ?since= on the next call
+    private long nextSince;
+    // More changes are waiting; call again right away with nextSince
+    private boolean hasMore;
+    // The requested sequence is older than the tombstone log; reload the
+    // standups in full and continue from nextSince
+    private boolean resetRequired;
+}
@@ -20,4 +20,5 @@ public class StandupResponse {
     private String blockersText;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
 }
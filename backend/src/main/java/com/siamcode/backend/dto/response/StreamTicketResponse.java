@@ -0,0 +1,15 @@
+package com.siamcode.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicketResponse {
+    // Pass as ?ticket= when opening the stream; good for one stream
+    private String ticket;
+    // Lifetime in seconds
+    private long expiresIn;
+}
@@ -0,0 +1,27 @@
+package com.siamcode.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Everything the team page needs in one payload
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamDashboardResponse {
+    private TeamResponse team;
+    private List<UserResponse> members;
+    private LocalDate date;
+    private List<StandupResponse> standups;
+    private StandupSummaryResponse summary;
+    private WeeklySummaryResponse latestWeeklySummary;
+    private List<HeatmapStatsResponse> heatmap;
+    // Sections that failed or timed out and were left empty; the client can
+    // fetch them from their own endpoints
+    private List<String> unavailable;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Data
 @NoArgsConstructor
@@ -15,4 +16,6 @@ public class TeamResponse {
     private Long ownerUserId;
     private LocalDateTime createdAt;
     private String inviteCode;
+    private String timezone;
+    private LocalTime reminderTime;
 }
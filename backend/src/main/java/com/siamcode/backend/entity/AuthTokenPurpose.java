@@ -0,0 +1,7 @@
+package com.siamcode.backend.entity;
+
+public enum AuthTokenPurpose {
+    EMAIL_VERIFICATION,
+    PASSWORD_RESET,
+    STREAM_TICKET
+}
@@ -0,0 +1,47 @@
+package com.siamcode.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A blocker waiting to go out in the owner's next digest email.
+ * One row per standup, so repeated edits overwrite instead of piling up.
+ * While a digest is being sent its rows carry that digest's claim token.
+ */
+@Entity
+@Table(name = "blocker_alerts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockerAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long standupId;
+
+    @Column(nullable = false)
+    private Long teamId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String userName;
+
+    @Column(columnDefinition = "TEXT")
+    private String blockersText;
+
+    @Column(nullable = false)
+    private LocalDateTime reportedAt;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime claimedAt;
+}
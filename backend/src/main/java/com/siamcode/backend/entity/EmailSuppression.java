@@ -0,0 +1,37 @@
+package com.siamcode.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An address we must not send to again because it hard-bounced or the
+ * recipient marked our mail as spam. Emails are stored lower-cased.
+ */
+@Entity
+@Table(name = "email_suppressions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailSuppression {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SuppressionReason reason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastEventAt;
+}
@@ -0,0 +1,36 @@
+package com.siamcode.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A revoked access token (by jti), or, when tokenId is null, a cutoff that
+ * revokes every access token of the user issued before revokedAt. Rows are
+ * only needed until the tokens they cover would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 36)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // Epoch seconds, compared directly against the iat/exp claims
+    @Column(nullable = false)
+    private long revokedAt;
+
+    @Column(nullable = false)
+    private long expiresAt;
+}
@@ -8,7 +8,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "standups")
+@Table(name = "standups", indexes = {
+        @Index(name = "idx_standups_team_created", columnList = "teamId, createdAt, id"),
+        @Index(name = "idx_standups_team_change_seq", columnList = "teamId, changeSeq"),
+        @Index(name = "idx_standups_team_date_seq", columnList = "teamId, date, changeSeq")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,6 +45,15 @@ public class Standup {
 
     private LocalDateTime updatedAt;
 
+    // Team-wide sequence of the last change to this standup (delta sync)
+    @Column(columnDefinition = "bigint default 0")
+    private long changeSeq;
+
+    // Optimistic lock; clients send it back as If-Match when editing
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -8,7 +8,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "standup_summaries")
+@Table(name = "standup_summaries", indexes = {
+        @Index(name = "idx_standup_summaries_team_created", columnList = "teamId, createdAt, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_summary_team_date", columnNames = { "teamId", "date" })
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
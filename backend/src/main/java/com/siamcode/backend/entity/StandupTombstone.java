@@ -0,0 +1,44 @@
+package com.siamcode.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted standup, so delta-sync clients learn about the
+ * deletion. Kept for standups.tombstones.retention.days.
+ */
+@Entity
+@Table(name = "standup_tombstones", indexes = {
+        @Index(name = "idx_standup_tombstones_team_seq", columnList = "teamId, changeSeq"),
+        @Index(name = "idx_standup_tombstones_deleted_at", columnList = "deletedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandupTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long teamId;
+
+    // Ids are never reused, so each standup has at most one tombstone
+    @Column(nullable = false, unique = true)
+    private Long standupId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
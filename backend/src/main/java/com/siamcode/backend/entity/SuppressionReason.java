@@ -0,0 +1,6 @@
+package com.siamcode.backend.entity;
+
+public enum SuppressionReason {
+    BOUNCE,
+    COMPLAINT
+}
@@ -1,13 +1,22 @@
 package com.siamcode.backend.entity;
 
+import com.siamcode.backend.config.HibernateCacheConfig;
+import com.siamcode.backend.service.EntityCacheInvalidation;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Entity
 @Table(name = "teams")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TEAMS_REGION)
+@EntityListeners(EntityCacheInvalidation.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,6 +43,16 @@ public class Team {
     @Column(unique = true)
     private String inviteCode;
 
+    // IANA zone id (e.g. "Europe/Berlin"); null means the server's default zone
+    @Column(length = 64)
+    private String timezone;
+
+    // Local time of day for automatic reminders; null disables them
+    private LocalTime reminderTime;
+
+    // Team-local date of the last automatic reminder run (per-day dedupe)
+    private LocalDate lastAutoReminderDate;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,14 +1,21 @@
 package com.siamcode.backend.entity;
 
+import com.siamcode.backend.config.HibernateCacheConfig;
+import com.siamcode.backend.service.EntityCacheInvalidation;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "team_members")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TEAM_MEMBERS_REGION)
+@EntityListeners(EntityCacheInvalidation.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,33 @@
+package com.siamcode.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shard directory entry: which database holds a team's standups and
+ * summaries. Teams without an entry predate sharding and live on shard 0.
+ */
+@Entity
+@Table(name = "team_shards")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamShard {
+
+    @Id
+    private Long teamId;
+
+    @Column(nullable = false)
+    private int shardId;
+
+    // Set while the team is being copied to another shard, so moves don't overlap
+    @Column(nullable = false)
+    private boolean moving;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.siamcode.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-team standup change counter for delta sync. Kept apart from the teams
+ * table because it moves on every standup write, which would otherwise keep
+ * invalidating cached teams.
+ */
+@Entity
+@Table(name = "team_standup_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamStandupSequence {
+
+    @Id
+    private Long teamId;
+
+    // Last standup change sequence handed out for this team
+    @Column(nullable = false)
+    private long changeSeq;
+
+    // Standup deletions up to this sequence have been purged from the tombstone log
+    @Column(nullable = false)
+    private long tombstoneHorizon;
+}
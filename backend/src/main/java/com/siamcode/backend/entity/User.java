@@ -1,13 +1,20 @@
 package com.siamcode.backend.entity;
 
+import com.siamcode.backend.config.HibernateCacheConfig;
+import com.siamcode.backend.service.EntityCacheInvalidation;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS_REGION)
+@EntityListeners(EntityCacheInvalidation.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,14 +36,10 @@ public class User {
     @Column(columnDefinition = "boolean default true")
     private boolean verified = true;
 
-    @Column
-    private String verificationToken;
-
-    @Column
-    private String passwordResetToken;
-
-    @Column
-    private LocalDateTime tokenExpiry;
+    // Bumped whenever the user's team memberships change, so membership
+    // claims in previously issued tokens can be recognised as stale
+    @Column(columnDefinition = "bigint default 0")
+    private long membershipVersion;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
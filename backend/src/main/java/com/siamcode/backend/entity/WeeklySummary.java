@@ -8,7 +8,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "weekly_summaries")
+@Table(name = "weekly_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_weekly_summary_team_week", columnNames = { "teamId", "weekStartDate" })
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,53 @@
+package com.siamcode.backend.event;
+
+import java.util.Set;
+
+/**
+ * Published when another instance has changed cached data, so this one can
+ * drop its copies. ids is null when everything of the topic must go, e.g.
+ * after the invalidation listener reconnects and may have missed messages.
+ */
+public record CacheInvalidationEvent(Topic topic, Set<Long> ids) {
+
+    public enum Topic {
+        /** User ids whose membership version changed */
+        MEMBERSHIP_VERSION('M'),
+        TEAM('T'),
+        USER('U'),
+        /** Team member ids; also invalidates cached membership queries */
+        TEAM_MEMBER('X'),
+        /** Ids of daily summaries that were replaced */
+        DAILY_SUMMARY('S'),
+        /** Team ids that moved to another shard */
+        TEAM_SHARD('D'),
+        /** Months (yyyymm) moved to the standup archive */
+        STANDUP_ARCHIVE('A'),
+        /** Team ids whose standups changed, for live streams */
+        STANDUP_CHANGE('C'),
+        /** Ids of email suppressions that were added */
+        SUPPRESSION('E');
+
+        private final char code;
+
+        Topic(char code) {
+            this.code = code;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        public static Topic fromCode(char code) {
+            for (Topic topic : values()) {
+                if (topic.code == code) {
+                    return topic;
+                }
+            }
+            return null;
+        }
+    }
+
+    public boolean isFlush() {
+        return ids == null;
+    }
+}
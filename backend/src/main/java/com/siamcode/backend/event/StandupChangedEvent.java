@@ -0,0 +1,16 @@
+package com.siamcode.backend.event;
+
+import com.siamcode.backend.dto.response.StandupResponse;
+
+/**
+ * Published when a standup is created, updated or deleted, so live team
+ * feeds can push the change. standup is null for deletions.
+ */
+public record StandupChangedEvent(Long teamId, Long standupId, Type type, StandupResponse standup) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,8 @@
+package com.siamcode.backend.event;
+
+/**
+ * Published when a team's timezone or reminder time changes, or the team is
+ * deleted, so the reminder scheduler can reschedule it.
+ */
+public record TeamReminderSettingsChangedEvent(Long teamId) {
+}
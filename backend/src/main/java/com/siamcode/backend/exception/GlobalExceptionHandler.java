@@ -2,9 +2,11 @@ package com.siamcode.backend.exception;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
@@ -60,6 +62,73 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
         }
 
+        @ExceptionHandler(ServiceUnavailableException.class)
+        public ResponseEntity<ErrorResponse> handleServiceUnavailableException(
+                        ServiceUnavailableException ex, WebRequest request) {
+                ErrorResponse error = new ErrorResponse(
+                                ex.getMessage(),
+                                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                                LocalDateTime.now(),
+                                request.getDescription(false));
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header("Retry-After", "1")
+                                .body(error);
+        }
+
+        @ExceptionHandler(TooManyRequestsException.class)
+        public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+                        TooManyRequestsException ex, WebRequest request) {
+                ErrorResponse error = new ErrorResponse(
+                                ex.getMessage(),
+                                HttpStatus.TOO_MANY_REQUESTS.value(),
+                                LocalDateTime.now(),
+                                request.getDescription(false));
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                                .body(error);
+        }
+
+        @ExceptionHandler(PreconditionFailedException.class)
+        public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+                        PreconditionFailedException ex, WebRequest request) {
+                ErrorResponse error = new ErrorResponse(
+                                ex.getMessage(),
+                                HttpStatus.PRECONDITION_FAILED.value(),
+                                LocalDateTime.now(),
+                                request.getDescription(false));
+                return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+        }
+
+        /**
+         * A concurrent edit committed between our read and our write
+         */
+        @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+        public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+                        ObjectOptimisticLockingFailureException ex, WebRequest request) {
+                ErrorResponse error = new ErrorResponse(
+                                "This was changed by someone else. Reload and try again.",
+                                HttpStatus.PRECONDITION_FAILED.value(),
+                                LocalDateTime.now(),
+                                request.getDescription(false));
+                return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+        }
+
+        @ExceptionHandler(PreconditionRequiredException.class)
+        public ResponseEntity<ErrorResponse> handlePreconditionRequiredException(
+                        PreconditionRequiredException ex, WebRequest request) {
+                ErrorResponse error = new ErrorResponse(
+                                ex.getMessage(),
+                                HttpStatus.PRECONDITION_REQUIRED.value(),
+                                LocalDateTime.now(),
+                                request.getDescription(false));
+                return new ResponseEntity<>(error, HttpStatus.PRECONDITION_REQUIRED);
+        }
+
+        // The client of a stream went away; there is no one left to answer
+        @ExceptionHandler(AsyncRequestNotUsableException.class)
+        public void handleAsyncRequestNotUsableException(AsyncRequestNotUsableException ex) {
+        }
+
         @ExceptionHandler(Exception.class)
         public ResponseEntity<ErrorResponse> handleGlobalException(
                         Exception ex, WebRequest request) {
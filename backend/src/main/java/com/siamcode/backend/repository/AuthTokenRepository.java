@@ -0,0 +1,33 @@
+package com.siamcode.backend.repository;
+
+import com.siamcode.backend.entity.AuthToken;
+import com.siamcode.backend.entity.AuthTokenPurpose;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AuthTokenRepository extends JpaRepository<AuthToken, Long> {
+    Optional<AuthToken> findByTokenHashAndPurpose(String tokenHash, AuthTokenPurpose purpose);
+
+    @Modifying
+    @Query("DELETE FROM AuthToken t WHERE t.userId = :userId AND t.purpose = :purpose")
+    int deleteByUserIdAndPurpose(@Param("userId") Long userId, @Param("purpose") AuthTokenPurpose purpose);
+
+    @Modifying
+    @Query("DELETE FROM AuthToken t WHERE t.id = :id AND t.expiresAt > :now")
+    int deleteUnexpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * One chunk of expired token ids, oldest first (served by the expiresAt index)
+     */
+    @Query("SELECT t.id FROM AuthToken t WHERE t.expiresAt < :now ORDER BY t.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
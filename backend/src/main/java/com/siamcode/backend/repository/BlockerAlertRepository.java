@@ -0,0 +1,49 @@
+package com.siamcode.backend.repository;
+
+import com.siamcode.backend.entity.BlockerAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BlockerAlertRepository extends JpaRepository<BlockerAlert, Long> {
+    Optional<BlockerAlert> findByStandupId(Long standupId);
+
+    @Modifying
+    @Query("DELETE FROM BlockerAlert b WHERE b.standupId = :standupId")
+    int deleteByStandupId(@Param("standupId") Long standupId);
+
+    /**
+     * Claim every alert that is not part of a digest being sent, or whose
+     * claim is older than staleBefore. Row locks make concurrent claims
+     * wait for each other, so each alert is claimed by one digest only.
+     */
+    @Modifying
+    @Query("UPDATE BlockerAlert b SET b.claimToken = :token, b.claimedAt = :now "
+            + "WHERE b.claimToken IS NULL OR b.claimedAt < :staleBefore")
+    int claim(@Param("token") String token, @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore);
+
+    List<BlockerAlert> findByClaimToken(String claimToken);
+
+    /**
+     * Remove sent alerts, except those re-reported (and so unclaimed) meanwhile
+     */
+    @Modifying
+    @Query("DELETE FROM BlockerAlert b WHERE b.claimToken = :token AND b.standupId IN :standupIds")
+    int deleteSent(@Param("token") String token, @Param("standupIds") Collection<Long> standupIds);
+
+    /**
+     * Return alerts whose digest could not be sent to the next digest
+     */
+    @Modifying
+    @Query("UPDATE BlockerAlert b SET b.claimToken = NULL, b.claimedAt = NULL "
+            + "WHERE b.claimToken = :token AND b.standupId IN :standupIds")
+    int release(@Param("token") String token, @Param("standupIds") Collection<Long> standupIds);
+}
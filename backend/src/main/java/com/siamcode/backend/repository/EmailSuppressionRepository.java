@@ -0,0 +1,17 @@
+package com.siamcode.backend.repository;
+
+import com.siamcode.backend.entity.EmailSuppression;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmailSuppressionRepository extends JpaRepository<EmailSuppression, Long> {
+    Optional<EmailSuppression> findByEmail(String email);
+
+    @Query("SELECT s.email FROM EmailSuppression s")
+    List<String> findAllEmails();
+}
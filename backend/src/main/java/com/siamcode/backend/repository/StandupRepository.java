@@ -11,11 +11,54 @@ import java.util.Optional;
 public interface StandupRepository extends JpaRepository<Standup, Long> {
     List<Standup> findByTeamIdAndDate(Long teamId, LocalDate date);
 
+    /**
+     * On PostgreSQL the table is partitioned by month of date, so this only
+     * reads the partitions of the range
+     */
     List<Standup> findByTeamIdAndDateBetween(Long teamId, LocalDate startDate, LocalDate endDate);
 
     Optional<Standup> findByTeamIdAndUserIdAndDate(Long teamId, Long userId, LocalDate date);
 
+    @org.springframework.data.jpa.repository.Query("SELECT s.userId FROM Standup s WHERE s.teamId = :teamId AND s.date = :date")
+    List<Long> findUserIdsByTeamIdAndDate(@org.springframework.data.repository.query.Param("teamId") Long teamId,
+            @org.springframework.data.repository.query.Param("date") LocalDate date);
+
+    /**
+     * Newest standups of a team, for the first page of the activity feed
+     */
+    List<Standup> findByTeamIdOrderByCreatedAtDescIdDesc(Long teamId, org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * Keyset page: standups ordered after (before, beforeId), newest first
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT s FROM Standup s WHERE s.teamId = :teamId "
+            + "AND (s.createdAt < :before OR (s.createdAt = :before AND s.id < :beforeId)) "
+            + "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Standup> findFeedPage(@org.springframework.data.repository.query.Param("teamId") Long teamId,
+            @org.springframework.data.repository.query.Param("before") java.time.LocalDateTime before,
+            @org.springframework.data.repository.query.Param("beforeId") Long beforeId,
+            org.springframework.data.domain.Pageable pageable);
+
     @org.springframework.data.jpa.repository.Query("SELECT s.date, COUNT(s) FROM Standup s WHERE s.teamId = :teamId AND s.date >= :startDate GROUP BY s.date")
     List<Object[]> countDailyStandupsByTeamId(@org.springframework.data.repository.query.Param("teamId") Long teamId,
             @org.springframework.data.repository.query.Param("startDate") LocalDate startDate);
+
+    /**
+     * Standups changed in (since, upTo], in change order
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT s FROM Standup s WHERE s.teamId = :teamId "
+            + "AND s.changeSeq > :since AND s.changeSeq <= :upTo ORDER BY s.changeSeq")
+    List<Standup> findChangedSince(@org.springframework.data.repository.query.Param("teamId") Long teamId,
+            @org.springframework.data.repository.query.Param("since") long since,
+            @org.springframework.data.repository.query.Param("upTo") long upTo,
+            org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * Count and highest change sequence of a team's standups on a date; any
+     * create, update or delete changes one of them
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(s), COALESCE(MAX(s.changeSeq), 0) FROM Standup s "
+            + "WHERE s.teamId = :teamId AND s.date = :date")
+    List<Object[]> findDayVersion(@org.springframework.data.repository.query.Param("teamId") Long teamId,
+            @org.springframework.data.repository.query.Param("date") LocalDate date);
 }
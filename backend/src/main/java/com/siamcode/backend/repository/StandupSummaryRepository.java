@@ -1,9 +1,13 @@
 package com.siamcode.backend.repository;
 
 import com.siamcode.backend.entity.StandupSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,25 @@ public interface StandupSummaryRepository extends JpaRepository<StandupSummary,
     Optional<StandupSummary> findByTeamIdAndDate(Long teamId, LocalDate date);
 
     List<StandupSummary> findByTeamIdAndDateBetween(Long teamId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Newest summaries of a team, for the first page of the activity feed
+     */
+    List<StandupSummary> findByTeamIdOrderByCreatedAtDescIdDesc(Long teamId, Pageable pageable);
+
+    /**
+     * Keyset page: summaries ordered after (before, beforeId), newest first
+     */
+    @Query("SELECT s FROM StandupSummary s WHERE s.teamId = :teamId "
+            + "AND (s.createdAt < :before OR (s.createdAt = :before AND s.id < :beforeId)) "
+            + "ORDER BY s.createdAt DESC, s.id DESC")
+    List<StandupSummary> findFeedPage(@Param("teamId") Long teamId, @Param("before") LocalDateTime before,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Id of the team's summary for a date, or null. Regenerating a summary
+     * replaces the row, so the id changes with the content.
+     */
+    @Query("SELECT MAX(s.id) FROM StandupSummary s WHERE s.teamId = :teamId AND s.date = :date")
+    Long findIdByTeamIdAndDate(@Param("teamId") Long teamId, @Param("date") LocalDate date);
 }
@@ -0,0 +1,34 @@
+package com.siamcode.backend.repository;
+
+import com.siamcode.backend.entity.StandupTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StandupTombstoneRepository extends JpaRepository<StandupTombstone, Long> {
+
+    /**
+     * Deletions in (since, upTo], in change order
+     */
+    @Query("SELECT t FROM StandupTombstone t WHERE t.teamId = :teamId "
+            + "AND t.changeSeq > :since AND t.changeSeq <= :upTo ORDER BY t.changeSeq")
+    List<StandupTombstone> findChangedSince(@Param("teamId") Long teamId, @Param("since") long since,
+            @Param("upTo") long upTo, Pageable pageable);
+
+    /**
+     * Per team, the highest sequence among tombstones about to be purged
+     */
+    @Query("SELECT t.teamId, MAX(t.changeSeq) FROM StandupTombstone t WHERE t.deletedAt < :cutoff GROUP BY t.teamId")
+    List<Object[]> findPurgeHorizons(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM StandupTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,18 +1,34 @@
 package com.siamcode.backend.repository;
 
 import com.siamcode.backend.entity.TeamMember;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Membership lookups run on most requests, so the common ones go through the
+ * query cache. Any write to team_members invalidates their cached results.
+ */
 @Repository
 public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<TeamMember> findByTeamId(Long teamId);
 
     List<TeamMember> findByUserId(Long userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<TeamMember> findByTeamIdAndUserId(Long teamId, Long userId);
 
     void deleteByTeamIdAndUserId(Long teamId, Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT tm.teamId FROM TeamMember tm WHERE tm.userId = :userId "
+            + "AND tm.status = com.siamcode.backend.entity.InvitationStatus.ACCEPTED")
+    List<Long> findAcceptedTeamIdsByUserId(@Param("userId") Long userId);
 }
@@ -2,7 +2,11 @@ package com.siamcode.backend.repository;
 
 import com.siamcode.backend.entity.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,15 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByDeletedFalse();
 
     java.util.Optional<Team> findByInviteCodeAndDeletedFalse(String inviteCode);
+
+    List<Team> findByReminderTimeIsNotNullAndDeletedFalse();
+
+    /**
+     * Atomically mark today's automatic reminder as sent. Returns 0 when another
+     * run (or another instance) already claimed this team-local date.
+     */
+    @Modifying
+    @Query("UPDATE Team t SET t.lastAutoReminderDate = :date WHERE t.id = :teamId "
+            + "AND (t.lastAutoReminderDate IS NULL OR t.lastAutoReminderDate < :date)")
+    int claimAutoReminder(@Param("teamId") Long teamId, @Param("date") LocalDate date);
 }
@@ -0,0 +1,53 @@
+package com.siamcode.backend.repository;
+
+import com.siamcode.backend.entity.TeamShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TeamShardRepository extends JpaRepository<TeamShard, Long> {
+
+    @Query("SELECT s.shardId FROM TeamShard s WHERE s.teamId = :teamId")
+    Integer findShardId(@Param("teamId") Long teamId);
+
+    @Query("SELECT s.shardId, COUNT(s) FROM TeamShard s GROUP BY s.shardId")
+    List<Object[]> countByShard();
+
+    @Query("SELECT s.teamId FROM TeamShard s WHERE s.moving = true")
+    List<Long> findMovingTeamIds();
+
+    /**
+     * Mark a team on the given shard as moving. Returns 0 if it is on another
+     * shard or another move holds it; a move whose claim was not refreshed
+     * since staleBefore is taken to have died with its instance.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TeamShard s SET s.moving = true, s.updatedAt = :now WHERE s.teamId = :teamId "
+            + "AND s.shardId = :shardId AND (s.moving = false OR s.updatedAt < :staleBefore)")
+    int claimMove(@Param("teamId") Long teamId, @Param("shardId") int shardId, @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TeamShard s SET s.updatedAt = :now WHERE s.teamId = :teamId AND s.moving = true")
+    int refreshMove(@Param("teamId") Long teamId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TeamShard s SET s.shardId = :shardId, s.moving = false, s.updatedAt = :now "
+            + "WHERE s.teamId = :teamId")
+    int finishMove(@Param("teamId") Long teamId, @Param("shardId") int shardId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TeamShard s SET s.moving = false, s.updatedAt = :now WHERE s.teamId = :teamId")
+    int releaseMove(@Param("teamId") Long teamId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,42 @@
+package com.siamcode.backend.repository;
+
+import com.siamcode.backend.entity.TeamStandupSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TeamStandupSequenceRepository extends JpaRepository<TeamStandupSequence, Long> {
+
+    /**
+     * Take the next standup change sequence for a team. The row lock taken
+     * here is held until commit, so a team's changes commit in sequence order.
+     */
+    @Modifying
+    @Query("UPDATE TeamStandupSequence s SET s.changeSeq = s.changeSeq + 1 WHERE s.teamId = :teamId")
+    int increment(@Param("teamId") Long teamId);
+
+    /**
+     * Share-lock a team's row: concurrent writers pass, a team move waits
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT s FROM TeamStandupSequence s WHERE s.teamId = :teamId")
+    Optional<TeamStandupSequence> lockForShare(@Param("teamId") Long teamId);
+
+    @Query("SELECT s.changeSeq FROM TeamStandupSequence s WHERE s.teamId = :teamId")
+    Long findChangeSeq(@Param("teamId") Long teamId);
+
+    @Query("SELECT s.tombstoneHorizon FROM TeamStandupSequence s WHERE s.teamId = :teamId")
+    Long findTombstoneHorizon(@Param("teamId") Long teamId);
+
+    @Modifying
+    @Query("UPDATE TeamStandupSequence s SET s.tombstoneHorizon = :horizon WHERE s.teamId = :teamId "
+            + "AND s.tombstoneHorizon < :horizon")
+    int raiseTombstoneHorizon(@Param("teamId") Long teamId, @Param("horizon") long horizon);
+}
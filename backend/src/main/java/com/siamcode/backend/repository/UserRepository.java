@@ -2,7 +2,14 @@ package com.siamcode.backend.repository;
 
 import com.siamcode.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,7 +22,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmailIgnoreCase(String email);
 
-    Optional<User> findByVerificationToken(String verificationToken);
+    /**
+     * Accepted team members with no standup for the given date, resolved in a
+     * single anti-join instead of one standup lookup per member. Native, since
+     * with sharding standups are not in this persistence unit; only valid for
+     * teams whose standups are in the primary database.
+     */
+    @Query(value = "SELECT u.* FROM users u JOIN team_members tm ON tm.user_id = u.id "
+            + "WHERE tm.team_id = :teamId AND tm.status = 'ACCEPTED' "
+            + "AND NOT EXISTS (SELECT 1 FROM standups s "
+            + "WHERE s.team_id = :teamId AND s.user_id = u.id AND s.date = :date) "
+            + "ORDER BY u.name", nativeQuery = true)
+    List<User> findTeamMembersWithoutStandup(@Param("teamId") Long teamId, @Param("date") LocalDate date);
 
-    Optional<User> findByPasswordResetToken(String passwordResetToken);
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :userId AND u.passwordHash = :oldHash")
+    int replacePasswordHash(@Param("userId") Long userId, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
+
+    @Query("SELECT u.membershipVersion FROM User u WHERE u.id = :userId")
+    Optional<Long> findMembershipVersion(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.membershipVersion = u.membershipVersion + 1 WHERE u.id IN :userIds")
+    int incrementMembershipVersion(@Param("userIds") Collection<Long> userIds);
 }
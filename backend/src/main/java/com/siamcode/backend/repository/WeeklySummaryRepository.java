@@ -1,7 +1,10 @@
 package com.siamcode.backend.repository;
 
 import com.siamcode.backend.entity.WeeklySummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -11,9 +14,20 @@ import java.util.Optional;
 @Repository
 public interface WeeklySummaryRepository extends JpaRepository<WeeklySummary, Long> {
 
-    List<WeeklySummary> findByTeamIdOrderByWeekStartDateDesc(Long teamId);
+    /**
+     * Ids of a team's weekly summaries, newest week first
+     */
+    @Query("SELECT w.id FROM WeeklySummary w WHERE w.teamId = :teamId ORDER BY w.weekStartDate DESC")
+    List<Long> findIdsNewestFirst(@Param("teamId") Long teamId, Pageable pageable);
 
     Optional<WeeklySummary> findByTeamIdAndWeekStartDate(Long teamId, LocalDate weekStartDate);
 
     Optional<WeeklySummary> findFirstByTeamIdOrderByWeekStartDateDesc(Long teamId);
+
+    /**
+     * Count and highest id of a team's weekly summaries. They are only ever
+     * inserted, so this changes whenever the list does.
+     */
+    @Query("SELECT COUNT(w), COALESCE(MAX(w.id), 0) FROM WeeklySummary w WHERE w.teamId = :teamId")
+    List<Object[]> findVersion(@Param("teamId") Long teamId);
 }
@@ -0,0 +1,124 @@
+package com.siamcode.backend.security;
+
+import com.siamcode.backend.exception.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory token buckets for the public auth endpoints, keyed by client IP
+ * and by normalized email. Controllers check them before touching the
+ * database, BCrypt or the email service, so rejected calls cost a hash map
+ * lookup.
+ *
+ * Buckets live in a fixed number of stripes, each a plain HashMap behind its
+ * own lock, so concurrent requests for different keys rarely contend. Buckets
+ * that have been idle long enough to refill completely are evicted, since a
+ * fresh bucket behaves the same.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    @Value("${auth.ratelimit.ip.capacity:30}")
+    private int ipCapacity;
+
+    @Value("${auth.ratelimit.ip.per.minute:30}")
+    private int ipPerMinute;
+
+    @Value("${auth.ratelimit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${auth.ratelimit.email.per.minute:5}")
+    private int emailPerMinute;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public AuthRateLimiter() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Charge one request to the caller's IP and, if given, to the email
+     * address it targets. Throws TooManyRequestsException when either bucket
+     * is empty.
+     */
+    public void check(HttpServletRequest request, String email) {
+        acquire("ip:" + request.getRemoteAddr(), ipCapacity, ipPerMinute);
+        if (email != null && !email.isBlank()) {
+            acquire("email:" + email.trim().toLowerCase(Locale.ROOT), emailCapacity, emailPerMinute);
+        }
+    }
+
+    /**
+     * Same as {@link #check} for authenticated endpoints, using the user id
+     * in place of the email
+     */
+    public void checkUser(HttpServletRequest request, Long userId) {
+        acquire("ip:" + request.getRemoteAddr(), ipCapacity, ipPerMinute);
+        acquire("user:" + userId, emailCapacity, emailPerMinute);
+    }
+
+    private void acquire(String key, int capacity, int perMinute) {
+        double refillPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        long now = System.nanoTime();
+        Stripe stripe = stripes[(key.hashCode() & Integer.MAX_VALUE) % STRIPES];
+
+        double missing;
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * refillPerNano);
+                bucket.updatedAt = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return;
+            }
+            missing = 1 - bucket.tokens;
+        }
+
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(missing / refillPerNano / 1e9));
+        throw new TooManyRequestsException("Too many attempts, please try again later", retryAfterSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.ratelimit.eviction.ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        // Long enough for the slowest bucket to refill from empty
+        long idleNanos = TimeUnit.MINUTES.toNanos(1)
+                * Math.max(ipCapacity, emailCapacity) / Math.max(1, Math.min(ipPerMinute, emailPerMinute));
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.buckets.values().removeIf(bucket -> now - bucket.updatedAt > idleNanos);
+            }
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
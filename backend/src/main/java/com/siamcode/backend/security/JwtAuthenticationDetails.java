@@ -0,0 +1,36 @@
+package com.siamcode.backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.Set;
+
+/**
+ * Request details plus the token id, expiry and team memberships embedded in
+ * the caller's token. teamIds and membershipVersion are null for tokens
+ * without a membership claim.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final String tokenId;
+    private final long expiresAt;
+    private final Set<Long> teamIds;
+    private final Long membershipVersion;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, String tokenId, long expiresAt, Set<Long> teamIds,
+            Long membershipVersion) {
+        super(request);
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.teamIds = teamIds;
+        this.membershipVersion = membershipVersion;
+    }
+
+    public boolean hasMembershipClaim() {
+        return teamIds != null && membershipVersion != null;
+    }
+}
@@ -1,6 +1,10 @@
 package com.siamcode.backend.security;
 
+import com.siamcode.backend.entity.AuthTokenPurpose;
+import com.siamcode.backend.service.AuthTokenService;
+import com.siamcode.backend.service.TokenRevocationService;
 import com.siamcode.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +12,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,23 +24,43 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuthTokenService authTokenService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         try {
-            String authHeader = request.getHeader("Authorization");
+            String token = resolveToken(request);
+            String ticket = resolveStreamTicket(request);
 
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
+            if (token == null && ticket != null) {
+                Long userId = authTokenService.redeem(ticket, AuthTokenPurpose.STREAM_TICKET);
+                if (userId != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userId,
+                            null, Collections.emptyList());
+                    authentication.setDetails(new WebAuthenticationDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            } else if (token != null) {
+
+                // Single verification; repeat requests with the same token hit the cache
+                Claims claims = jwtUtil.parseVerifiedClaims(token);
+                if (claims != null) {
+                    Long userId = Long.parseLong(claims.getSubject());
+                    long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() / 1000 : 0;
 
-                if (jwtUtil.validateToken(token)) {
-                    Long userId = jwtUtil.getUserIdFromToken(token);
+                    if (tokenRevocationService.isRevoked(claims.getId(), userId, issuedAt)) {
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
 
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userId,
                             null, Collections.emptyList());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    authentication.setDetails(new JwtAuthenticationDetails(request, claims.getId(),
+                            claims.getExpiration().getTime() / 1000, jwtUtil.getTeamIds(claims),
+                            jwtUtil.getMembershipVersion(claims)));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
@@ -48,4 +72,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Bearer token from the Authorization header
+     */
+    private String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+
+    /**
+     * Stream ticket from ?ticket= on GET requests for a stream. EventSource
+     * cannot set headers; unlike an access token in the URL, a ticket is
+     * short-lived and good for one request, so it is worthless once it shows
+     * up in a log.
+     */
+    private String resolveStreamTicket(HttpServletRequest request) {
+        if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/stream")) {
+            return request.getParameter("ticket");
+        }
+        return null;
+    }
 }
@@ -1,5 +1,6 @@
 package com.siamcode.backend.security;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
@@ -19,4 +20,31 @@ public class SecurityHelper {
                 && SecurityContextHolder.getContext().getAuthentication().isAuthenticated()
                 && SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof Long;
     }
+
+    /**
+     * Details of the token that authenticated the current request, or null
+     */
+    public JwtAuthenticationDetails getTokenDetails() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails details) {
+            return details;
+        }
+        return null;
+    }
+
+    /**
+     * Membership claims from the current request's token, if the request is
+     * authenticated as the given user and the token carries them. Returns null
+     * otherwise (background jobs, other users, tokens without the claim).
+     */
+    public JwtAuthenticationDetails getTokenMembership(Long userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !userId.equals(authentication.getPrincipal())) {
+            return null;
+        }
+        if (authentication.getDetails() instanceof JwtAuthenticationDetails details && details.hasMembershipClaim()) {
+            return details;
+        }
+        return null;
+    }
 }
@@ -3,36 +3,49 @@ package com.siamcode.backend.service;
 import com.siamcode.backend.dto.request.LoginRequest;
 import com.siamcode.backend.dto.request.RegisterRequest;
 import com.siamcode.backend.dto.response.AuthResponse;
+import com.siamcode.backend.dto.response.StreamTicketResponse;
 import com.siamcode.backend.dto.response.UserResponse;
+import com.siamcode.backend.entity.AuthTokenPurpose;
 import com.siamcode.backend.entity.User;
 import com.siamcode.backend.exception.BadRequestException;
 import com.siamcode.backend.exception.UnauthorizedException;
+import com.siamcode.backend.repository.TeamMemberRepository;
 import com.siamcode.backend.repository.UserRepository;
+import com.siamcode.backend.security.JwtAuthenticationDetails;
 import com.siamcode.backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
+    private static final Duration VERIFICATION_TOKEN_VALIDITY = Duration.ofHours(24);
+    private static final Duration PASSWORD_RESET_TOKEN_VALIDITY = Duration.ofHours(1);
+    // Only has to last until the browser opens the stream
+    private static final Duration STREAM_TICKET_VALIDITY = Duration.ofSeconds(30);
+
     private final UserService userService;
     private final UserRepository userRepository;
+    private final TeamMemberRepository teamMemberRepository;
     private final EmailService emailService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuthTokenService authTokenService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
         UserResponse userResponse = userService.registerUser(request);
 
         // Generate verification token
-        String token = java.util.UUID.randomUUID().toString();
         User user = userService.findUserEntityById(userResponse.getId());
-        user.setVerificationToken(token);
-        user.setTokenExpiry(java.time.LocalDateTime.now().plusHours(24));
+        String token = authTokenService.issue(user.getId(), AuthTokenPurpose.EMAIL_VERIFICATION,
+                VERIFICATION_TOKEN_VALIDITY);
 
         // Send verification email - only require verification if email sends
         // successfully
@@ -52,8 +65,7 @@ public class AuthService {
 
         userService.saveUser(user);
 
-        String jwtToken = jwtUtil.generateToken(userResponse.getId());
-        return new AuthResponse(jwtToken, userResponse);
+        return issueTokens(user, refreshTokenService.issue(user.getId()), userResponse);
     }
 
     public AuthResponse login(LoginRequest request) {
@@ -66,68 +78,93 @@ public class AuthService {
         }
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             throw new UnauthorizedException("Invalid email or password");
         }
+        passwordHashingService.upgradeIfNeeded(user.getId(), request.getPassword(), user.getPasswordHash());
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getId());
+        // Generate access and refresh tokens
         UserResponse userResponse = userService.getUserById(user.getId());
+        return issueTokens(user, refreshTokenService.issue(user.getId()), userResponse);
+    }
 
-        return new AuthResponse(token, userResponse);
+    /**
+     * Exchange a refresh token for a new access token and a rotated refresh token
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = userService.findUserEntityById(rotation.userId());
+        return issueTokens(user, rotation.refreshToken(), userService.getUserById(user.getId()));
     }
 
+    /**
+     * Revoke the refresh token family and, if present, the access token of
+     * the current request
+     */
     @Transactional
-    public void verifyEmail(String token) {
-        User user = userRepository.findByVerificationToken(token)
-                .orElseThrow(() -> new BadRequestException("Invalid or expired verification token"));
-
-        if (user.getTokenExpiry().isBefore(java.time.LocalDateTime.now())) {
-            throw new BadRequestException("Verification token has expired");
+    public void logout(String refreshToken, JwtAuthenticationDetails accessToken, Long userId) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (accessToken != null && accessToken.getTokenId() != null) {
+            tokenRevocationService.revokeToken(accessToken.getTokenId(), userId, accessToken.getExpiresAt());
         }
+    }
 
+    @Transactional
+    public void verifyEmail(String token) {
+        Long userId = authTokenService.consume(token, AuthTokenPurpose.EMAIL_VERIFICATION,
+                "Invalid or expired verification token", "Verification token has expired");
+
+        User user = userService.findUserEntityById(userId);
         user.setVerified(true);
-        user.setVerificationToken(null);
-        user.setTokenExpiry(null);
         userRepository.save(user);
     }
 
     public void initiatePasswordReset(String email) {
         User user = userService.findByEmail(email);
 
-        String token = java.util.UUID.randomUUID().toString();
-        user.setPasswordResetToken(token);
-        user.setTokenExpiry(java.time.LocalDateTime.now().plusHours(1));
-        userRepository.save(user);
+        String token = authTokenService.issue(user.getId(), AuthTokenPurpose.PASSWORD_RESET,
+                PASSWORD_RESET_TOKEN_VALIDITY);
 
         emailService.sendPasswordResetEmail(user.getEmail(), user.getName(), token);
     }
 
     @Transactional
     public void resetPassword(String token, String newPassword) {
-        User user = userRepository.findByPasswordResetToken(token)
-                .orElseThrow(() -> new BadRequestException("Invalid or expired password reset token"));
-
-        if (user.getTokenExpiry().isBefore(java.time.LocalDateTime.now())) {
-            throw new BadRequestException("Password reset token has expired");
-        }
+        Long userId = authTokenService.consume(token, AuthTokenPurpose.PASSWORD_RESET,
+                "Invalid or expired password reset token", "Password reset token has expired");
 
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        user.setPasswordResetToken(null);
-        user.setTokenExpiry(null);
+        User user = userService.findUserEntityById(userId);
+        user.setPasswordHash(passwordHashingService.encode(newPassword));
         userRepository.save(user);
+
+        // Sign out every existing session
+        refreshTokenService.revokeAllForUser(user.getId());
+        tokenRevocationService.revokeAllForUser(user.getId());
     }
 
     public Long validateToken(String token) {
-        if (!jwtUtil.validateToken(token)) {
+        io.jsonwebtoken.Claims claims = jwtUtil.parseVerifiedClaims(token);
+        if (claims == null) {
             throw new UnauthorizedException("Invalid or expired token");
         }
-        return jwtUtil.getUserIdFromToken(token);
+        return Long.parseLong(claims.getSubject());
+    }
+
+    /**
+     * Single-use ticket that opens one event stream. EventSource cannot send
+     * headers, and an access token in the URL would end up in logs.
+     */
+    public StreamTicketResponse issueStreamTicket(Long userId) {
+        String ticket = authTokenService.add(userId, AuthTokenPurpose.STREAM_TICKET, STREAM_TICKET_VALIDITY);
+        return new StreamTicketResponse(ticket, STREAM_TICKET_VALIDITY.toSeconds());
     }
 
     public void verifyPassword(Long userId, String password) {
         User user = userService.findUserEntityById(userId);
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        if (!passwordHashingService.matches(password, user.getPasswordHash())) {
             throw new UnauthorizedException("Invalid password");
         }
     }
@@ -141,12 +178,21 @@ public class AuthService {
         }
 
         // Generate new verification token
-        String token = java.util.UUID.randomUUID().toString();
-        user.setVerificationToken(token);
-        user.setTokenExpiry(java.time.LocalDateTime.now().plusHours(24));
-        userRepository.save(user);
+        String token = authTokenService.issue(user.getId(), AuthTokenPurpose.EMAIL_VERIFICATION,
+                VERIFICATION_TOKEN_VALIDITY);
 
         // Send verification email
         emailService.sendVerificationEmail(user.getEmail(), user.getName(), token);
     }
+
+    /**
+     * Build the auth response. The access token carries the user's accepted
+     * team ids, so membership checks for the caller can skip the database.
+     */
+    private AuthResponse issueTokens(User user, String refreshToken, UserResponse userResponse) {
+        String accessToken = jwtUtil.generateToken(user.getId(),
+                teamMemberRepository.findAcceptedTeamIdsByUserId(user.getId()),
+                user.getMembershipVersion());
+        return new AuthResponse(accessToken, refreshToken, jwtUtil.getExpirationMs() / 1000, userResponse);
+    }
 }
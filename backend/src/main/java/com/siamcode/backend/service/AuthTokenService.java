@@ -0,0 +1,160 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.AuthToken;
+import com.siamcode.backend.entity.AuthTokenPurpose;
+import com.siamcode.backend.exception.BadRequestException;
+import com.siamcode.backend.repository.AuthTokenRepository;
+import com.siamcode.backend.util.SecureTokens;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Email verification and password reset tokens. Tokens are looked up by the
+ * unique index on their hash, so lookups stay constant-time however large the
+ * users table grows, and a leaked table holds no usable tokens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthTokenService {
+
+    private static final String PURPOSE_CHECK = "auth_tokens_purpose_check";
+
+    private final AuthTokenRepository authTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+
+    @Value("${auth.tokens.sweep.chunk.size:500}")
+    private int sweepChunkSize;
+
+    /**
+     * Hibernate lists the purposes in a check constraint when it creates the
+     * table but never updates it, so tables created before a purpose was
+     * added would refuse its tokens. Brings the constraint up to date on
+     * PostgreSQL; the one statement swaps it atomically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void updatePurposeCheck() {
+        try {
+            if (!"PostgreSQL".equals(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName))) {
+                return;
+            }
+        } catch (MetaDataAccessException e) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<String> definitions = jdbcTemplate.queryForList("SELECT pg_get_constraintdef(oid) FROM pg_constraint "
+                + "WHERE conname = ? AND conrelid = to_regclass('auth_tokens')", String.class, PURPOSE_CHECK);
+        if (definitions.isEmpty() || Arrays.stream(AuthTokenPurpose.values())
+                .allMatch(purpose -> definitions.getFirst().contains("'" + purpose.name() + "'"))) {
+            return;
+        }
+        String purposes = Arrays.stream(AuthTokenPurpose.values())
+                .map(purpose -> "'" + purpose.name() + "'")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE auth_tokens DROP CONSTRAINT " + PURPOSE_CHECK
+                + ", ADD CONSTRAINT " + PURPOSE_CHECK + " CHECK (purpose IN (" + purposes + "))");
+        log.info("Updated {} to allow {}", PURPOSE_CHECK, purposes);
+    }
+
+    /**
+     * Issue a new token, replacing any outstanding token of the same purpose
+     * for the user. Returns the raw token to send by email.
+     */
+    @Transactional
+    public String issue(Long userId, AuthTokenPurpose purpose, Duration validity) {
+        authTokenRepository.deleteByUserIdAndPurpose(userId, purpose);
+        return add(userId, purpose, validity);
+    }
+
+    /**
+     * Issue a new token alongside the user's other tokens of the purpose
+     * (e.g. one per browser tab)
+     */
+    @Transactional
+    public String add(Long userId, AuthTokenPurpose purpose, Duration validity) {
+        String rawToken = SecureTokens.generate();
+        LocalDateTime now = LocalDateTime.now();
+        AuthToken token = new AuthToken();
+        token.setTokenHash(SecureTokens.hash(rawToken));
+        token.setUserId(userId);
+        token.setPurpose(purpose);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(validity));
+        authTokenRepository.save(token);
+        return rawToken;
+    }
+
+    /**
+     * Redeem a token and return the user it belongs to. The token is deleted,
+     * so it can only be used once.
+     */
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public Long consume(String rawToken, AuthTokenPurpose purpose, String invalidMessage, String expiredMessage) {
+        AuthToken token = authTokenRepository.findByTokenHashAndPurpose(SecureTokens.hash(rawToken), purpose)
+                .orElseThrow(() -> new BadRequestException(invalidMessage));
+
+        authTokenRepository.delete(token);
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException(expiredMessage);
+        }
+        return token.getUserId();
+    }
+
+    /**
+     * Redeem a token and return the user it belongs to, or null if it is
+     * unknown, expired or already used. Of concurrent redemptions of the same
+     * token only one succeeds.
+     */
+    @Transactional
+    public Long redeem(String rawToken, AuthTokenPurpose purpose) {
+        return authTokenRepository.findByTokenHashAndPurpose(SecureTokens.hash(rawToken), purpose)
+                .filter(token -> authTokenRepository.deleteUnexpired(token.getId(), LocalDateTime.now()) == 1)
+                .map(AuthToken::getUserId)
+                .orElse(null);
+    }
+
+    /**
+     * Delete expired tokens in small chunks, each in its own short
+     * transaction, so the sweep never holds locks on many rows at once
+     */
+    @Scheduled(fixedDelayString = "${auth.tokens.sweep.ms:3600000}")
+    public void removeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+        while (true) {
+            List<Long> ids = authTokenRepository.findExpiredIds(now, PageRequest.of(0, sweepChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> authTokenRepository.deleteAllByIdInBatch(ids));
+            removed += ids.size();
+            if (ids.size() < sweepChunkSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired auth tokens", removed);
+        }
+    }
+}
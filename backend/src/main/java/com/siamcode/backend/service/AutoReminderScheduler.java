@@ -0,0 +1,155 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.event.TeamReminderSettingsChangedEvent;
+import com.siamcode.backend.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Fires automatic standup reminders at each team's local reminder time.
+ * Teams are kept in a priority queue ordered by their next fire instant, so a
+ * tick only touches teams that are actually due instead of scanning them all.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutoReminderScheduler {
+
+    // A reminder missed by less than this (restart, slow tick) is still sent
+    private static final Duration CATCH_UP_WINDOW = Duration.ofHours(1);
+
+    private final TeamRepository teamRepository;
+    private final TeamService teamService;
+    private final ReminderService reminderService;
+
+    // Both guarded by "this". Queue entries whose instant no longer matches
+    // nextFireByTeam are stale (rescheduled or disabled) and skipped when polled.
+    private final PriorityQueue<ScheduledReminder> queue = new PriorityQueue<>(
+            Comparator.comparing(ScheduledReminder::fireAt));
+    private final Map<Long, Instant> nextFireByTeam = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSchedules() {
+        List<Team> teams = teamRepository.findByReminderTimeIsNotNullAndDeletedFalse();
+        Instant now = Instant.now();
+        synchronized (this) {
+            teams.forEach(team -> schedule(team, now));
+        }
+        log.info("Scheduled automatic reminders for {} teams", teams.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderSettingsChanged(TeamReminderSettingsChangedEvent event) {
+        Team team = teamRepository.findById(event.teamId()).orElse(null);
+        synchronized (this) {
+            if (team == null || team.isDeleted() || team.getReminderTime() == null) {
+                nextFireByTeam.remove(event.teamId());
+            } else {
+                schedule(team, Instant.now());
+            }
+        }
+    }
+
+    /**
+     * Teams changed on another instance may have new reminder settings
+     */
+    @EventListener
+    public void onTeamsInvalidated(CacheInvalidationEvent event) {
+        if (event.topic() != Topic.TEAM) {
+            return;
+        }
+        if (event.isFlush()) {
+            synchronized (this) {
+                queue.clear();
+                nextFireByTeam.clear();
+            }
+            loadSchedules();
+        } else {
+            event.ids().forEach(teamId -> onReminderSettingsChanged(new TeamReminderSettingsChangedEvent(teamId)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.scheduler.tick.ms:30000}")
+    public void tick() {
+        Instant now = Instant.now();
+        List<Long> dueTeamIds = new ArrayList<>();
+
+        synchronized (this) {
+            while (!queue.isEmpty() && !queue.peek().fireAt().isAfter(now)) {
+                ScheduledReminder reminder = queue.poll();
+                if (reminder.fireAt().equals(nextFireByTeam.get(reminder.teamId()))) {
+                    nextFireByTeam.remove(reminder.teamId());
+                    dueTeamIds.add(reminder.teamId());
+                }
+            }
+        }
+
+        for (Long teamId : dueTeamIds) {
+            try {
+                reminderService.sendAutomaticReminders(teamId);
+            } catch (Exception e) {
+                log.error("Automatic reminder failed for team {}: {}", teamId, e.getMessage(), e);
+            }
+
+            // Queue the next day's run unless settings changed while we were sending
+            teamRepository.findById(teamId)
+                    .filter(team -> !team.isDeleted() && team.getReminderTime() != null)
+                    .ifPresent(team -> {
+                        synchronized (this) {
+                            if (!nextFireByTeam.containsKey(teamId)) {
+                                schedule(team, Instant.now());
+                            }
+                        }
+                    });
+        }
+    }
+
+    private void schedule(Team team, Instant now) {
+        Instant fireAt = nextFireInstant(team, now);
+        nextFireByTeam.put(team.getId(), fireAt);
+        queue.add(new ScheduledReminder(fireAt, team.getId()));
+    }
+
+    /**
+     * Next instant at which the team's reminder is due. DST gaps are resolved
+     * by ZonedDateTime, which shifts a non-existent local time forward.
+     */
+    private Instant nextFireInstant(Team team, Instant now) {
+        ZoneId zone = teamService.getTeamZone(team);
+        LocalDate today = now.atZone(zone).toLocalDate();
+        Instant todayFire = ZonedDateTime.of(today, team.getReminderTime(), zone).toInstant();
+
+        if (!today.equals(team.getLastAutoReminderDate())) {
+            if (todayFire.isAfter(now)) {
+                return todayFire;
+            }
+            if (Duration.between(todayFire, now).compareTo(CATCH_UP_WINDOW) < 0) {
+                return now;
+            }
+        }
+        return ZonedDateTime.of(today.plusDays(1), team.getReminderTime(), zone).toInstant();
+    }
+
+    private record ScheduledReminder(Instant fireAt, Long teamId) {
+    }
+}
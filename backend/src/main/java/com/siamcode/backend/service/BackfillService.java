@@ -0,0 +1,371 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.dto.request.BackfillRequest;
+import com.siamcode.backend.dto.response.BackfillJobResponse;
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.exception.BadRequestException;
+import com.siamcode.backend.exception.ResourceNotFoundException;
+import com.siamcode.backend.exception.UnauthorizedException;
+import com.siamcode.backend.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Builds missing daily and weekly summaries for past dates.
+ * Jobs run on a bounded worker pool, throttle AI calls and can be paused and
+ * resumed. Writes are idempotent: days or weeks that already have a summary
+ * are skipped, so a job can safely be re-run over the same range. A summary
+ * written concurrently (e.g. by a manual generate) is caught by the unique
+ * key on team and date and counted as skipped too.
+ *
+ * Finished jobs are kept in memory for backfill.jobs.retention.ms.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillService {
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final TeamRepository teamRepository;
+    private final StandupSummaryService standupSummaryService;
+    private final WeeklySummaryService weeklySummaryService;
+    private final ShardRouter shardRouter;
+    private final TeamService teamService;
+
+    @Value("${backfill.max.parallelism:4}")
+    private int maxParallelism;
+
+    @Value("${backfill.ai.requests.per.minute:30}")
+    private int aiRequestsPerMinute;
+
+    @Value("${backfill.jobs.retention.ms:86400000}")
+    private long jobRetentionMs;
+
+    private final Map<String, BackfillJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService backfillExecutor;
+
+    // Next instant (System.nanoTime) at which an AI call may start
+    private long nextAiSlot = System.nanoTime();
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        backfillExecutor = Executors.newFixedThreadPool(maxParallelism);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+
+    /**
+     * Start a backfill job over the given teams and date range.
+     * Only the owner of every listed team may start it.
+     */
+    public BackfillJobResponse startJob(BackfillRequest request, Long currentUserId) {
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new BadRequestException("Start date must be before or equal to end date");
+        }
+
+        if (ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Backfill range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        if (!request.isDailySummaries() && !request.isWeeklySummaries()) {
+            throw new BadRequestException("Nothing to backfill: enable daily or weekly summaries");
+        }
+
+        List<Long> teamIds = request.getTeamIds().stream().distinct().collect(Collectors.toList());
+        List<Team> teams = teamRepository.findAllById(teamIds);
+        if (teams.size() != teamIds.size()) {
+            throw new ResourceNotFoundException("One or more teams were not found");
+        }
+
+        for (Team team : teams) {
+            if (team.isDeleted()) {
+                throw new BadRequestException("Cannot backfill deleted team: " + team.getName());
+            }
+            if (!team.getOwnerUserId().equals(currentUserId)) {
+                throw new UnauthorizedException("Only team owners can backfill team history");
+            }
+            if (!request.getEndDate().isBefore(LocalDate.now(teamService.getTeamZone(team)))) {
+                throw new BadRequestException("Backfill only covers past dates; end date must be before today in "
+                        + team.getName() + "'s timezone");
+            }
+        }
+
+        BackfillJob job = new BackfillJob(UUID.randomUUID().toString(), currentUserId, teamIds,
+                request.getStartDate(), request.getEndDate());
+        job.parallelism = Math.min(maxParallelism,
+                request.getParallelism() != null ? request.getParallelism() : maxParallelism);
+
+        for (Long teamId : teamIds) {
+            if (request.isDailySummaries()) {
+                for (LocalDate date = request.getStartDate(); !date.isAfter(request.getEndDate()); date = date.plusDays(1)) {
+                    job.pending.add(new BackfillTask(teamId, date, false));
+                }
+            }
+            if (request.isWeeklySummaries()) {
+                // Only complete Monday-Sunday weeks that lie inside the range
+                LocalDate weekStart = request.getStartDate().with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+                for (; !weekStart.plusDays(6).isAfter(request.getEndDate()); weekStart = weekStart.plusWeeks(1)) {
+                    job.pending.add(new BackfillTask(teamId, weekStart, true));
+                }
+            }
+        }
+        job.totalTasks = job.pending.size();
+
+        jobs.put(job.id, job);
+        log.info("Starting backfill job {} for teams {} ({} tasks, parallelism {})",
+                job.id, teamIds, job.totalTasks, job.parallelism);
+
+        startWorkers(job);
+        return toResponse(job);
+    }
+
+    public BackfillJobResponse getJob(String jobId, Long currentUserId) {
+        return toResponse(findJob(jobId, currentUserId));
+    }
+
+    public List<BackfillJobResponse> getJobs(Long currentUserId) {
+        return jobs.values().stream()
+                .filter(job -> job.ownerUserId.equals(currentUserId))
+                .sorted(Comparator.comparing((BackfillJob job) -> job.createdAt).reversed())
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pause a running job. Workers finish the task they are on and then stop.
+     */
+    public BackfillJobResponse pauseJob(String jobId, Long currentUserId) {
+        BackfillJob job = findJob(jobId, currentUserId);
+        synchronized (job) {
+            if (job.status != BackfillStatus.RUNNING) {
+                throw new BadRequestException("Only running jobs can be paused");
+            }
+            job.status = BackfillStatus.PAUSED;
+        }
+        log.info("Paused backfill job {} at {}/{} tasks", job.id, job.processed.get(), job.totalTasks);
+        return toResponse(job);
+    }
+
+    /**
+     * Resume a paused job from where it stopped. Workers of the pause that
+     * are still finishing a task carry on, and only the missing ones start.
+     */
+    public BackfillJobResponse resumeJob(String jobId, Long currentUserId) {
+        BackfillJob job = findJob(jobId, currentUserId);
+        synchronized (job) {
+            if (job.status != BackfillStatus.PAUSED) {
+                throw new BadRequestException("Only paused jobs can be resumed");
+            }
+            job.status = BackfillStatus.RUNNING;
+        }
+        log.info("Resumed backfill job {}", job.id);
+        startWorkers(job);
+        return toResponse(job);
+    }
+
+    /**
+     * Forget jobs that finished more than the retention period ago
+     */
+    @Scheduled(fixedDelayString = "${backfill.jobs.purge.ms:600000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(jobRetentionMs));
+        jobs.values().removeIf(job -> job.finishedAt != null && !job.finishedAt.isAfter(cutoff));
+    }
+
+    private BackfillJob findJob(String jobId, Long currentUserId) {
+        BackfillJob job = jobs.get(jobId);
+        if (job == null || !job.ownerUserId.equals(currentUserId)) {
+            throw new ResourceNotFoundException("Backfill job not found: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Top the job up to its parallelism. Workers decide to stop under the
+     * job's lock, so a worker counted here is one that will keep going.
+     */
+    private void startWorkers(BackfillJob job) {
+        int workers;
+        synchronized (job) {
+            workers = Math.min(job.parallelism, job.pending.size()) - job.activeWorkers;
+            if (workers <= 0) {
+                completeIfDone(job);
+                return;
+            }
+            job.activeWorkers += workers;
+        }
+        for (int i = 0; i < workers; i++) {
+            backfillExecutor.execute(() -> runWorker(job));
+        }
+    }
+
+    private void runWorker(BackfillJob job) {
+        while (true) {
+            BackfillTask task;
+            synchronized (job) {
+                task = job.status == BackfillStatus.RUNNING && !Thread.currentThread().isInterrupted()
+                        ? job.pending.poll()
+                        : null;
+                if (task == null) {
+                    job.activeWorkers--;
+                    completeIfDone(job);
+                    return;
+                }
+            }
+            processTask(job, task);
+        }
+    }
+
+    /**
+     * Called holding the job's lock
+     */
+    private void completeIfDone(BackfillJob job) {
+        if (job.status == BackfillStatus.RUNNING && job.activeWorkers == 0 && job.pending.isEmpty()) {
+            job.status = BackfillStatus.COMPLETED;
+            job.finishedAt = LocalDateTime.now();
+            log.info("Backfill job {} completed: {} created, {} skipped, {} failed",
+                    job.id, job.created.get(), job.skipped.get(), job.failed.get());
+        }
+    }
+
+    private void processTask(BackfillJob job, BackfillTask task) {
+        try {
+            boolean needed = shardRouter.onTeamShard(task.teamId(), () -> task.weekly()
+                    ? weeklySummaryService.needsBackfill(task.teamId(), task.date())
+                    : standupSummaryService.needsBackfill(task.teamId(), task.date()));
+
+            boolean created = false;
+            if (needed) {
+                awaitAiPermit();
+                created = shardRouter.onTeamShard(task.teamId(), () -> task.weekly()
+                        ? weeklySummaryService.backfillWeeklySummary(task.teamId(), task.date())
+                        : standupSummaryService.backfillSummary(task.teamId(), task.date()));
+            }
+
+            if (created) {
+                job.created.incrementAndGet();
+            } else {
+                job.skipped.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.pending.add(task);
+            return;
+        } catch (DataIntegrityViolationException e) {
+            // Summarized concurrently; the unique key kept the other one
+            job.skipped.incrementAndGet();
+        } catch (Exception e) {
+            job.failed.incrementAndGet();
+            job.lastError = String.format("%s %s for team %d: %s",
+                    task.weekly() ? "Week of" : "Day", task.date(), task.teamId(), e.getMessage());
+            log.warn("Backfill job {} failed task {}: {}", job.id, task, e.getMessage());
+        }
+        job.processed.incrementAndGet();
+    }
+
+    /**
+     * Space AI calls evenly so that all running jobs together stay under
+     * the configured requests-per-minute budget.
+     */
+    private void awaitAiPermit() throws InterruptedException {
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, aiRequestsPerMinute);
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextAiSlot);
+            nextAiSlot = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private BackfillJobResponse toResponse(BackfillJob job) {
+        return new BackfillJobResponse(
+                job.id,
+                job.status.name(),
+                new ArrayList<>(job.teamIds),
+                job.startDate,
+                job.endDate,
+                job.totalTasks,
+                job.processed.get(),
+                job.created.get(),
+                job.skipped.get(),
+                job.failed.get(),
+                job.lastError,
+                job.createdAt,
+                job.finishedAt);
+    }
+
+    private enum BackfillStatus {
+        RUNNING,
+        PAUSED,
+        COMPLETED
+    }
+
+    /**
+     * A single unit of work: one team and either one day or one week starting on
+     * {@code date}.
+     */
+    private record BackfillTask(Long teamId, LocalDate date, boolean weekly) {
+    }
+
+    private static class BackfillJob {
+        private final String id;
+        private final Long ownerUserId;
+        private final List<Long> teamIds;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final Queue<BackfillTask> pending = new ConcurrentLinkedQueue<>();
+        // Guarded by the job's lock
+        private int activeWorkers;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile BackfillStatus status = BackfillStatus.RUNNING;
+        private volatile String lastError;
+        private volatile LocalDateTime finishedAt;
+        private int parallelism;
+        private int totalTasks;
+
+        private BackfillJob(String id, Long ownerUserId, List<Long> teamIds, LocalDate startDate, LocalDate endDate) {
+            this.id = id;
+            this.ownerUserId = ownerUserId;
+            this.teamIds = teamIds;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+    }
+}
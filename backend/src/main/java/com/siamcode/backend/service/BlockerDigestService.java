@@ -0,0 +1,207 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.BlockerAlert;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.repository.BlockerAlertRepository;
+import com.siamcode.backend.repository.TeamRepository;
+import com.siamcode.backend.repository.UserRepository;
+import com.siamcode.backend.util.EmailTemplateRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects blocker reports and sends each team owner one digest email per
+ * window instead of one email per standup edit.
+ *
+ * The blocker_alerts table is the queue: every change is written to it in
+ * the caller's transaction, keyed by standup, so repeated edits replace each
+ * other and clearing or deleting a standup takes its alert out on every
+ * instance. Each window, the alerts of every shard are claimed with a token
+ * (see BlockerAlertRepository#claim), so instances never mail the same
+ * alert twice. Claimed alerts are deleted once their email is accepted and
+ * released for the next window if it fails; claims of an instance that died
+ * mid-send expire after STALE_CLAIM.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlockerDigestService {
+
+    private static final Duration STALE_CLAIM = Duration.ofMinutes(30);
+
+    private final BlockerAlertRepository blockerAlertRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final EmailTemplateRegistry templateRegistry;
+    private final ShardRouter shardRouter;
+
+    @Value("${frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    /**
+     * Record the current blockers of a standup for the next digest. A standup
+     * whose blockers were cleared is dropped from the digest. Must be called
+     * inside the transaction that saves the standup.
+     */
+    public void recordBlockers(Standup standup, String userName) {
+        String blockers = standup.getBlockersText();
+        if (blockers == null || blockers.trim().isEmpty()) {
+            discard(standup.getId());
+            return;
+        }
+
+        BlockerAlert alert = blockerAlertRepository.findByStandupId(standup.getId())
+                .orElseGet(BlockerAlert::new);
+        alert.setStandupId(standup.getId());
+        alert.setTeamId(standup.getTeamId());
+        alert.setUserId(standup.getUserId());
+        alert.setUserName(userName);
+        alert.setBlockersText(blockers);
+        alert.setReportedAt(LocalDateTime.now());
+        // An edit made while a digest is being sent goes out in the next one
+        alert.setClaimToken(null);
+        alert.setClaimedAt(null);
+        blockerAlertRepository.save(alert);
+    }
+
+    /**
+     * Drop any pending alert for a standup (blockers cleared or standup deleted)
+     */
+    public void discard(Long standupId) {
+        blockerAlertRepository.deleteByStandupId(standupId);
+    }
+
+    @Scheduled(fixedDelayString = "${blocker.digest.window.ms:900000}",
+            initialDelayString = "${blocker.digest.window.ms:900000}")
+    public void sendDigests() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimedBlocker> claimed = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            int claimedShard = shard;
+            shardRouter.onShardInTransaction(shard, () -> {
+                if (blockerAlertRepository.claim(token, now, now.minus(STALE_CLAIM)) > 0) {
+                    blockerAlertRepository.findByClaimToken(token)
+                            .forEach(alert -> claimed.add(ClaimedBlocker.of(claimedShard, alert)));
+                }
+                return null;
+            });
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Team> teams = teamRepository.findAllById(
+                claimed.stream().map(ClaimedBlocker::teamId).distinct().collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Team::getId, Function.identity()));
+        Map<Long, User> owners = userRepository.findAllById(
+                teams.values().stream().map(Team::getOwnerUserId).distinct().collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<Long, List<ClaimedBlocker>> byOwner = new LinkedHashMap<>();
+        List<ClaimedBlocker> orphaned = new ArrayList<>();
+        for (ClaimedBlocker blocker : claimed) {
+            Team team = teams.get(blocker.teamId());
+            if (team != null && !team.isDeleted() && owners.containsKey(team.getOwnerUserId())) {
+                byOwner.computeIfAbsent(team.getOwnerUserId(), key -> new ArrayList<>()).add(blocker);
+            } else {
+                orphaned.add(blocker);
+            }
+        }
+        // Nobody to tell about blockers of deleted teams or owners
+        finish(token, orphaned, true);
+
+        byOwner.forEach((ownerId, blockers) -> {
+            User owner = owners.get(ownerId);
+            CompletableFuture<String> sent;
+            try {
+                sent = sendDigest(owner, blockers, teams);
+            } catch (Exception e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sent.whenComplete((emailId, failure) -> {
+                if (failure != null) {
+                    log.error("Failed to send blocker digest to {}, retrying next window: {}", owner.getEmail(),
+                            failure.getMessage());
+                }
+                finish(token, blockers, failure == null);
+            });
+        });
+
+        log.info("Sending blocker digests to {} owners covering {} standups", byOwner.size(), claimed.size());
+    }
+
+    /**
+     * Delete sent alerts, or release them for the next digest
+     */
+    private void finish(String token, List<ClaimedBlocker> blockers, boolean sent) {
+        blockers.stream()
+                .collect(Collectors.groupingBy(ClaimedBlocker::shard,
+                        Collectors.mapping(ClaimedBlocker::standupId, Collectors.toList())))
+                .forEach((shard, standupIds) -> {
+                    try {
+                        shardRouter.inShardTransaction(shard, () -> {
+                            if (sent) {
+                                blockerAlertRepository.deleteSent(token, standupIds);
+                            } else {
+                                blockerAlertRepository.release(token, standupIds);
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        // Still claimed; picked up again once the claim goes stale
+                        log.error("Could not settle {} blocker alerts on shard {}: {}", standupIds.size(), shard,
+                                e.getMessage());
+                    }
+                });
+    }
+
+    private CompletableFuture<String> sendDigest(User owner, List<ClaimedBlocker> blockers, Map<Long, Team> teams) {
+        blockers.sort(Comparator.comparing(ClaimedBlocker::reportedAt));
+
+        StringBuilder entries = new StringBuilder();
+        for (ClaimedBlocker blocker : blockers) {
+            entries.append(templateRegistry.render("blocker-digest-entry", Map.of(
+                    "userName", HtmlUtils.htmlEscape(blocker.userName()),
+                    "teamName", HtmlUtils.htmlEscape(teams.get(blocker.teamId()).getName()),
+                    "blockerText", HtmlUtils.htmlEscape(blocker.blockersText()))));
+        }
+
+        String subject = blockers.size() == 1
+                ? "Blocker Alert: " + blockers.get(0).userName() + " in " + teams.get(blockers.get(0).teamId()).getName()
+                : "Blocker Alert: " + blockers.size() + " new blockers in your teams";
+
+        return emailService.sendTemplatedEmail(owner.getEmail(), subject, "blocker-digest", Map.of(
+                "ownerName", HtmlUtils.htmlEscape(owner.getName()),
+                "blockerCount", blockers.size(),
+                "entries", entries,
+                "dashboardUrl", frontendUrl + "/teams"));
+    }
+
+    private record ClaimedBlocker(int shard, Long standupId, Long teamId, String userName, String blockersText,
+            LocalDateTime reportedAt) {
+
+        static ClaimedBlocker of(int shard, BlockerAlert alert) {
+            return new ClaimedBlocker(shard, alert.getStandupId(), alert.getTeamId(), alert.getUserName(),
+                    alert.getBlockersText(), alert.getReportedAt());
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.config.ReplicaRoutingDataSource;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps in-process caches consistent across instances without a broker.
+ * Changes are announced with Postgres NOTIFY once their transaction commits;
+ * every instance LISTENs on the same channel and drops its copies of what
+ * another one changed (as a {@link CacheInvalidationEvent}).
+ *
+ * A message names the sending instance and the changed ids per topic, e.g.
+ * "3f9c2a1b;T:12;X:40,41". Sending and listening each use a dedicated
+ * connection and thread, so publishing never blocks a request or takes a pool
+ * connection. Whenever delivery cannot be trusted, caches are flushed: here
+ * after the listener (re)connects, and on all other instances with a "*"
+ * message after sends were lost. The caches' own TTLs remain as a backstop.
+ * With a read replica, a change to cached entities (teams, users, members,
+ * the shard directory, email suppressions) also keeps reads on the primary for a moment, so the
+ * caches are not refilled from a replica that is behind. Other topics, such
+ * as the per-write standup changes, leave routing alone.
+ *
+ * On other databases (H2 in development) there is a single instance and
+ * nothing is sent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final String FLUSH = "*";
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final long MIN_RECONNECT_DELAY_MS = 1000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30000;
+    // Topics whose readers refill caches that outlive the replication lag
+    private static final Set<Topic> CACHED_ENTITY_TOPICS = EnumSet.of(Topic.MEMBERSHIP_VERSION, Topic.TEAM,
+            Topic.USER, Topic.TEAM_MEMBER, Topic.TEAM_SHARD, Topic.SUPPRESSION);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    // Only present with a read replica configured
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Value("${spring.datasource.username:}")
+    private String datasourceUsername;
+
+    @Value("${spring.datasource.password:}")
+    private String datasourcePassword;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean invalidationEnabled;
+
+    @Value("${cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    @Value("${cache.invalidation.poll.ms:10000}")
+    private int pollMs;
+
+    @Value("${cache.invalidation.outbox.capacity:10000}")
+    private int outboxCapacity;
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    // Set when messages may not have reached the other instances
+    private final AtomicBoolean sendsLost = new AtomicBoolean();
+
+    private boolean enabled;
+    private volatile boolean running;
+    private BlockingQueue<String> outbox;
+    private Thread sender;
+    private Thread listener;
+
+    private Counter published;
+    private Counter received;
+    private Counter flushes;
+    private Counter sendFailures;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        enabled = invalidationEnabled && datasourceUrl.startsWith("jdbc:postgresql:");
+        if (!enabled) {
+            log.info("Cache invalidation across instances is off (single instance or not Postgres)");
+            return;
+        }
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("cache.invalidation.channel must be a lower-case identifier");
+        }
+
+        published = Counter.builder("cache.invalidation.published").register(meterRegistry);
+        received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+        flushes = Counter.builder("cache.invalidation.flushes")
+                .description("Full cache flushes after messages may have been missed")
+                .register(meterRegistry);
+        sendFailures = Counter.builder("cache.invalidation.send.failures").register(meterRegistry);
+        outbox = new ArrayBlockingQueue<>(outboxCapacity);
+        Gauge.builder("cache.invalidation.outbox.size", outbox, Collection::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        sender = Thread.ofPlatform().name("cache-invalidation-sender").daemon().start(this::runSender);
+        listener = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::runListener);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        listener.interrupt();
+        // The sender sends what is still queued before it stops
+        sender.interrupt();
+        sender.join(5000);
+    }
+
+    /**
+     * Tell the other instances that these ids changed. Inside a transaction
+     * the message goes out only if it commits, merged with everything else
+     * the transaction published.
+     */
+    public void publish(Topic topic, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInvalidations().add(topic, ids);
+        } else {
+            committed(Map.of(topic, ids));
+        }
+    }
+
+    private void committed(Map<Topic, ? extends Collection<Long>> changes) {
+        if (changes.keySet().stream().anyMatch(CACHED_ENTITY_TOPICS::contains)) {
+            // Until the replica has caught up it could put the old rows back into the caches
+            replicaRouting.ifAvailable(ReplicaRoutingDataSource::pinToPrimary);
+        }
+        if (enabled) {
+            send(changes);
+        }
+    }
+
+    private PendingInvalidations pendingInvalidations() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInvalidations pending) {
+                return pending;
+            }
+        }
+        PendingInvalidations pending = new PendingInvalidations();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void send(Map<Topic, ? extends Collection<Long>> changes) {
+        StringBuilder message = new StringBuilder(instanceId);
+        for (Map.Entry<Topic, ? extends Collection<Long>> entry : changes.entrySet()) {
+            String prefix = ";" + entry.getKey().getCode() + ":";
+            boolean first = true;
+            for (Long id : entry.getValue()) {
+                String part = (first ? prefix : ",") + id;
+                if (message.length() + part.length() > MAX_PAYLOAD_LENGTH) {
+                    enqueue(message.toString());
+                    message = new StringBuilder(instanceId);
+                    part = prefix + id;
+                }
+                message.append(part);
+                first = false;
+            }
+        }
+        if (message.length() > instanceId.length()) {
+            enqueue(message.toString());
+        }
+    }
+
+    private void enqueue(String message) {
+        if (!outbox.offer(message)) {
+            sendsLost.set(true);
+        }
+    }
+
+    private void runSender() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MS;
+        while (true) {
+            String message = null;
+            try (Connection connection = connect();
+                    PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                reconnectDelay = MIN_RECONNECT_DELAY_MS;
+                while (true) {
+                    if (sendsLost.getAndSet(false)) {
+                        log.warn("Cache invalidations may have been lost; asking all instances to flush");
+                        message = instanceId + ";" + FLUSH;
+                        notify(notify, message);
+                    }
+                    if (!running) {
+                        // Shutting down: send what is left, then stop
+                        while ((message = outbox.poll()) != null) {
+                            notify(notify, message);
+                        }
+                        return;
+                    }
+                    try {
+                        message = outbox.poll(pollMs, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        continue;
+                    }
+                    if (message != null) {
+                        notify(notify, message);
+                        message = null;
+                    }
+                }
+            } catch (SQLException e) {
+                sendFailures.increment();
+                if (message != null) {
+                    sendsLost.set(true);
+                }
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation sender lost its connection, reconnecting in {} ms: {}",
+                        reconnectDelay, e.getMessage());
+                if (!sleep(reconnectDelay)) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    private void notify(PreparedStatement notify, String message) throws SQLException {
+        notify.setString(1, channel);
+        notify.setString(2, message);
+        notify.execute();
+        published.increment();
+    }
+
+    private void runListener() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MS;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                // Anything changed elsewhere while not listening went unnoticed
+                flushAll();
+                if (reconnecting) {
+                    log.info("Cache invalidation listener reconnected; local caches flushed");
+                } else {
+                    log.info("Listening for cache invalidations on channel {} as instance {}", channel, instanceId);
+                }
+                reconnectDelay = MIN_RECONNECT_DELAY_MS;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications == null || notifications.length == 0) {
+                        // Nothing arrived; make sure that is not because the connection died
+                        statement.execute("SELECT 1");
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        apply(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting in {} ms: {}",
+                        reconnectDelay, e.getMessage());
+                reconnecting = true;
+                if (!sleep(reconnectDelay)) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    private void apply(String message) {
+        String[] parts = message.split(";");
+        if (parts[0].equals(instanceId)) {
+            // Our own changes were applied here when they happened
+            return;
+        }
+        received.increment();
+
+        try {
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].equals(FLUSH)) {
+                    flushAll();
+                    return;
+                }
+                Topic topic = parts[i].length() > 2 ? Topic.fromCode(parts[i].charAt(0)) : null;
+                if (topic == null) {
+                    throw new IllegalArgumentException("unknown topic " + parts[i]);
+                }
+                Set<Long> ids = new HashSet<>();
+                for (String id : parts[i].substring(2).split(",")) {
+                    ids.add(Long.parseLong(id));
+                }
+                dispatch(new CacheInvalidationEvent(topic, ids));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Unreadable cache invalidation '{}', flushing caches: {}", message, e.getMessage());
+            flushAll();
+        }
+    }
+
+    private void flushAll() {
+        flushes.increment();
+        for (Topic topic : Topic.values()) {
+            dispatch(new CacheInvalidationEvent(topic, null));
+        }
+    }
+
+    private void dispatch(CacheInvalidationEvent event) {
+        if (CACHED_ENTITY_TOPICS.contains(event.topic())) {
+            replicaRouting.ifAvailable(ReplicaRoutingDataSource::pinToPrimary);
+        }
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("Failed to apply cache invalidation for {}", event.topic(), e);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", datasourceUsername);
+        properties.setProperty("password", datasourcePassword);
+        properties.setProperty("ApplicationName", "standupmeet-cache-invalidation");
+        properties.setProperty("tcpKeepAlive", "true");
+        // A dead connection fails the health check instead of hanging it
+        properties.setProperty("socketTimeout", String.valueOf(pollMs / 1000 + 30));
+        return DriverManager.getConnection(datasourceUrl, properties);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Everything a transaction published, sent once it commits
+     */
+    private class PendingInvalidations implements TransactionSynchronization {
+
+        private final Map<Topic, Set<Long>> changes = new EnumMap<>(Topic.class);
+
+        void add(Topic topic, Collection<Long> ids) {
+            changes.computeIfAbsent(topic, t -> new TreeSet<>()).addAll(ids);
+        }
+
+        @Override
+        public void afterCommit() {
+            committed(changes);
+        }
+    }
+}
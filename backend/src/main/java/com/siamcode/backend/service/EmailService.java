@@ -1,54 +1,105 @@
 package com.siamcode.backend.service;
 
+import com.siamcode.backend.util.EmailTemplateRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Email service using Resend API (HTTP-based, works on Render free tier)
  * Fallback to Gmail SMTP if Resend is not configured
+ *
+ * Outgoing emails are queued and coalesced into Resend's batch endpoint.
+ * A batch is sent as soon as it reaches the batch size, or when the flush
+ * interval elapses, whichever comes first.
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class EmailService {
 
+    // Resend accepts at most 100 emails per batch request
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
+    private final EmailTemplateRegistry templateRegistry;
+    private final EmailSuppressionService suppressionService;
+
     @Value("${resend.api.key:}")
     private String resendApiKey;
 
+    @Value("${resend.api.url:https://api.resend.com}")
+    private String resendApiUrl;
+
     @Value("${resend.from.email:onboarding@resend.dev}")
     private String resendFromEmail;
 
+    @Value("${resend.batch.size:50}")
+    private int batchSize;
+
+    @Value("${resend.batch.flush.ms:500}")
+    private long batchFlushMs;
+
     @Value("${frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
     // Auto-scaling thread pool for email sending - won't block HTTP threads
     private final Executor emailExecutor = Executors.newCachedThreadPool();
 
+    // Time-based flush trigger for partially filled batches
+    private final ScheduledExecutorService batchFlusher = Executors.newSingleThreadScheduledExecutor();
+
     // HTTP client with connection timeout to prevent hanging
     private final HttpClient httpClient = HttpClient.newBuilder()
             .connectTimeout(java.time.Duration.ofSeconds(30))
             .build();
 
+    private final Object batchLock = new Object();
+    private List<OutgoingEmail> pendingBatch = new ArrayList<>();
+
     @jakarta.annotation.PostConstruct
     public void init() {
+        batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        if (isConfigured()) {
+            batchFlusher.scheduleWithFixedDelay(this::flushPending, batchFlushMs, batchFlushMs,
+                    TimeUnit.MILLISECONDS);
+        }
+
         log.info("==> Email Service Configuration:");
         log.info("    Provider: {}", isConfigured() ? "RESEND (HTTP API)" : "DISABLED");
         log.info("    API Key: {}", resendApiKey.isEmpty() ? "NOT SET"
                 : "***" + resendApiKey.substring(Math.max(0, resendApiKey.length() - 4)));
         log.info("    From Email: {}", resendFromEmail);
+        log.info("    Batching: up to {} emails every {} ms", batchSize, batchFlushMs);
         log.info("    Frontend URL: {}", frontendUrl);
         log.info("    Status: {}", isConfigured() ? "READY" : "DISABLED");
     }
 
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        batchFlusher.shutdown();
+        flushPending();
+    }
+
     /**
      * Check if email service is configured
      */
@@ -57,155 +108,215 @@ public class EmailService {
     }
 
     /**
-     * Send email using Resend API (async)
+     * Queue an email for sending via Resend (async).
+     * The returned future completes with the Resend email id once the batch
+     * containing this email has been accepted, or exceptionally if it failed.
      */
-    public void sendHtmlEmail(String to, String subject, String htmlContent) {
+    public CompletableFuture<String> sendHtmlEmail(String to, String subject, String htmlContent) {
         if (!isConfigured()) {
             log.warn("Email service not configured. Skipping email to: {}", to);
-            return;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (suppressionService.isSuppressed(to)) {
+            log.info("Skipping email to suppressed address: {}", to);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        OutgoingEmail email = new OutgoingEmail(to, subject, htmlContent, new CompletableFuture<>());
+        List<OutgoingEmail> fullBatch = null;
+        synchronized (batchLock) {
+            pendingBatch.add(email);
+            if (pendingBatch.size() >= batchSize) {
+                fullBatch = pendingBatch;
+                pendingBatch = new ArrayList<>();
+            }
         }
 
         log.info("Queuing email to: {} via Resend (async)", to);
-        CompletableFuture.runAsync(() -> doSendEmail(to, subject, htmlContent), emailExecutor)
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return email.result();
+    }
+
+    /**
+     * Send whatever is queued, regardless of batch size
+     */
+    private void flushPending() {
+        List<OutgoingEmail> batch;
+        synchronized (batchLock) {
+            if (pendingBatch.isEmpty()) {
+                return;
+            }
+            batch = pendingBatch;
+            pendingBatch = new ArrayList<>();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(List<OutgoingEmail> batch) {
+        CompletableFuture.runAsync(() -> sendBatch(batch), emailExecutor)
                 .exceptionally(ex -> {
-                    log.error("Async email failed to {}: {}", to, ex.getMessage(), ex);
+                    log.error("Async email batch failed: {}", ex.getMessage(), ex);
+                    batch.forEach(email -> email.result().completeExceptionally(ex));
                     return null;
                 });
     }
 
     /**
-     * Actually send the email via Resend API
+     * Send a batch via Resend's batch endpoint and map the returned ids back
+     * to the queued emails in order. Resend validates a batch as a whole, so
+     * a rejected batch is retried one email at a time to isolate the bad one.
      */
-    private void doSendEmail(String to, String subject, String htmlContent) {
+    private void sendBatch(List<OutgoingEmail> batch) {
+        if (batch.size() == 1) {
+            doSendEmail(batch.get(0));
+            return;
+        }
+
         try {
-            String jsonBody = """
-                    {
-                        "from": "%s",
-                        "to": ["%s"],
-                        "subject": "%s",
-                        "html": %s
-                    }
-                    """.formatted(
-                    resendFromEmail,
-                    to,
-                    subject.replace("\"", "\\\""),
-                    escapeJson(htmlContent));
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.resend.com/emails"))
-                    .header("Authorization", "Bearer " + resendApiKey)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = post("/emails/batch", toJson(batch));
 
             if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                log.info("Email sent successfully to: {} via Resend", to);
+                JsonNode data = objectMapper.readTree(response.body()).path("data");
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result().complete(data.path(i).path("id").asString(null));
+                }
+                log.info("Batch of {} emails sent successfully via Resend", batch.size());
+            } else if (response.statusCode() == 400 || response.statusCode() == 422) {
+                log.warn("Resend rejected batch of {} emails (Status={}), sending individually: {}",
+                        batch.size(), response.statusCode(), response.body());
+                batch.forEach(this::doSendEmail);
             } else {
-                log.error("Failed to send email to {}: Status={}, Response={}", to, response.statusCode(),
+                log.error("Failed to send batch of {} emails: Status={}, Response={}", batch.size(),
+                        response.statusCode(), response.body());
+                IllegalStateException failure = new IllegalStateException(
+                        "Resend returned status " + response.statusCode());
+                batch.forEach(email -> email.result().completeExceptionally(failure));
+            }
+        } catch (Exception e) {
+            log.error("Failed to send batch of {} emails: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(email -> email.result().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Actually send a single email via Resend API
+     */
+    private void doSendEmail(OutgoingEmail email) {
+        try {
+            HttpResponse<String> response = post("/emails", toJson(email));
+
+            if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                log.info("Email sent successfully to: {} via Resend", email.to());
+                email.result().complete(objectMapper.readTree(response.body()).path("id").asString(null));
+            } else {
+                log.error("Failed to send email to {}: Status={}, Response={}", email.to(), response.statusCode(),
                         response.body());
+                email.result().completeExceptionally(
+                        new IllegalStateException("Resend returned status " + response.statusCode()));
             }
         } catch (Exception e) {
-            log.error("Failed to send email to {}: {}", to, e.getMessage(), e);
+            log.error("Failed to send email to {}: {}", email.to(), e.getMessage(), e);
+            email.result().completeExceptionally(e);
+        }
+    }
+
+    private HttpResponse<String> post(String path, byte[] jsonBody) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(resendApiUrl + path))
+                .header("Authorization", "Bearer " + resendApiKey)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(jsonBody))
+                .build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Encode a single email as a JSON object, streamed straight to UTF-8 bytes
+     */
+    private byte[] toJson(OutgoingEmail email) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateJsonSize(email));
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            writeEmail(generator, email);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode a batch as a JSON array of email objects
+     */
+    private byte[] toJson(List<OutgoingEmail> batch) {
+        int estimatedSize = 2;
+        for (OutgoingEmail email : batch) {
+            estimatedSize += estimateJsonSize(email) + 1;
         }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimatedSize);
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            for (OutgoingEmail email : batch) {
+                writeEmail(generator, email);
+            }
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    private void writeEmail(JsonGenerator generator, OutgoingEmail email) {
+        generator.writeStartObject();
+        generator.writeStringProperty("from", resendFromEmail);
+        generator.writeName("to");
+        generator.writeStartArray();
+        generator.writeString(email.to());
+        generator.writeEndArray();
+        generator.writeStringProperty("subject", email.subject());
+        generator.writeStringProperty("html", email.htmlContent());
+        generator.writeEndObject();
+    }
+
+    private int estimateJsonSize(OutgoingEmail email) {
+        int htmlLength = email.htmlContent() != null ? email.htmlContent().length() : 4;
+        return 128 + email.to().length() + email.subject().length() + htmlLength + htmlLength / 8;
+    }
+
+    private record OutgoingEmail(String to, String subject, String htmlContent, CompletableFuture<String> result) {
     }
 
     /**
-     * Escape string for JSON
+     * Render a registered template and queue it for sending (async)
      */
-    private String escapeJson(String text) {
-        if (text == null)
-            return "null";
-        return "\"" + text
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t")
-                + "\"";
+    public CompletableFuture<String> sendTemplatedEmail(String to, String subject, String templateName,
+            Map<String, ?> values) {
+        return sendHtmlEmail(to, subject, templateRegistry.render(templateName, values));
     }
 
     /**
      * Send a welcome email to new users (async)
      */
     public void sendWelcomeEmail(String to, String userName) {
-        String subject = "Welcome to StandUpStrip!";
-        String htmlContent = """
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto;">
-                    <h1 style="color: #14b8a6;">Welcome to StandUpStrip!</h1>
-                    <p>Hi %s,</p>
-                    <p>Thank you for joining StandUpStrip! We're excited to help you and your team stay connected through daily standups.</p>
-                    <p>Get started by:</p>
-                    <ul>
-                        <li>Creating or joining a team</li>
-                        <li>Submitting your daily standup</li>
-                        <li>Tracking your team's progress</li>
-                    </ul>
-                    <p>If you have any questions, feel free to reach out!</p>
-                    <p>Best regards,<br/>The StandUpStrip Team</p>
-                </div>
-                """
-                .formatted(userName);
-
-        sendHtmlEmail(to, subject, htmlContent);
+        sendTemplatedEmail(to, "Welcome to StandUpStrip!", "welcome",
+                Map.of("userName", userName));
     }
 
     /**
      * Send email verification link (async)
      */
     public void sendVerificationEmail(String to, String userName, String token) {
-        String subject = "Verify your StandUpStrip email";
         String verificationUrl = frontendUrl + "/verify?token=" + token;
-
-        String htmlContent = """
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; border: 1px solid #e2e8f0; border-radius: 12px; overflow: hidden;">
-                    <div style="background: #14b8a6; padding: 20px; text-align: center;">
-                        <h1 style="color: white; margin: 0;">StandUpStrip</h1>
-                    </div>
-                    <div style="padding: 30px; background: white;">
-                        <h2>Hi %s,</h2>
-                        <p>Welcome to StandUpStrip! Please verify your email address to get started.</p>
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s" style="background: #14b8a6; color: white; padding: 12px 24px; text-decoration: none; border-radius: 6px; font-weight: bold;">Verify Email Address</a>
-                        </div>
-                        <p>If the button doesn't work, copy and paste this link into your browser:</p>
-                        <p style="color: #64748b; font-size: 14px;">%s</p>
-                        <p>This link will expire in 24 hours.</p>
-                    </div>
-                </div>
-                """
-                .formatted(userName, verificationUrl, verificationUrl);
-
-        sendHtmlEmail(to, subject, htmlContent);
+        sendTemplatedEmail(to, "Verify your StandUpStrip email", "verification",
+                Map.of("userName", userName, "verificationUrl", verificationUrl));
     }
 
     /**
      * Send password reset link (async)
      */
     public void sendPasswordResetEmail(String to, String userName, String token) {
-        String subject = "Reset your StandUpStrip password";
         String resetUrl = frontendUrl + "/reset-password?token=" + token;
-
-        String htmlContent = """
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; border: 1px solid #e2e8f0; border-radius: 12px; overflow: hidden;">
-                    <div style="background: #ef4444; padding: 20px; text-align: center;">
-                        <h1 style="color: white; margin: 0;">StandUpStrip</h1>
-                    </div>
-                    <div style="padding: 30px; background: white;">
-                        <h2>Hi %s,</h2>
-                        <p>We received a request to reset your password. Click the button below to choose a new password.</p>
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s" style="background: #ef4444; color: white; padding: 12px 24px; text-decoration: none; border-radius: 6px; font-weight: bold;">Reset Password</a>
-                        </div>
-                        <p>If you didn't request a password reset, you can safely ignore this email.</p>
-                        <p>This link will expire in 1 hour.</p>
-                    </div>
-                </div>
-                """
-                .formatted(userName, resetUrl);
-
-        sendHtmlEmail(to, subject, htmlContent);
+        sendTemplatedEmail(to, "Reset your StandUpStrip password", "password-reset",
+                Map.of("userName", userName, "resetUrl", resetUrl));
     }
 
     /**
@@ -214,54 +325,7 @@ public class EmailService {
     public void sendTeamInvitationEmail(String to, String teamName, String inviteCode, String ownerName) {
         String subject = "You've been invited to join " + teamName + " on StandUpStrip";
         String joinUrl = frontendUrl + "/join/" + inviteCode;
-
-        String htmlContent = """
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; border: 1px solid #e2e8f0; border-radius: 12px; overflow: hidden;">
-                    <div style="background: #14b8a6; padding: 20px; text-align: center;">
-                        <h1 style="color: white; margin: 0;">StandUpStrip</h1>
-                    </div>
-                    <div style="padding: 30px; background: white;">
-                        <h2>Great news!</h2>
-                        <p><strong>%s</strong> has invited you to join the team <strong>%s</strong> on StandUpStrip.</p>
-                        <p>StandUpStrip helps teams stay aligned with asynchronous daily standups and AI-powered summaries.</p>
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s" style="background: #14b8a6; color: white; padding: 12px 24px; text-decoration: none; border-radius: 6px; font-weight: bold;">Join Team</a>
-                        </div>
-                        <p>Or use the invite code: <strong style="font-size: 18px; color: #14b8a6;">%s</strong></p>
-                    </div>
-                </div>
-                """
-                .formatted(ownerName, teamName, joinUrl, inviteCode);
-
-        sendHtmlEmail(to, subject, htmlContent);
-    }
-
-    /**
-     * Send blocker alert email to team owner (async)
-     */
-    public void sendBlockerAlert(String ownerEmail, String userName, String teamName, String blockerText) {
-        String subject = "Blocker Alert: " + userName + " in " + teamName;
-        String dashboardUrl = frontendUrl + "/teams";
-
-        String htmlContent = """
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; border: 1px solid #fee2e2; border-radius: 12px; overflow: hidden;">
-                    <div style="background: #ef4444; padding: 20px; text-align: center;">
-                        <h1 style="color: white; margin: 0;">Blocker Alert</h1>
-                    </div>
-                    <div style="padding: 30px; background: white;">
-                        <p><strong>%s</strong> reported a blocker in the team <strong>%s</strong>:</p>
-                        <div style="background: #fef2f2; border-left: 4px solid #ef4444; padding: 15px; margin: 20px 0; color: #991b1b;">
-                            %s
-                        </div>
-                        <p>You can view more details on the team dashboard.</p>
-                        <div style="text-align: center; margin: 20px 0;">
-                            <a href="%s" style="color: #ef4444; font-weight: bold;">Go to Dashboard</a>
-                        </div>
-                    </div>
-                </div>
-                """
-                .formatted(userName, teamName, blockerText, dashboardUrl);
-
-        sendHtmlEmail(ownerEmail, subject, htmlContent);
+        sendTemplatedEmail(to, subject, "team-invitation",
+                Map.of("ownerName", ownerName, "teamName", teamName, "joinUrl", joinUrl, "inviteCode", inviteCode));
     }
 }
@@ -0,0 +1,261 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.EmailSuppression;
+import com.siamcode.backend.entity.SuppressionReason;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.exception.BadRequestException;
+import com.siamcode.backend.exception.UnauthorizedException;
+import com.siamcode.backend.repository.EmailSuppressionRepository;
+import com.siamcode.backend.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Addresses that hard-bounced or complained, fed by Resend webhooks.
+ *
+ * The table is mirrored in memory as a Bloom filter in front of an exact set.
+ * Almost every recipient misses the filter, so the check before each send is a
+ * few bit lookups; only filter hits consult the exact set. New events are added
+ * to both as they arrive, and the filter is rebuilt at double capacity once it
+ * holds more entries than it was sized for.
+ *
+ * Other instances learn of new suppressions on the invalidation bus and load
+ * them by id; after a flush they reload the whole table. Suppressions are
+ * never removed, so loading only ever adds.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailSuppressionService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_FILTER_CAPACITY = 1024;
+    private static final long WEBHOOK_TOLERANCE_SECONDS = 5 * 60;
+
+    private final EmailSuppressionRepository suppressionRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus invalidationBus;
+
+    @Value("${resend.webhook.secret:}")
+    private String webhookSecret;
+
+    private final Set<String> suppressed = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter filter = new BloomFilter(MIN_FILTER_CAPACITY, FALSE_POSITIVE_RATE);
+
+    @jakarta.annotation.PostConstruct
+    public void loadSuppressions() {
+        reload();
+        log.info("Loaded {} suppressed email addresses", suppressed.size());
+        if (!isWebhookEnabled()) {
+            log.warn("resend.webhook.secret is not set; the Resend webhook is disabled");
+        }
+    }
+
+    /**
+     * Whether mail to this address should be dropped
+     */
+    public boolean isSuppressed(String email) {
+        if (email == null) {
+            return false;
+        }
+        String normalized = normalize(email);
+        return filter.mightContain(normalized) && suppressed.contains(normalized);
+    }
+
+    /**
+     * The webhook only exists with a signing secret: it is open to anyone, and
+     * unsigned events could suppress any address
+     */
+    public boolean isWebhookEnabled() {
+        return !webhookSecret.isEmpty();
+    }
+
+    /**
+     * Add an address to the suppression list, or refresh it if already there
+     */
+    @Transactional
+    public void suppress(String email, SuppressionReason reason) {
+        String normalized = normalize(email);
+        LocalDateTime now = LocalDateTime.now();
+
+        EmailSuppression suppression = suppressionRepository.findByEmail(normalized).orElseGet(() -> {
+            EmailSuppression created = new EmailSuppression();
+            created.setEmail(normalized);
+            created.setCreatedAt(now);
+            return created;
+        });
+        // A complaint is the stronger signal; don't downgrade it to a bounce
+        if (suppression.getReason() != SuppressionReason.COMPLAINT) {
+            suppression.setReason(reason);
+        }
+        suppression.setLastEventAt(now);
+        boolean created = suppression.getId() == null;
+        Long id = suppressionRepository.save(suppression).getId();
+        if (created) {
+            invalidationBus.publish(Topic.SUPPRESSION, List.of(id));
+        }
+
+        if (add(normalized)) {
+            log.info("Suppressing future email to {} ({})", normalized, reason);
+        }
+    }
+
+    /**
+     * Pick up suppressions recorded by other instances
+     */
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.topic() != Topic.SUPPRESSION) {
+            return;
+        }
+        if (event.isFlush()) {
+            reload();
+        } else {
+            suppressionRepository.findAllById(event.ids())
+                    .forEach(suppression -> add(suppression.getEmail()));
+        }
+    }
+
+    private boolean add(String normalized) {
+        if (!suppressed.add(normalized)) {
+            return false;
+        }
+        BloomFilter current = filter;
+        current.put(normalized);
+        if (suppressed.size() > current.getExpectedInsertions()) {
+            rebuildFilter();
+        }
+        return true;
+    }
+
+    private void reload() {
+        suppressed.addAll(suppressionRepository.findAllEmails());
+        rebuildFilter();
+    }
+
+    /**
+     * Handle a Resend webhook delivery. Bounce and complaint events add their
+     * recipients to the suppression list; other event types are ignored.
+     * Other instances hear of new suppressions once they commit.
+     */
+    @Transactional
+    public void handleResendWebhook(String messageId, String timestamp, String signature, String payload) {
+        verifySignature(messageId, timestamp, signature, payload);
+
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid webhook payload");
+        }
+
+        String type = event.path("type").asString("");
+        SuppressionReason reason;
+        switch (type) {
+            case "email.bounced" -> {
+                // Soft bounces (mailbox full, greylisting) may succeed later
+                String bounceType = event.path("data").path("bounce").path("type").asString("");
+                if (bounceType.equalsIgnoreCase("Transient")) {
+                    log.debug("Ignoring transient bounce event {}", messageId);
+                    return;
+                }
+                reason = SuppressionReason.BOUNCE;
+            }
+            case "email.complained" -> reason = SuppressionReason.COMPLAINT;
+            default -> {
+                return;
+            }
+        }
+
+        List<String> recipients = new ArrayList<>();
+        JsonNode to = event.path("data").path("to");
+        if (to.isArray()) {
+            to.forEach(address -> recipients.add(address.asString()));
+        } else if (to.isString()) {
+            recipients.add(to.asString());
+        }
+        recipients.forEach(address -> suppress(address, reason));
+    }
+
+    private synchronized void rebuildFilter() {
+        int capacity = Math.max(MIN_FILTER_CAPACITY, suppressed.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        suppressed.forEach(rebuilt::put);
+        filter = rebuilt;
+        // Pick up anything added while the new filter was being filled
+        suppressed.forEach(rebuilt::put);
+    }
+
+    /**
+     * Verify the Svix signature Resend attaches to webhook deliveries
+     */
+    private void verifySignature(String messageId, String timestamp, String signature, String payload) {
+        if (!isWebhookEnabled()) {
+            throw new UnauthorizedException("Webhook signing secret is not configured");
+        }
+        if (messageId == null || timestamp == null || signature == null) {
+            throw new UnauthorizedException("Missing webhook signature");
+        }
+
+        long sentAt;
+        try {
+            sentAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            throw new UnauthorizedException("Invalid webhook timestamp");
+        }
+        if (Math.abs(Instant.now().getEpochSecond() - sentAt) > WEBHOOK_TOLERANCE_SECONDS) {
+            throw new UnauthorizedException("Webhook timestamp outside tolerance");
+        }
+
+        byte[] expected;
+        try {
+            String secret = webhookSecret.startsWith("whsec_") ? webhookSecret.substring(6) : webhookSecret;
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256"));
+            expected = mac.doFinal((messageId + "." + timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not compute webhook signature", e);
+        }
+
+        // Header holds space-separated "v1,<base64>" entries, one per active secret
+        for (String candidate : signature.split(" ")) {
+            int comma = candidate.indexOf(',');
+            if (comma < 0 || !candidate.substring(0, comma).equals("v1")) {
+                continue;
+            }
+            try {
+                byte[] provided = Base64.getDecoder().decode(candidate.substring(comma + 1));
+                if (MessageDigest.isEqual(expected, provided)) {
+                    return;
+                }
+            } catch (IllegalArgumentException ignored) {
+                // malformed entry, try the next one
+            }
+        }
+        throw new UnauthorizedException("Invalid webhook signature");
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
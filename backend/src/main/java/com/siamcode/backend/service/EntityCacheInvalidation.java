@@ -0,0 +1,76 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.entity.TeamMember;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the second-level cache in step across instances. Registered as the
+ * entity listener of every cached entity: each change is published on the
+ * invalidation bus, and what other instances publish is evicted here.
+ * Hibernate already keeps this instance's cache in step with its own
+ * changes; bulk updates that bypass entity callbacks publish explicitly.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidation {
+
+    private final CacheInvalidationBus invalidationBus;
+    // Resolved lazily: Hibernate creates this listener while building the factory
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entityChanged(Object entity) {
+        switch (entity) {
+            case Team team -> invalidationBus.publish(Topic.TEAM, List.of(team.getId()));
+            case User user -> invalidationBus.publish(Topic.USER, List.of(user.getId()));
+            case TeamMember member -> invalidationBus.publish(Topic.TEAM_MEMBER, List.of(member.getId()));
+            default -> {
+            }
+        }
+    }
+
+    // Before other listeners, which may read the evicted entities again
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onInvalidation(CacheInvalidationEvent event) {
+        Cache cache = entityManagerFactory.getObject().unwrap(SessionFactory.class).getCache();
+        switch (event.topic()) {
+            case TEAM -> evict(cache, Team.class, event);
+            case USER -> evict(cache, User.class, event);
+            case TEAM_MEMBER -> {
+                evict(cache, TeamMember.class, event);
+                // Cached membership queries know nothing of the other instance's write
+                cache.evictQueryRegions();
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void evict(Cache cache, Class<?> entityClass, CacheInvalidationEvent event) {
+        if (event.isFlush()) {
+            cache.evictEntityData(entityClass);
+        } else {
+            event.ids().forEach(id -> cache.evictEntityData(entityClass, id));
+        }
+    }
+}
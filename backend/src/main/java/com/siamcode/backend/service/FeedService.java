@@ -0,0 +1,249 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.dto.response.FeedItemResponse;
+import com.siamcode.backend.dto.response.FeedPageResponse;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.StandupSummary;
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.exception.BadRequestException;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.repository.StandupSummaryRepository;
+import com.siamcode.backend.repository.TeamMemberRepository;
+import com.siamcode.backend.repository.TeamRepository;
+import com.siamcode.backend.repository.UserRepository;
+import com.siamcode.backend.util.EntityMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Activity feed across all of a user's teams: standups and summaries, newest
+ * first. Each team contributes one keyset-ordered stream per item type, read
+ * in small batches from the (teamId, createdAt, id) index, and a priority
+ * queue merges the stream heads. A page therefore reads about pageSize rows
+ * plus one small batch per stream, however deep the cursor is.
+ *
+ * With sharding the user's teams may be spread over several databases: each
+ * stream reads from its own team's shard and the merge is unchanged.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MIN_BATCH_SIZE = 4;
+
+    // Newest first; ties broken by type, then by id, so the order is total
+    private static final Comparator<FeedEntry> FEED_ORDER = Comparator
+            .comparing(FeedEntry::createdAt, Comparator.reverseOrder())
+            .thenComparing(FeedEntry::type)
+            .thenComparing(FeedEntry::id, Comparator.reverseOrder());
+
+    private final TeamMemberRepository teamMemberRepository;
+    private final TeamRepository teamRepository;
+    private final StandupRepository standupRepository;
+    private final StandupSummaryRepository standupSummaryRepository;
+    private final UserRepository userRepository;
+    private final EntityMapper entityMapper;
+    private final ShardRouter shardRouter;
+
+    @Transactional(readOnly = true)
+    public FeedPageResponse getFeed(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        FeedEntry position = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        Map<Long, Team> teams = teamRepository.findAllById(teamMemberRepository.findAcceptedTeamIdsByUserId(userId))
+                .stream()
+                .filter(team -> !team.isDeleted())
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+        if (teams.isEmpty()) {
+            return new FeedPageResponse(List.of(), null);
+        }
+
+        // Each stream is expected to supply about pageSize / streams items
+        int streamCount = teams.size() * ItemType.values().length;
+        int firstBatch = Math.min(pageSize, Math.max(MIN_BATCH_SIZE, pageSize / streamCount + 1));
+
+        PriorityQueue<FeedStream> heads = new PriorityQueue<>(
+                Comparator.comparing(FeedStream::peek, FEED_ORDER));
+        for (Long teamId : teams.keySet()) {
+            for (ItemType type : ItemType.values()) {
+                FeedStream stream = new FeedStream(teamId, type);
+                if (stream.start(position, firstBatch)) {
+                    heads.add(stream);
+                }
+            }
+        }
+
+        List<FeedEntry> page = new ArrayList<>(pageSize);
+        boolean more = false;
+        while (!heads.isEmpty() && page.size() < pageSize) {
+            FeedStream stream = heads.poll();
+            page.add(stream.next());
+            if (stream.hasBuffered()) {
+                heads.add(stream);
+            } else if (!stream.exhausted) {
+                // Only go back to the database if this page still needs rows
+                if (page.size() < pageSize) {
+                    if (stream.refill(pageSize)) {
+                        heads.add(stream);
+                    }
+                } else {
+                    more = true;
+                }
+            }
+        }
+        more |= !heads.isEmpty();
+
+        String nextCursor = more && !page.isEmpty() ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new FeedPageResponse(toResponses(page, teams), nextCursor);
+    }
+
+    private List<FeedItemResponse> toResponses(List<FeedEntry> page, Map<Long, Team> teams) {
+        List<Long> userIds = page.stream()
+                .filter(entry -> entry.standup() != null)
+                .map(entry -> entry.standup().getUserId())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, String> userNames = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+
+        return page.stream()
+                .map(entry -> new FeedItemResponse(
+                        entry.type().name(),
+                        entry.teamId(),
+                        teams.get(entry.teamId()).getName(),
+                        entry.createdAt(),
+                        entry.standup() != null
+                                ? entityMapper.toStandupResponse(entry.standup(),
+                                        userNames.get(entry.standup().getUserId()))
+                                : null,
+                        entry.summary() != null ? entityMapper.toStandupSummaryResponse(entry.summary()) : null))
+                .collect(Collectors.toList());
+    }
+
+    private static String encodeCursor(FeedEntry entry) {
+        String raw = entry.createdAt() + "|" + entry.type() + "|" + entry.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FeedEntry decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new BadRequestException("Invalid feed cursor");
+            }
+            return new FeedEntry(ItemType.valueOf(parts[1]), Long.parseLong(parts[2]), null,
+                    LocalDateTime.parse(parts[0]), null, null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid feed cursor");
+        }
+    }
+
+    private enum ItemType {
+        STANDUP,
+        SUMMARY
+    }
+
+    private record FeedEntry(ItemType type, Long id, Long teamId, LocalDateTime createdAt, Standup standup,
+            StandupSummary summary) {
+
+        static FeedEntry of(Standup standup) {
+            return new FeedEntry(ItemType.STANDUP, standup.getId(), standup.getTeamId(), standup.getCreatedAt(),
+                    standup, null);
+        }
+
+        static FeedEntry of(StandupSummary summary) {
+            return new FeedEntry(ItemType.SUMMARY, summary.getId(), summary.getTeamId(), summary.getCreatedAt(),
+                    null, summary);
+        }
+    }
+
+    /**
+     * One team's items of one type, newest first, fetched lazily in batches
+     */
+    private final class FeedStream {
+        private final Long teamId;
+        private final int shard;
+        private final ItemType type;
+        private final ArrayDeque<FeedEntry> buffer = new ArrayDeque<>();
+        private FeedEntry last;
+        private boolean exhausted;
+
+        FeedStream(Long teamId, ItemType type) {
+            this.teamId = teamId;
+            this.shard = shardRouter.shardOf(teamId);
+            this.type = type;
+        }
+
+        /**
+         * Load the first batch after the cursor. Returns whether there is anything to read.
+         */
+        boolean start(FeedEntry position, int batchSize) {
+            if (position == null) {
+                PageRequest firstPage = PageRequest.of(0, batchSize);
+                return load(shardRouter.onShard(shard, () -> type == ItemType.STANDUP
+                        ? standupRepository.findByTeamIdOrderByCreatedAtDescIdDesc(teamId, firstPage)
+                                .stream().map(FeedEntry::of).toList()
+                        : standupSummaryRepository.findByTeamIdOrderByCreatedAtDescIdDesc(teamId, firstPage)
+                                .stream().map(FeedEntry::of).toList()),
+                        batchSize);
+            }
+
+            // At the cursor's timestamp, types ordered before the cursor's were
+            // already served in full and types ordered after it not at all
+            int typeOrder = type.compareTo(position.type());
+            long beforeId = typeOrder == 0 ? position.id() : typeOrder < 0 ? 0L : Long.MAX_VALUE;
+            return fetchAfter(position.createdAt(), beforeId, batchSize);
+        }
+
+        boolean refill(int batchSize) {
+            return fetchAfter(last.createdAt(), last.id(), batchSize);
+        }
+
+        FeedEntry peek() {
+            return buffer.peekFirst();
+        }
+
+        FeedEntry next() {
+            last = buffer.pollFirst();
+            return last;
+        }
+
+        boolean hasBuffered() {
+            return !buffer.isEmpty();
+        }
+
+        private boolean fetchAfter(LocalDateTime before, long beforeId, int batchSize) {
+            PageRequest batch = PageRequest.of(0, batchSize);
+            return load(shardRouter.onShard(shard, () -> type == ItemType.STANDUP
+                    ? standupRepository.findFeedPage(teamId, before, beforeId, batch)
+                            .stream().map(FeedEntry::of).toList()
+                    : standupSummaryRepository.findFeedPage(teamId, before, beforeId, batch)
+                            .stream().map(FeedEntry::of).toList()),
+                    batchSize);
+        }
+
+        private boolean load(List<FeedEntry> entries, int batchSize) {
+            buffer.addAll(entries);
+            exhausted = entries.size() < batchSize;
+            return !buffer.isEmpty();
+        }
+    }
+}
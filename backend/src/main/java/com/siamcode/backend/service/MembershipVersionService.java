@@ -0,0 +1,105 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks each user's membership version, the counter that invalidates the
+ * team list embedded in their tokens.
+ *
+ * Versions are cached briefly so checking a token costs a map lookup rather
+ * than a query. Changes evict the entry on commit, here directly and on other
+ * instances through the invalidation bus; the TTL is only a backstop should a
+ * message be lost.
+ */
+@Service
+@RequiredArgsConstructor
+public class MembershipVersionService {
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    @Value("${jwt.membership.version.ttl.ms:30000}")
+    private long versionTtlMs;
+
+    private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a token's membership claim, issued at the given version, still
+     * reflects the user's current memberships
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        long now = System.nanoTime();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || now - cached.loadedAt() > TimeUnit.MILLISECONDS.toNanos(versionTtlMs)) {
+            Long version = userRepository.findMembershipVersion(userId).orElse(null);
+            if (version == null) {
+                return false;
+            }
+            cached = new CachedVersion(version, now);
+            versions.put(userId, cached);
+        }
+        return cached.version() == tokenVersion;
+    }
+
+    /**
+     * Bump the membership version of the given users. Must run inside the
+     * transaction that changes their memberships.
+     */
+    public void membershipChanged(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userRepository.incrementMembershipVersion(userIds);
+
+        List<Long> changed = List.copyOf(userIds);
+        invalidationBus.publish(Topic.MEMBERSHIP_VERSION, changed);
+        // The bulk update bypasses entity callbacks, so cached users are announced here
+        invalidationBus.publish(Topic.USER, changed);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    changed.forEach(versions::remove);
+                }
+            });
+        } else {
+            changed.forEach(versions::remove);
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.topic() != Topic.MEMBERSHIP_VERSION) {
+            return;
+        }
+        if (event.isFlush()) {
+            versions.clear();
+        } else {
+            event.ids().forEach(versions::remove);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.membership.version.ttl.ms:30000}")
+    public void evictExpired() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(versionTtlMs);
+        versions.values().removeIf(cached -> cached.loadedAt() < cutoff);
+    }
+
+    private record CachedVersion(long version, long loadedAt) {
+    }
+}
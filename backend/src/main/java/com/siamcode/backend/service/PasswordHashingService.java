@@ -0,0 +1,175 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.exception.ServiceUnavailableException;
+import com.siamcode.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small dedicated pool so that a burst of logins can only
+ * use a bounded share of the CPU. When the pool and its queue are full,
+ * callers are rejected straight away with a 503 instead of piling up on
+ * request threads.
+ *
+ * The BCrypt cost is calibrated at startup to the highest cost whose hash
+ * time stays under the target latency on this machine. Hashes with a lower
+ * cost are re-hashed in the background after a successful login.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingService {
+
+    // Never go below the BCryptPasswordEncoder default, however slow the host
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${password.hashing.queue.capacity:32}")
+    private int queueCapacity;
+
+    @Value("${password.hashing.timeout.ms:5000}")
+    private long timeoutMs;
+
+    @Value("${password.hashing.target.ms:250}")
+    private long targetMs;
+
+    // Fixed cost; 0 means calibrate at startup
+    @Value("${password.hashing.bcrypt.cost:0}")
+    private int configuredCost;
+
+    private ThreadPoolExecutor hashingExecutor;
+    private BCryptPasswordEncoder encoder;
+    private Timer matchTimer;
+    private Timer encodeTimer;
+    private Counter rejectedCounter;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        hashingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        int cost = configuredCost > 0 ? configuredCost : calibrateCost();
+        encoder = new BCryptPasswordEncoder(cost);
+
+        matchTimer = Timer.builder("auth.password.hash").tag("operation", "matches").register(meterRegistry);
+        encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        rejectedCounter = Counter.builder("auth.password.hash.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", hashingExecutor, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", hashingExecutor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        log.info("Password hashing: BCrypt cost {}, {} threads, queue capacity {}", cost, poolSize, queueCapacity);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchTimer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Re-hash a password that was stored with a lower cost than the current
+     * one. Runs in the background and is skipped when the pool is busy; the
+     * hash is only replaced if the password has not changed in the meantime.
+     */
+    public void upgradeIfNeeded(Long userId, String rawPassword, String encodedPassword) {
+        if (!encoder.upgradeEncoding(encodedPassword)) {
+            return;
+        }
+        try {
+            hashingExecutor.execute(() -> {
+                String upgraded = encodeTimer.record(() -> encoder.encode(rawPassword));
+                if (userRepository.replacePasswordHash(userId, encodedPassword, upgraded) > 0) {
+                    log.debug("Upgraded password hash for user {}", userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Hashing pool busy, postponing password hash upgrade for user {}", userId);
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many sign-in requests right now, please try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many sign-in requests right now, please try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password check was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Pick the highest cost whose hash time stays within the target. Each cost
+     * step doubles the work, so we stop once the next step would overshoot.
+     */
+    private int calibrateCost() {
+        int cost = MIN_COST;
+        while (cost < MAX_COST) {
+            BCryptPasswordEncoder probe = new BCryptPasswordEncoder(cost);
+            probe.encode("calibration"); // warm-up
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsedMs * 2 > targetMs) {
+                break;
+            }
+            cost++;
+        }
+        return cost;
+    }
+}
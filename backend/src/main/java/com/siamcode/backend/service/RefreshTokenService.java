@@ -0,0 +1,126 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.RefreshToken;
+import com.siamcode.backend.exception.UnauthorizedException;
+import com.siamcode.backend.repository.RefreshTokenRepository;
+import com.siamcode.backend.util.SecureTokens;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only a SHA-256 hash of each token
+ * is stored, so a database leak does not hand out usable tokens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.refresh.expiration:2592000000}") // 30 days in milliseconds
+    private long refreshExpirationMs;
+
+    @Value("${jwt.refresh.reuse.grace.ms:10000}")
+    private long reuseGraceMs;
+
+    /**
+     * Start a new token family for a fresh login
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for its successor. Returns the owning user id
+     * and the new raw token. Reusing an already rotated token revokes the whole
+     * family and all of the user's access tokens, except within the grace
+     * period after its rotation while the family is still live: tabs share
+     * the token, and two of them refreshing together is not theft. Those get
+     * a successor of their own.
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(SecureTokens.hash(rawToken))
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getRevokedAt() != null) {
+            if (token.getRotatedAt() != null && !token.getRotatedAt().isBefore(now.minus(Duration.ofMillis(reuseGraceMs)))
+                    && refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNull(token.getFamilyId())) {
+                log.debug("Refresh token of user {} reused {} after rotation, within grace", token.getUserId(),
+                        Duration.between(token.getRotatedAt(), now));
+                return new Rotation(token.getUserId(), issue(token.getUserId(), token.getFamilyId()));
+            }
+            log.warn("Refresh token reuse detected for user {}, revoking token family {}",
+                    token.getUserId(), token.getFamilyId());
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            tokenRevocationService.revokeAllForUser(token.getUserId());
+            throw new UnauthorizedException("Refresh token has been revoked");
+        }
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new UnauthorizedException("Refresh token has expired");
+        }
+
+        // Conditional so that a token is rotated once; a concurrent refresh
+        // that loses is a reuse within grace, as long as the family is live
+        if (refreshTokenRepository.markRotated(token.getId(), now) == 0
+                && !refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNull(token.getFamilyId())) {
+            throw new UnauthorizedException("Refresh token has been revoked");
+        }
+        return new Rotation(token.getUserId(), issue(token.getUserId(), token.getFamilyId()));
+    }
+
+    /**
+     * Revoke the family a refresh token belongs to (logout on one device)
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(SecureTokens.hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Revoke every refresh token of the user (password reset)
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    @Scheduled(cron = "${jwt.refresh.cleanup.cron:0 30 3 * * *}")
+    @Transactional
+    public void removeExpired() {
+        int removed = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Removed {} expired refresh tokens", removed);
+        }
+    }
+
+    private String issue(Long userId, String familyId) {
+        String rawToken = SecureTokens.generate();
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(SecureTokens.hash(rawToken));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plusNanos(refreshExpirationMs * 1_000_000));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    public record Rotation(Long userId, String refreshToken) {
+    }
+}
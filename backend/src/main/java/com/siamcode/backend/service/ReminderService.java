@@ -3,6 +3,7 @@ package com.siamcode.backend.service;
 import com.siamcode.backend.dto.response.ReminderResponse;
 import com.siamcode.backend.entity.Team;
 import com.siamcode.backend.entity.User;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
 import com.siamcode.backend.exception.BadRequestException;
 import com.siamcode.backend.exception.ResourceNotFoundException;
 import com.siamcode.backend.exception.UnauthorizedException;
@@ -13,10 +14,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -27,18 +29,25 @@ public class ReminderService {
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final StandupRepository standupRepository;
+    private final StandupService standupService;
+    private final ShardRouter shardRouter;
+    private final CacheInvalidationBus invalidationBus;
 
     @Value("${frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
     public ReminderService(EmailService emailService, TeamService teamService,
             TeamRepository teamRepository, UserRepository userRepository,
-            StandupRepository standupRepository) {
+            StandupRepository standupRepository, StandupService standupService, ShardRouter shardRouter,
+            CacheInvalidationBus invalidationBus) {
         this.emailService = emailService;
         this.teamService = teamService;
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
         this.standupRepository = standupRepository;
+        this.standupService = standupService;
+        this.shardRouter = shardRouter;
+        this.invalidationBus = invalidationBus;
     }
 
     /**
@@ -59,7 +68,7 @@ public class ReminderService {
         }
 
         // Check if user already submitted standup today
-        LocalDate today = LocalDate.now();
+        LocalDate today = LocalDate.now(teamService.getTeamZone(team));
         if (standupRepository.findByTeamIdAndUserIdAndDate(teamId, targetUserId, today).isPresent()) {
             throw new BadRequestException("User has already submitted their standup today");
         }
@@ -85,17 +94,9 @@ public class ReminderService {
             throw new UnauthorizedException("Only team owners can send reminders");
         }
 
-        // Get all team members
-        List<User> members = teamService.getTeamMemberEntities(teamId);
-
-        // Get today's date
-        LocalDate today = LocalDate.now();
-
         // Find members who haven't submitted standup today
-        List<User> pendingMembers = members.stream()
-                .filter(member -> standupRepository.findByTeamIdAndUserIdAndDate(teamId, member.getId(), today)
-                        .isEmpty())
-                .collect(Collectors.toList());
+        LocalDate today = LocalDate.now(teamService.getTeamZone(team));
+        List<User> pendingMembers = standupService.findMembersWithoutStandup(teamId, today);
 
         if (pendingMembers.isEmpty()) {
             return new ReminderResponse(0, "All team members have already submitted their standups");
@@ -119,51 +120,48 @@ public class ReminderService {
         return new ReminderResponse(emailsSent, message);
     }
 
+    /**
+     * Send the scheduled daily reminder for a team to members who haven't
+     * submitted yet. Runs at most once per team-local day, even when several
+     * instances fire for the same team.
+     */
+    @Transactional
+    public int sendAutomaticReminders(Long teamId) {
+        Team team = teamRepository.findById(teamId).orElse(null);
+        if (team == null || team.isDeleted() || team.getReminderTime() == null) {
+            return 0;
+        }
+
+        LocalDate today = LocalDate.now(teamService.getTeamZone(team));
+        if (teamRepository.claimAutoReminder(teamId, today) == 0) {
+            log.debug("Automatic reminder for team {} already sent on {}", teamId, today);
+            return 0;
+        }
+        // Other instances reschedule the team from its new lastAutoReminderDate
+        invalidationBus.publish(Topic.TEAM, List.of(teamId));
+
+        List<User> pendingMembers = shardRouter.onTeamShard(teamId,
+                () -> standupService.findMembersWithoutStandup(teamId, today));
+        int emailsSent = 0;
+        for (User member : pendingMembers) {
+            try {
+                sendReminderEmail(member, team);
+                emailsSent++;
+            } catch (Exception e) {
+                log.error("Failed to send automatic reminder to {}: {}", member.getEmail(), e.getMessage());
+            }
+        }
+
+        log.info("Automatic reminders for team {} on {}: {} sent", teamId, today, emailsSent);
+        return emailsSent;
+    }
+
     private void sendReminderEmail(User user, Team team) {
         String subject = "📋 Standup Reminder - " + team.getName();
         String submitUrl = frontendUrl + "/teams/" + team.getId() + "?submit=true";
 
-        String htmlContent = """
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; padding: 20px;">
-                    <div style="text-align: center; margin-bottom: 30px;">
-                        <h1 style="color: #14b8a6; margin: 0;">StandUpStrip</h1>
-                    </div>
-
-                    <h2 style="color: #333;">Hi %s! 👋</h2>
-
-                    <p style="color: #555; font-size: 16px; line-height: 1.6;">
-                        This is a friendly reminder that your daily standup for <strong>%s</strong> hasn't been submitted yet.
-                    </p>
-
-                    <p style="color: #555; font-size: 16px; line-height: 1.6;">
-                        Taking a few minutes to share your update helps keep the whole team aligned and informed!
-                    </p>
-
-                    <div style="text-align: center; margin: 30px 0;">
-                        <a href="%s" style="background: #14b8a6; color: white; display: inline-block; padding: 12px 30px; border-radius: 8px; text-decoration: none; font-weight: bold;">
-                            Submit Your Standup
-                        </a>
-                    </div>
-
-                    <p style="color: #888; font-size: 14px;">
-                        What to include in your standup:
-                    </p>
-                    <ul style="color: #666; font-size: 14px;">
-                        <li>What you accomplished yesterday</li>
-                        <li>What you're planning to work on today</li>
-                        <li>Any blockers or challenges</li>
-                    </ul>
-
-                    <hr style="border: none; border-top: 1px solid #eee; margin: 30px 0;" />
-
-                    <p style="color: #999; font-size: 12px; text-align: center;">
-                        Sent by StandUpStrip • Daily standup made simple
-                    </p>
-                </div>
-                """
-                .formatted(user.getName(), team.getName(), submitUrl);
-
-        emailService.sendHtmlEmail(user.getEmail(), subject, htmlContent);
+        emailService.sendTemplatedEmail(user.getEmail(), subject, "standup-reminder",
+                Map.of("userName", user.getName(), "teamName", team.getName(), "submitUrl", submitUrl));
         log.info("Standup reminder sent to {} for team {}", user.getEmail(), team.getName());
     }
 }
@@ -0,0 +1,286 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.config.ShardDataSources;
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.entity.TeamShard;
+import com.siamcode.backend.exception.BadRequestException;
+import com.siamcode.backend.exception.ResourceNotFoundException;
+import com.siamcode.backend.repository.TeamRepository;
+import com.siamcode.backend.repository.TeamShardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves teams between shards while they stay in use.
+ *
+ * 1. The team's rows are copied to the target in batches; reads and writes
+ *    carry on against the source meanwhile.
+ * 2. The team's change sequence row on the source is locked. Standup writes
+ *    update that row and summary writes share-lock it, so from here on the
+ *    team's writes wait. What changed since step 1 started (by change
+ *    sequence for standups and tombstones; summaries and blocker alerts are
+ *    few and copied again) is brought over and the row counts compared.
+ * 3. The directory is switched to the target and the source rows deleted,
+ *    sequence row included, in the same source transaction. The waiting
+ *    writes then find no sequence row and fail with a 503; their retry goes
+ *    to the new shard, which other instances learn about over the
+ *    invalidation bus.
+ *
+ * A failed move leaves the team on its source shard; the partial copy is
+ * cleared by the next attempt.
+ */
+@Service
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ShardMoveService {
+
+    private static final int BATCH_SIZE = 1000;
+    // A move that has not made progress for this long is taken to have died
+    private static final Duration STALE_MOVE = Duration.ofMinutes(10);
+
+    private static final String SEQUENCES = "team_standup_sequences";
+    // Copied from scratch while the team's writes wait
+    private static final List<String> SMALL_TABLES = List.of("standup_summaries", "weekly_summaries",
+            "blocker_alerts");
+
+    private final ShardDataSources shards;
+    private final ShardRouter shardRouter;
+    private final TeamShardRepository teamShardRepository;
+    private final TeamRepository teamRepository;
+    private final StandupPartitionService standupPartitionService;
+
+    public record TeamMove(Long teamId, int fromShard, int toShard, long rows) {
+    }
+
+    public TeamMove moveTeam(Long teamId, int target) {
+        if (target < 0 || target >= shards.getShardCount()) {
+            throw new BadRequestException("No shard " + target + "; shards are 0 to " + (shards.getShardCount() - 1));
+        }
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team not found with id: " + teamId);
+        }
+
+        int source = claim(teamId);
+        if (source == target) {
+            teamShardRepository.releaseMove(teamId, LocalDateTime.now());
+            return new TeamMove(teamId, source, target, 0);
+        }
+
+        boolean switched = false;
+        try {
+            JdbcTemplate from = new JdbcTemplate(shards.getShard(source));
+            JdbcTemplate to = new JdbcTemplate(shards.getShard(target));
+            log.info("Moving team {} from shard {} to shard {}", teamId, source, target);
+
+            // Leftovers of an earlier attempt
+            deleteTeamRows(to, teamId);
+
+            LocalDate oldest = from.queryForObject("SELECT MIN(date) FROM standups WHERE team_id = ?",
+                    LocalDate.class, teamId);
+            if (oldest != null) {
+                standupPartitionService.ensurePartitions(shards.getShard(target), oldest);
+            }
+
+            long copiedUpTo = startSequence(from, teamId);
+            long rows = copyInBatches(from, to, "standups", teamId)
+                    + copyInBatches(from, to, "standup_tombstones", teamId);
+
+            long[] movedRows = new long[1];
+            new TransactionTemplate(new DataSourceTransactionManager(shards.getShard(source)))
+                    .executeWithoutResult(status -> {
+                        movedRows[0] = catchUp(from, to, teamId, copiedUpTo);
+                        teamShardRepository.finishMove(teamId, target, LocalDateTime.now());
+                        deleteTeamRows(from, teamId);
+                    });
+            switched = true;
+            shardRouter.moved(teamId, target);
+
+            log.info("Moved team {} from shard {} to shard {} ({} rows)", teamId, source, target,
+                    rows + movedRows[0]);
+            return new TeamMove(teamId, source, target, rows + movedRows[0]);
+        } catch (RuntimeException e) {
+            if (!switched) {
+                // The source transaction rolled back, so the source still has everything
+                teamShardRepository.finishMove(teamId, source, LocalDateTime.now());
+            }
+            log.error("Moving team {} from shard {} to shard {} failed: {}", teamId, source, target,
+                    e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Move up to limit teams that are not on the shard the ring places them
+     * on, e.g. after adding a shard. Returns the moves made.
+     */
+    public List<TeamMove> rebalance(int limit) {
+        Map<Long, Integer> directory = teamShardRepository.findAll().stream()
+                .collect(Collectors.toMap(TeamShard::getTeamId, TeamShard::getShardId));
+        List<TeamMove> moves = new ArrayList<>();
+        for (Team team : teamRepository.findByDeletedFalse()) {
+            if (moves.size() >= limit) {
+                break;
+            }
+            int home = shardRouter.homeShard(team.getId());
+            if (directory.getOrDefault(team.getId(), 0) != home) {
+                moves.add(moveTeam(team.getId(), home));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Mark the team as moving and return the shard it is on
+     */
+    private int claim(Long teamId) {
+        if (!teamShardRepository.existsById(teamId)) {
+            try {
+                // Teams from before sharding have no entry and are on shard 0
+                teamShardRepository.save(new TeamShard(teamId, 0, false, LocalDateTime.now()));
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently
+            }
+        }
+        int source = teamShardRepository.findShardId(teamId);
+        LocalDateTime now = LocalDateTime.now();
+        if (teamShardRepository.claimMove(teamId, source, now, now.minus(STALE_MOVE)) == 0) {
+            throw new BadRequestException("Team " + teamId + " is already being moved");
+        }
+        return source;
+    }
+
+    /**
+     * The team's change sequence before anything is copied; later changes are
+     * caught up under the lock. Creates the row for teams that never had one.
+     */
+    private long startSequence(JdbcTemplate from, Long teamId) {
+        List<Long> seq = from.queryForList("SELECT change_seq FROM " + SEQUENCES + " WHERE team_id = ?",
+                Long.class, teamId);
+        if (!seq.isEmpty()) {
+            return seq.get(0);
+        }
+        try {
+            from.update("INSERT INTO " + SEQUENCES + " (team_id, change_seq, tombstone_horizon) VALUES (?, 0, 0)",
+                    teamId);
+            return 0;
+        } catch (DataIntegrityViolationException e) {
+            // A standup write created it meanwhile
+            return startSequence(from, teamId);
+        }
+    }
+
+    private long copyInBatches(JdbcTemplate from, JdbcTemplate to, String table, Long teamId) {
+        long copied = 0;
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> batch = from.queryForList(
+                    "SELECT * FROM " + table + " WHERE team_id = ? AND id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    teamId, lastId);
+            insert(to, table, batch);
+            copied += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                return copied;
+            }
+            lastId = ((Number) batch.get(batch.size() - 1).get("id")).longValue();
+            teamShardRepository.refreshMove(teamId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Runs in the source transaction, with the team's writes held off by the
+     * sequence row lock. Returns the number of rows copied.
+     */
+    private long catchUp(JdbcTemplate from, JdbcTemplate to, Long teamId, long copiedUpTo) {
+        from.queryForObject("SELECT change_seq FROM " + SEQUENCES + " WHERE team_id = ? FOR UPDATE", Long.class,
+                teamId);
+        long rows = 0;
+
+        // Standups changed since the bulk copy started replace their copies
+        List<Map<String, Object>> changed = from.queryForList(
+                "SELECT * FROM standups WHERE team_id = ? AND change_seq > ?", teamId, copiedUpTo);
+        deleteByIds(to, "standups", "id", changed);
+        insert(to, "standups", changed);
+        rows += changed.size();
+
+        // So do tombstones, and the standups they mark as deleted go
+        List<Map<String, Object>> deleted = from.queryForList(
+                "SELECT * FROM standup_tombstones WHERE team_id = ? AND change_seq > ?", teamId, copiedUpTo);
+        deleteByIds(to, "standup_tombstones", "id", deleted);
+        deleteByIds(to, "standups", "standup_id", deleted);
+        insert(to, "standup_tombstones", deleted);
+        rows += deleted.size();
+
+        for (String table : SMALL_TABLES) {
+            to.update("DELETE FROM " + table + " WHERE team_id = ?", teamId);
+            List<Map<String, Object>> all = from.queryForList("SELECT * FROM " + table + " WHERE team_id = ?",
+                    teamId);
+            insert(to, table, all);
+            rows += all.size();
+        }
+
+        List<Map<String, Object>> sequence = from.queryForList("SELECT * FROM " + SEQUENCES + " WHERE team_id = ?",
+                teamId);
+        insert(to, SEQUENCES, sequence);
+
+        for (String table : List.of("standups", "standup_tombstones")) {
+            String count = "SELECT COUNT(*) FROM " + table + " WHERE team_id = ?";
+            Long sourceRows = from.queryForObject(count, Long.class, teamId);
+            Long targetRows = to.queryForObject(count, Long.class, teamId);
+            if (!sourceRows.equals(targetRows)) {
+                throw new IllegalStateException(String.format("Copy of %s for team %d has %d rows, source has %d",
+                        table, teamId, targetRows, sourceRows));
+            }
+        }
+        return rows;
+    }
+
+    private static void deleteTeamRows(JdbcTemplate jdbcTemplate, Long teamId) {
+        for (String table : List.of("standups", "standup_tombstones", "standup_summaries", "weekly_summaries",
+                "blocker_alerts", SEQUENCES)) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE team_id = ?", teamId);
+        }
+    }
+
+    /**
+     * Delete the rows of table whose id is the given column of one of the rows
+     */
+    private static void deleteByIds(JdbcTemplate jdbcTemplate, String table, String column,
+            List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM " + table + " WHERE id = ?",
+                rows.stream().map(row -> new Object[] { row.get(column) }).collect(Collectors.toList()));
+    }
+
+    /**
+     * Insert rows as read, ids included (ids are unique across shards)
+     */
+    private static void insert(JdbcTemplate jdbcTemplate, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        jdbcTemplate.batchUpdate(sql, rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList()));
+    }
+}
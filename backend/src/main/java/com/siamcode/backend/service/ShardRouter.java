@@ -0,0 +1,213 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.config.ShardContext;
+import com.siamcode.backend.config.ShardDataSources;
+import com.siamcode.backend.config.ShardTransactional;
+import com.siamcode.backend.entity.TeamShard;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.exception.ServiceUnavailableException;
+import com.siamcode.backend.repository.TeamShardRepository;
+import com.siamcode.backend.util.ConsistentHashRing;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard holds a team's standups and summaries. New teams are
+ * placed by consistent hashing of their id and the choice is written to the
+ * team_shards directory, which stays authoritative: adding a shard never
+ * moves existing teams by itself, it only changes where the ring would put
+ * them (see ShardMoveService for moving them). Teams without a directory
+ * entry predate sharding and are on shard 0.
+ *
+ * Directory entries are cached; moves are announced on the invalidation bus.
+ * Without sharding everything is on shard 0 and nothing is looked up.
+ */
+@Service
+public class ShardRouter {
+
+    private static final int DIRECTORY_CACHE_SIZE = 100000;
+
+    private final TeamShardRepository teamShardRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate shardTransactions;
+    private final boolean enabled;
+    private final int shardCount;
+    private final ConsistentHashRing ring;
+
+    private final Map<Long, Integer> directory = new ConcurrentHashMap<>();
+
+    public ShardRouter(TeamShardRepository teamShardRepository, CacheInvalidationBus invalidationBus,
+            @Qualifier(ShardTransactional.TRANSACTION_MANAGER) PlatformTransactionManager shardTransactionManager,
+            ObjectProvider<ShardDataSources> shardDataSources,
+            @Value("${sharding.ring.virtual.nodes:128}") int virtualNodes) {
+        this.teamShardRepository = teamShardRepository;
+        this.invalidationBus = invalidationBus;
+        this.shardTransactions = new TransactionTemplate(shardTransactionManager);
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        this.enabled = shards != null;
+        this.shardCount = shards != null ? shards.getShardCount() : 1;
+        this.ring = new ConsistentHashRing(shardCount, virtualNodes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Shard holding the team's data
+     */
+    public int shardOf(Long teamId) {
+        if (!enabled) {
+            return 0;
+        }
+        Integer shard = directory.get(teamId);
+        if (shard == null) {
+            shard = lookupShard(teamId);
+            if (directory.size() >= DIRECTORY_CACHE_SIZE) {
+                directory.clear();
+            }
+            directory.put(teamId, shard);
+        }
+        return shard;
+    }
+
+    /**
+     * Shard the ring places the team on, which is where it would go if it
+     * were created now
+     */
+    public int homeShard(Long teamId) {
+        return ring.nodeFor(teamId);
+    }
+
+    /**
+     * Place a new team. Joins the caller's transaction, so the directory entry
+     * commits with the team.
+     */
+    public int assignShard(Long teamId) {
+        if (!enabled) {
+            return 0;
+        }
+        int shard = homeShard(teamId);
+        teamShardRepository.save(new TeamShard(teamId, shard, false, LocalDateTime.now()));
+        directory.put(teamId, shard);
+        return shard;
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        try {
+            return ShardContext.call(shard, work::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void runOnShard(int shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T onTeamShard(Long teamId, Supplier<T> work) {
+        return onShard(shardOf(teamId), work);
+    }
+
+    /**
+     * Run the work on every shard in turn and collect the results, shard 0 first
+     */
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.add(onShard(shard, work));
+        }
+        return results;
+    }
+
+    /**
+     * Run the work in a transaction on the given shard
+     */
+    public void inShardTransaction(int shard, Runnable work) {
+        runOnShard(shard, () -> shardTransactions.executeWithoutResult(status -> work.run()));
+    }
+
+    /**
+     * Run the work in a transaction on the given shard and return its result
+     */
+    public <T> T onShardInTransaction(int shard, Supplier<T> work) {
+        return onShard(shard, () -> shardTransactions.execute(status -> work.get()));
+    }
+
+    /**
+     * First shard on which the check succeeds, for rows addressed by id alone
+     * (ids are unique across shards). Shard 0 if none does.
+     */
+    public int locate(BooleanSupplier presentOnShard) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (onShard(shard, presentOnShard::getAsBoolean)) {
+                return shard;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Fail a write whose team moved off the bound shard after the request was
+     * routed; the retry goes to the new shard
+     */
+    public void ensureTeamOnBoundShard(Long teamId) {
+        Integer bound = ShardContext.current();
+        if (!enabled || bound == null) {
+            return;
+        }
+        int actual = lookupShard(teamId);
+        if (actual != bound) {
+            directory.put(teamId, actual);
+            throw new ServiceUnavailableException("This team was just moved, please try again");
+        }
+    }
+
+    /**
+     * Record that a team now lives on another shard, here and on other instances
+     */
+    void moved(Long teamId, int shard) {
+        directory.put(teamId, shard);
+        invalidationBus.publish(Topic.TEAM_SHARD, List.of(teamId));
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.topic() != Topic.TEAM_SHARD) {
+            return;
+        }
+        if (event.isFlush()) {
+            directory.clear();
+        } else {
+            event.ids().forEach(directory::remove);
+        }
+    }
+
+    private int lookupShard(Long teamId) {
+        Integer shard = teamShardRepository.findShardId(teamId);
+        return shard != null ? shard : 0;
+    }
+}
@@ -0,0 +1,232 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Standups of months past the retention period, moved out of the database
+ * by StandupPartitionService. Each month of each shard is a gzipped file of
+ * JSON lines, standups-YYYY-MM.sN.jsonl.gz, in standups.archive.dir; with
+ * several instances that directory must be shared. Files are never
+ * replaced: archiving the same month again (a team moved in after it was
+ * archived) adds a file, and a standup found in several is read once.
+ *
+ * Archived standups are read-only. Reads scan the files of the months asked
+ * for, which is slow next to the database but only old history gets here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandupArchive {
+
+    private static final Pattern FILE_NAME = Pattern.compile("standups-(\\d{4}-\\d{2})\\.s\\d+(-\\d+)?\\.jsonl\\.gz");
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${standups.archive.dir:data/standup-archive}")
+    private String archiveDir;
+
+    private final NavigableSet<YearMonth> archivedMonths = new ConcurrentSkipListSet<>();
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    /**
+     * Pick up months archived by other instances
+     */
+    public void refresh() {
+        Path dir = Paths.get(archiveDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "standups-*.jsonl.gz")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    archivedMonths.add(YearMonth.parse(matcher.group(1)));
+                }
+            }
+        } catch (IOException | DateTimeParseException e) {
+            log.warn("Could not list the standup archive in {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * Another instance archived a month and dropped its partition
+     */
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.topic() == Topic.STANDUP_ARCHIVE) {
+            refresh();
+        }
+    }
+
+    /**
+     * Whether any month from start to end (inclusive) is archived
+     */
+    public boolean covers(LocalDate start, LocalDate end) {
+        YearMonth first = archivedMonths.ceiling(YearMonth.from(start));
+        return first != null && !first.isAfter(YearMonth.from(end));
+    }
+
+    /**
+     * A team's archived standups dated start to end (inclusive), across shards
+     */
+    public List<Standup> read(Long teamId, LocalDate start, LocalDate end) {
+        List<Standup> standups = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (YearMonth month : archivedMonths.subSet(YearMonth.from(start), true, YearMonth.from(end), true)) {
+            for (Path file : filesOf(month)) {
+                readFile(file, standup -> {
+                    if (standup.getTeamId().equals(teamId) && !standup.getDate().isBefore(start)
+                            && !standup.getDate().isAfter(end) && seen.add(standup.getId())) {
+                        standups.add(standup);
+                    }
+                });
+            }
+        }
+        return standups;
+    }
+
+    /**
+     * Start writing a month of one shard. The file only appears once
+     * committed; an uncommitted writer leaves nothing behind when closed.
+     */
+    public Writer open(YearMonth month, int shard) {
+        try {
+            Path dir = Files.createDirectories(Paths.get(archiveDir));
+            String name = "standups-" + month + ".s" + shard;
+            Path target = dir.resolve(name + ".jsonl.gz");
+            for (int copy = 1; Files.exists(target); copy++) {
+                target = dir.resolve(name + "-" + copy + ".jsonl.gz");
+            }
+            return new Writer(month, target, Files.createTempFile(dir, target.getFileName().toString(), ".tmp"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public class Writer implements Closeable {
+
+        private final YearMonth month;
+        private final Path target;
+        private final Path temp;
+        private final BufferedWriter out;
+        private long count;
+        private boolean committed;
+
+        private Writer(YearMonth month, Path target, Path temp) throws IOException {
+            this.month = month;
+            this.target = target;
+            this.temp = temp;
+            this.out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8));
+        }
+
+        public void write(Standup standup) {
+            try {
+                out.write(objectMapper.writeValueAsString(standup));
+                out.newLine();
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Finish the file and put it in place
+         */
+        public void commit() {
+            try {
+                out.close();
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                committed = true;
+                archivedMonths.add(month);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (committed) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Being thrown away anyway
+            }
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("Could not delete {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+
+    private List<Path> filesOf(YearMonth month) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(archiveDir),
+                "standups-" + month + ".s*.jsonl.gz")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private void readFile(Path file, Consumer<Standup> consumer) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                consumer.accept(objectMapper.readValue(line, Standup.class));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
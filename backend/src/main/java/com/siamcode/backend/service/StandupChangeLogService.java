@@ -0,0 +1,189 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.config.ShardTransactional;
+import com.siamcode.backend.dto.response.StandupChangesResponse;
+import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.StandupTombstone;
+import com.siamcode.backend.entity.TeamStandupSequence;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.repository.StandupTombstoneRepository;
+import com.siamcode.backend.repository.TeamStandupSequenceRepository;
+import com.siamcode.backend.repository.UserRepository;
+import com.siamcode.backend.util.EntityMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Per-team change sequence for standups, used for delta sync. Every create,
+ * update and delete takes the team's next sequence number; deletions leave a
+ * tombstone carrying theirs. A client that remembers the last sequence it saw
+ * only downloads what changed after it.
+ *
+ * Tombstones older than the retention period are purged and the team's
+ * horizon raised to the highest purged sequence. A client asking for changes
+ * from before the horizon may have missed deletions and is told to reload.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandupChangeLogService {
+
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 1000;
+
+    private final TeamStandupSequenceRepository sequenceRepository;
+    private final StandupRepository standupRepository;
+    private final StandupTombstoneRepository tombstoneRepository;
+    private final UserRepository userRepository;
+    private final EntityMapper entityMapper;
+    private final ShardRouter shardRouter;
+
+    @Value("${standups.tombstones.retention.days:30}")
+    private int retentionDays;
+
+    /**
+     * Next change sequence for the team. Must run inside the transaction that
+     * makes the change: the sequence row stays locked until it commits.
+     */
+    long nextChangeSeq(Long teamId) {
+        if (sequenceRepository.increment(teamId) == 0) {
+            // A team moved to another shard leaves no row behind
+            shardRouter.ensureTeamOnBoundShard(teamId);
+            // Teams get their row on creation; this covers ones that predate it
+            sequenceRepository.saveAndFlush(new TeamStandupSequence(teamId, 1, 0));
+            return 1;
+        }
+        return sequenceRepository.findChangeSeq(teamId);
+    }
+
+    /**
+     * Start a new team's change sequence
+     */
+    void createSequence(Long teamId) {
+        sequenceRepository.save(new TeamStandupSequence(teamId, 0, 0));
+    }
+
+    /**
+     * Keep the team from being moved to another shard until the caller's
+     * transaction ends. For writes that take no change sequence, which
+     * already holds the row.
+     */
+    void lockForWrite(Long teamId) {
+        if (shardRouter.isEnabled() && sequenceRepository.lockForShare(teamId).isEmpty()) {
+            shardRouter.ensureTeamOnBoundShard(teamId);
+        }
+    }
+
+    void recordDeletion(Standup standup) {
+        StandupTombstone tombstone = new StandupTombstone();
+        tombstone.setTeamId(standup.getTeamId());
+        tombstone.setStandupId(standup.getId());
+        tombstone.setDate(standup.getDate());
+        tombstone.setChangeSeq(nextChangeSeq(standup.getTeamId()));
+        tombstone.setDeletedAt(LocalDateTime.now());
+        tombstoneRepository.save(tombstone);
+    }
+
+    /**
+     * The team's latest change sequence, 0 before its first change
+     */
+    @ShardTransactional(readOnly = true)
+    public long getHead(Long teamId) {
+        Long head = sequenceRepository.findChangeSeq(teamId);
+        return head != null ? head : 0;
+    }
+
+    /**
+     * Changes after the given sequence, oldest first, without the membership
+     * check (the caller must already have done it)
+     */
+    @ShardTransactional(readOnly = true)
+    public StandupChangesResponse getChangesSince(Long teamId, long since, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        // Read the head first: changes up to it are committed and visible
+        Long head = sequenceRepository.findChangeSeq(teamId);
+        if (head == null) {
+            // No standup of this team has changed yet
+            return new StandupChangesResponse(List.of(), List.of(), since, false, false);
+        }
+        long latest = head;
+        if (since > 0 && since < sequenceRepository.findTombstoneHorizon(teamId)) {
+            return new StandupChangesResponse(List.of(), List.of(), latest, false, true);
+        }
+
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Standup> changed = standupRepository.findChangedSince(teamId, since, latest, page);
+        List<StandupTombstone> deleted = tombstoneRepository.findChangedSince(teamId, since, latest, page);
+
+        // Merge both logs by sequence and cut at the page size
+        List<Standup> upserts = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        long lastSeq = since;
+        while (upserts.size() + deletedIds.size() < pageSize && (i < changed.size() || j < deleted.size())) {
+            boolean takeUpsert = j >= deleted.size()
+                    || (i < changed.size() && changed.get(i).getChangeSeq() < deleted.get(j).getChangeSeq());
+            if (takeUpsert) {
+                lastSeq = changed.get(i).getChangeSeq();
+                upserts.add(changed.get(i++));
+            } else {
+                lastSeq = deleted.get(j).getChangeSeq();
+                deletedIds.add(deleted.get(j++).getStandupId());
+            }
+        }
+        boolean hasMore = i < changed.size() || j < deleted.size();
+
+        return new StandupChangesResponse(toResponses(upserts), deletedIds, hasMore ? lastSeq : latest, hasMore,
+                false);
+    }
+
+    private List<StandupResponse> toResponses(List<Standup> standups) {
+        List<Long> userIds = standups.stream().map(Standup::getUserId).distinct().collect(Collectors.toList());
+        Map<Long, String> userNames = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+        return standups.stream()
+                .map(standup -> entityMapper.toStandupResponse(standup, userNames.get(standup.getUserId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Purge tombstones past the retention period, raising each affected
+     * team's horizon first so stale clients are told to reload. Each shard
+     * is compacted in its own transaction.
+     */
+    @Scheduled(fixedDelayString = "${standups.tombstones.compact.ms:3600000}")
+    public void compactTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.inShardTransaction(shard, () -> compactTombstones(cutoff));
+        }
+    }
+
+    private void compactTombstones(LocalDateTime cutoff) {
+        List<Object[]> horizons = tombstoneRepository.findPurgeHorizons(cutoff);
+        if (horizons.isEmpty()) {
+            return;
+        }
+
+        for (Object[] row : horizons) {
+            sequenceRepository.raiseTombstoneHorizon((Long) row[0], (Long) row[1]);
+        }
+        int purged = tombstoneRepository.deleteByDeletedAtBefore(cutoff);
+        log.info("Purged {} standup tombstones older than {} days across {} teams", purged, retentionDays,
+                horizons.size());
+    }
+}
@@ -0,0 +1,350 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.config.ShardDataSources;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the standups table partitioned by month on PostgreSQL, so queries
+ * for a date or date range only touch the partitions of those months and
+ * the indexes of each stay small.
+ *
+ * An unpartitioned table is converted once, and only with
+ * standups.partitions.convert set: its rows are copied into a table
+ * partitioned by date, holding an exclusive lock that blocks all standup
+ * reads and writes meanwhile. Turn it on for one instance in a quiet hour,
+ * not for a rolling deploy. Until then the table is left as it is. Then,
+ * daily:
+ * - partitions are created standups.partitions.months.ahead months ahead,
+ *   as tables of their own attached afterwards, which never blocks queries;
+ * - with standups.archive.retention.months set, months that are older are
+ *   written to the StandupArchive and their partitions dropped. This also
+ *   caps the partitions that lookups by id have to probe.
+ *
+ * Each shard is maintained on its own; instances take turns through an
+ * advisory lock. Other instances learn of archived months on the
+ * invalidation bus, and list the archive again after their own run in case
+ * they missed it. Does nothing on other databases.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandupPartitionService {
+
+    private static final String TABLE = "standups";
+    private static final Pattern PARTITION = Pattern.compile("standups_p(\\d{4})(\\d{2})");
+    // Advisory lock held by the instance maintaining a database
+    private static final long MAINTENANCE_LOCK = 0x5374616e64757073L;
+    // The heatmap covers a year; it and recent summaries stay in the database
+    private static final int MIN_RETENTION_MONTHS = 13;
+    private static final RowMapper<Standup> STANDUP_ROWS = BeanPropertyRowMapper.newInstance(Standup.class);
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+    private final StandupArchive standupArchive;
+    private final CacheInvalidationBus invalidationBus;
+
+    @Value("${standups.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${standups.partitions.convert:false}")
+    private boolean convert;
+
+    @Value("${standups.partitions.months.ahead:3}")
+    private int monthsAhead;
+
+    @Value("${standups.archive.retention.months:0}")
+    private int retentionMonths;
+
+    @Value("${standups.partitions.lock.timeout.ms:5000}")
+    private long lockTimeoutMs;
+
+    @PostConstruct
+    void init() {
+        if (retentionMonths > 0 && retentionMonths < MIN_RETENTION_MONTHS) {
+            log.warn("standups.archive.retention.months={} is below {}, using {}", retentionMonths,
+                    MIN_RETENTION_MONTHS, MIN_RETENTION_MONTHS);
+            retentionMonths = MIN_RETENTION_MONTHS;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${standups.partitions.maintenance.cron:0 15 2 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        for (int shard = 0; shard < shardCount; shard++) {
+            DataSource database = shards != null ? shards.getShard(shard) : dataSource;
+            try {
+                maintain(database, shard, shards != null);
+            } catch (RuntimeException e) {
+                log.error("Standup partition maintenance of shard {} failed: {}", shard, e.getMessage());
+            }
+        }
+        standupArchive.refresh();
+    }
+
+    private void maintain(DataSource database, int shard, boolean sharded) {
+        if (!isPostgres(database)) {
+            log.debug("Standups are only partitioned on PostgreSQL");
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(database));
+
+        YearMonth now = YearMonth.now();
+        boolean partitioned = Boolean.TRUE.equals(transaction.execute(status -> {
+            if (!lock(jdbcTemplate)) {
+                return false;
+            }
+            String kind = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE((SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)), '')",
+                    String.class, TABLE);
+            if (kind.isEmpty()) {
+                return false;
+            }
+            if (!kind.equals("p")) {
+                if (!convert) {
+                    log.info("The standups table of shard {} is not partitioned; set "
+                            + "standups.partitions.convert=true on one instance to convert it", shard);
+                    return false;
+                }
+                convert(jdbcTemplate, shard, sharded);
+            }
+            createPartitions(jdbcTemplate, now, now.plusMonths(monthsAhead));
+            return true;
+        }));
+
+        if (partitioned && retentionMonths > 0) {
+            YearMonth horizon = now.minusMonths(retentionMonths);
+            for (Map.Entry<YearMonth, String> partition : partitions(jdbcTemplate).entrySet()) {
+                if (partition.getKey().isBefore(horizon)) {
+                    archive(database, jdbcTemplate, shard, partition.getKey(), partition.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the plain table with a partitioned one holding the same rows,
+     * indexes, foreign keys and id sequence. Runs in the caller's transaction,
+     * whose lock_timeout bounds the wait for the table lock: if other sessions
+     * hold it longer, the conversion fails and is retried on the next run.
+     *
+     * With sharding the foreign keys to teams and users are dropped: those
+     * tables are only on the primary, so the keys could hold on shard 0 alone,
+     * and moving a team there would then depend on rows the other shards
+     * never checked. Users and teams are never deleted outright (teams are
+     * soft-deleted), so no cascade is lost.
+     */
+    private void convert(JdbcTemplate jdbcTemplate, int shard, boolean sharded) {
+        log.info("Partitioning the standups table of shard {} by month", shard);
+        jdbcTemplate.execute("LOCK TABLE standups IN ACCESS EXCLUSIVE MODE");
+
+        Long nextId = jdbcTemplate.queryForObject("SELECT nextval(pg_get_serial_sequence(?, 'id'))", Long.class,
+                TABLE);
+        // Partitioned tables need the partition key in their primary key, so
+        // (id, date) replaces id; the other indexes are recreated as they are
+        List<String> indexes = jdbcTemplate.queryForList("SELECT indexdef FROM pg_indexes "
+                + "WHERE schemaname = current_schema() AND tablename = ? AND indexname NOT IN "
+                + "(SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'p')",
+                String.class, TABLE, TABLE);
+        List<String> foreignKeys = jdbcTemplate.queryForList("SELECT 'ALTER TABLE standups ADD CONSTRAINT ' "
+                + "|| quote_ident(conname) || ' ' || pg_get_constraintdef(oid) FROM pg_constraint "
+                + "WHERE conrelid = to_regclass(?) AND contype = 'f'", String.class, TABLE);
+        if (sharded && !foreignKeys.isEmpty()) {
+            log.info("Dropping the foreign keys of the standups table of shard {}, as it is sharded", shard);
+            foreignKeys = List.of();
+        }
+
+        jdbcTemplate.execute("ALTER TABLE standups RENAME TO standups_unpartitioned");
+        jdbcTemplate.execute("CREATE TABLE standups (LIKE standups_unpartitioned INCLUDING DEFAULTS) "
+                + "PARTITION BY RANGE (date)");
+        // A serial id's default names the old table's sequence, which goes with it
+        jdbcTemplate.execute("ALTER TABLE standups ALTER COLUMN id DROP DEFAULT");
+
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(date) AS first, MAX(date) AS last FROM standups_unpartitioned");
+        YearMonth now = YearMonth.now();
+        YearMonth first = range.get("first") != null ? YearMonth.from(toLocalDate(range.get("first"))) : now;
+        YearMonth last = range.get("last") != null ? YearMonth.from(toLocalDate(range.get("last"))) : now;
+        createPartitions(jdbcTemplate, first.isBefore(now) ? first : now, last.isAfter(now) ? last : now);
+
+        int rows = jdbcTemplate.update("INSERT INTO standups SELECT * FROM standups_unpartitioned");
+        jdbcTemplate.execute("DROP TABLE standups_unpartitioned");
+
+        jdbcTemplate.execute("ALTER TABLE standups ADD PRIMARY KEY (id, date)");
+        indexes.forEach(jdbcTemplate::execute);
+        foreignKeys.forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("CREATE SEQUENCE standups_id_seq OWNED BY standups.id");
+        jdbcTemplate.execute("ALTER TABLE standups ALTER COLUMN id SET DEFAULT nextval('standups_id_seq')");
+        jdbcTemplate.queryForObject("SELECT setval('standups_id_seq', ?, false)", Long.class, nextId);
+        log.info("Partitioned {} standups of shard {}", rows, shard);
+    }
+
+    /**
+     * Make sure a database has partitions for standups dated from the given
+     * day on, before standups are copied into it (a team moving to another
+     * shard may bring months older than the shard's partitions)
+     */
+    public void ensurePartitions(DataSource database, LocalDate from) {
+        if (!enabled || !isPostgres(database)) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        new TransactionTemplate(new DataSourceTransactionManager(database)).executeWithoutResult(status -> {
+            if (partitions(jdbcTemplate).isEmpty()) {
+                return;
+            }
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+            createPartitions(jdbcTemplate, YearMonth.from(from), YearMonth.now());
+        });
+    }
+
+    /**
+     * Create the missing partitions for the months from first to last. Each
+     * is created on its own and then attached, which unlike creating it as a
+     * partition does not lock out queries on the table.
+     */
+    private void createPartitions(JdbcTemplate jdbcTemplate, YearMonth first, YearMonth last) {
+        int created = 0;
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            String name = partitionName(month);
+            Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+            if (Boolean.TRUE.equals(exists)) {
+                continue;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE standups INCLUDING DEFAULTS)");
+            jdbcTemplate.execute("ALTER TABLE standups ATTACH PARTITION " + name + " FOR VALUES FROM ('"
+                    + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            created++;
+        }
+        if (created > 0) {
+            log.info("Created {} standup partitions for {} to {}", created, first, last);
+        }
+    }
+
+    /**
+     * Write a month to the archive, then drop its partition. Standups of the
+     * month can still be edited or deleted while it is written, so the drop
+     * only happens if the partition still matches what was written.
+     */
+    private void archive(DataSource database, JdbcTemplate jdbcTemplate, int shard, YearMonth month,
+            String partition) {
+        String checksumQuery = "SELECT COUNT(*) || '/' || COALESCE(SUM(version), 0) FROM " + partition;
+        TransactionTemplate snapshot = new TransactionTemplate(new DataSourceTransactionManager(database));
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        JdbcTemplate streaming = new JdbcTemplate(database);
+        streaming.setFetchSize(1000);
+
+        try (StandupArchive.Writer writer = standupArchive.open(month, shard)) {
+            RowCallbackHandler toArchive = rs -> writer.write(STANDUP_ROWS.mapRow(rs, 0));
+            String written = snapshot.execute(status -> {
+                streaming.query("SELECT * FROM " + partition + " ORDER BY id", toArchive);
+                return jdbcTemplate.queryForObject(checksumQuery, String.class);
+            });
+
+            TransactionTemplate drop = new TransactionTemplate(new DataSourceTransactionManager(database));
+            drop.executeWithoutResult(status -> {
+                if (!lock(jdbcTemplate)) {
+                    return;
+                }
+                // Holds off edits of the month until the partition is gone
+                jdbcTemplate.execute("LOCK TABLE " + partition + " IN SHARE MODE");
+                if (!jdbcTemplate.queryForObject(checksumQuery, String.class).equals(written)) {
+                    log.info("Standups of {} changed while being archived, trying again next time", month);
+                    return;
+                }
+                if (writer.getCount() > 0) {
+                    writer.commit();
+                }
+                jdbcTemplate.execute("ALTER TABLE standups DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                invalidationBus.publish(Topic.STANDUP_ARCHIVE,
+                        List.of(month.getYear() * 100L + month.getMonthValue()));
+                log.info("Archived {} standups of {} on shard {}", writer.getCount(), month, shard);
+            });
+        }
+    }
+
+    /**
+     * Partitions of the standups table by month, oldest first
+     */
+    private Map<YearMonth, String> partitions(JdbcTemplate jdbcTemplate) {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname::text FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+        return names.stream()
+                .map(PARTITION::matcher)
+                .filter(Matcher::matches)
+                .collect(Collectors.toMap(
+                        matcher -> YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))),
+                        Matcher::group,
+                        (first, second) -> first,
+                        TreeMap::new));
+    }
+
+    /**
+     * Take the maintenance lock for the current transaction and bound how
+     * long DDL may wait for other sessions' locks
+     */
+    private boolean lock(JdbcTemplate jdbcTemplate) {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                MAINTENANCE_LOCK);
+        if (!Boolean.TRUE.equals(locked)) {
+            return false;
+        }
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+        return true;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("standups_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static boolean isPostgres(DataSource database) {
+        try {
+            return "PostgreSQL".equals(
+                    JdbcUtils.extractDatabaseMetaData(database, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -1,22 +1,30 @@
 package com.siamcode.backend.service;
 
+import com.siamcode.backend.config.ShardTransactional;
 import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.dto.response.StandupChangesResponse;
 import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.dto.response.UserResponse;
 import com.siamcode.backend.entity.Standup;
-import com.siamcode.backend.entity.Team;
 import com.siamcode.backend.entity.User;
+import com.siamcode.backend.event.StandupChangedEvent;
 import com.siamcode.backend.exception.BadRequestException;
-import com.siamcode.backend.repository.TeamRepository;
+import com.siamcode.backend.exception.PreconditionFailedException;
 import com.siamcode.backend.exception.ResourceNotFoundException;
 import com.siamcode.backend.exception.UnauthorizedException;
 import com.siamcode.backend.repository.StandupRepository;
 import com.siamcode.backend.repository.UserRepository;
 import com.siamcode.backend.util.EntityMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,18 +34,22 @@ public class StandupService {
     private final StandupRepository standupRepository;
     private final UserRepository userRepository;
     private final TeamService teamService;
-    private final TeamRepository teamRepository;
-    private final EmailService emailService;
+    private final BlockerDigestService blockerDigestService;
+    private final StandupStreamService standupStreamService;
+    private final StandupChangeLogService changeLogService;
+    private final StandupArchive standupArchive;
+    private final ShardRouter shardRouter;
     private final EntityMapper entityMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
+    @ShardTransactional
     public StandupResponse createStandup(Long teamId, Long userId, CreateStandupRequest request) {
         // Verify user is a team member
         if (!teamService.isTeamMember(userId, teamId)) {
             throw new UnauthorizedException("You are not a member of this team");
         }
 
-        LocalDate today = LocalDate.now();
+        LocalDate today = teamService.getTeamToday(teamId);
 
         // Check if standup already exists for today
         if (standupRepository.findByTeamIdAndUserIdAndDate(teamId, userId, today).isPresent()) {
@@ -51,31 +63,29 @@ public class StandupService {
         standup.setYesterdayText(request.getYesterdayText());
         standup.setTodayText(request.getTodayText());
         standup.setBlockersText(request.getBlockersText());
+        standup.setChangeSeq(changeLogService.nextChangeSeq(teamId));
 
         Standup savedStandup = standupRepository.save(standup);
         String userName = getUserName(userId);
 
-        // Check for blockers and send email alert
-        if (request.getBlockersText() != null && !request.getBlockersText().trim().isEmpty()) {
-            try {
-                Team team = teamRepository.findById(teamId).orElse(null);
-                if (team != null) {
-                    User owner = userRepository.findById(team.getOwnerUserId()).orElse(null);
-                    if (owner != null) {
-                        emailService.sendBlockerAlert(owner.getEmail(), userName, team.getName(),
-                                request.getBlockersText());
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to send blocker alert: " + e.getMessage());
-            }
-        }
+        // Owners get blockers in a periodic digest rather than one email per submit
+        blockerDigestService.recordBlockers(savedStandup, userName);
 
-        return entityMapper.toStandupResponse(savedStandup, userName);
+        StandupResponse response = entityMapper.toStandupResponse(savedStandup, userName);
+        eventPublisher.publishEvent(new StandupChangedEvent(teamId, savedStandup.getId(),
+                StandupChangedEvent.Type.CREATED, response));
+        return response;
     }
 
-    @Transactional
-    public StandupResponse updateStandup(Long standupId, Long currentUserId, CreateStandupRequest request) {
+    /**
+     * Update a standup if it is still at the version the client last saw
+     * (null skips the check). No row lock is taken: a stale version fails
+     * here, and an edit that commits between this read and our write makes
+     * the versioned UPDATE match no row and roll back.
+     */
+    @ShardTransactional
+    public StandupResponse updateStandup(Long standupId, Long currentUserId, Long expectedVersion,
+            CreateStandupRequest request) {
         Standup standup = standupRepository.findById(standupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Standup not found with id: " + standupId));
 
@@ -85,43 +95,62 @@ public class StandupService {
         }
 
         // Only allow updates on the same day
-        if (!standup.getDate().equals(LocalDate.now())) {
+        if (!standup.getDate().equals(teamService.getTeamToday(standup.getTeamId()))) {
             throw new BadRequestException("Can only update today's standup");
         }
 
+        if (expectedVersion != null && expectedVersion != standup.getVersion()) {
+            throw new PreconditionFailedException(
+                    "This standup was changed since you loaded it. Reload and try again.");
+        }
+
         standup.setYesterdayText(request.getYesterdayText());
         standup.setTodayText(request.getTodayText());
         standup.setBlockersText(request.getBlockersText());
+        standup.setChangeSeq(changeLogService.nextChangeSeq(standup.getTeamId()));
 
-        Standup updatedStandup = standupRepository.save(standup);
+        // Flush now so the response carries the new version
+        Standup updatedStandup = standupRepository.saveAndFlush(standup);
         String userName = getUserName(currentUserId);
 
-        // Check for blockers and send email alert
-        if (request.getBlockersText() != null && !request.getBlockersText().trim().isEmpty()) {
-            try {
-                Team team = teamRepository.findById(standup.getTeamId()).orElse(null);
-                if (team != null) {
-                    User owner = userRepository.findById(team.getOwnerUserId()).orElse(null);
-                    if (owner != null) {
-                        emailService.sendBlockerAlert(owner.getEmail(), userName, team.getName(),
-                                request.getBlockersText());
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to send blocker alert: " + e.getMessage());
-            }
-        }
+        blockerDigestService.recordBlockers(updatedStandup, userName);
 
-        return entityMapper.toStandupResponse(updatedStandup, userName);
+        StandupResponse response = entityMapper.toStandupResponse(updatedStandup, userName);
+        eventPublisher.publishEvent(new StandupChangedEvent(updatedStandup.getTeamId(), standupId,
+                StandupChangedEvent.Type.UPDATED, response));
+        return response;
     }
 
+    @ShardTransactional(readOnly = true)
     public List<StandupResponse> getStandupsByTeamAndDate(Long teamId, LocalDate date, Long currentUserId) {
         // Verify user is a team member
         if (!teamService.isTeamMember(currentUserId, teamId)) {
             throw new UnauthorizedException("You are not a member of this team");
         }
 
-        return standupRepository.findByTeamIdAndDate(teamId, date).stream()
+        return loadStandups(teamId, date);
+    }
+
+    /**
+     * Validator for a team's standups on a date, for conditional GETs. It
+     * changes whenever one is created, updated or deleted.
+     */
+    @ShardTransactional(readOnly = true)
+    public String getStandupsVersion(Long teamId, LocalDate date, Long currentUserId) {
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+
+        Object[] version = standupRepository.findDayVersion(teamId, date).get(0);
+        return "standups-" + teamId + "-" + date + "-" + version[0] + "-" + version[1];
+    }
+
+    /**
+     * Standups for a team and date, without the membership check (the caller
+     * must already have verified it)
+     */
+    List<StandupResponse> loadStandups(Long teamId, LocalDate date) {
+        return findStandups(teamId, date, date).stream()
                 .map(standup -> {
                     String userName = getUserName(standup.getUserId());
                     return entityMapper.toStandupResponse(standup, userName);
@@ -129,6 +158,29 @@ public class StandupService {
                 .collect(Collectors.toList());
     }
 
+    public SseEmitter streamStandups(Long teamId, Long currentUserId) {
+        // Verify user is a team member
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+
+        return standupStreamService.subscribe(teamId);
+    }
+
+    /**
+     * Standup changes after the given sequence, for delta-sync clients
+     */
+    @ShardTransactional(readOnly = true)
+    public StandupChangesResponse getStandupChanges(Long teamId, long since, Integer limit, Long currentUserId) {
+        // Verify user is a team member
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+
+        return changeLogService.getChangesSince(teamId, since, limit);
+    }
+
+    @ShardTransactional(readOnly = true)
     public List<StandupResponse> getStandupsByDateRange(Long teamId, LocalDate startDate, LocalDate endDate,
             Long currentUserId) {
         // Verify user is a team member
@@ -140,7 +192,7 @@ public class StandupService {
             throw new BadRequestException("Start date must be before or equal to end date");
         }
 
-        return standupRepository.findByTeamIdAndDateBetween(teamId, startDate, endDate).stream()
+        return findStandups(teamId, startDate, endDate).stream()
                 .map(standup -> {
                     String userName = getUserName(standup.getUserId());
                     return entityMapper.toStandupResponse(standup, userName);
@@ -148,7 +200,41 @@ public class StandupService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Accepted team members who have not submitted a standup for the date
+     * (defaults to today in the team's timezone)
+     */
+    @ShardTransactional(readOnly = true)
+    public List<UserResponse> getPendingMembers(Long teamId, LocalDate date, Long currentUserId) {
+        // Verify user is a team member
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+
+        LocalDate targetDate = date != null ? date : teamService.getTeamToday(teamId);
+        return findMembersWithoutStandup(teamId, targetDate).stream()
+                .map(entityMapper::toUserResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Accepted team members with no standup for the date, by name. A team on
+     * the primary (always, without sharding) gets one anti-join; on other
+     * shards members and standups are in different databases, so this is two
+     * queries (the members usually cached) instead.
+     */
+    List<User> findMembersWithoutStandup(Long teamId, LocalDate date) {
+        if (shardRouter.shardOf(teamId) == 0) {
+            return userRepository.findTeamMembersWithoutStandup(teamId, date);
+        }
+        Set<Long> submitted = new HashSet<>(standupRepository.findUserIdsByTeamIdAndDate(teamId, date));
+        return teamService.getTeamMemberEntities(teamId).stream()
+                .filter(member -> !submitted.contains(member.getId()))
+                .sorted(Comparator.comparing(User::getName))
+                .collect(Collectors.toList());
+    }
+
+    @ShardTransactional
     public void deleteStandup(Long standupId, Long currentUserId) {
         Standup standup = standupRepository.findById(standupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Standup not found with id: " + standupId));
@@ -158,13 +244,39 @@ public class StandupService {
             throw new UnauthorizedException("You can only delete your own standups");
         }
 
+        changeLogService.recordDeletion(standup);
         standupRepository.delete(standup);
+        blockerDigestService.discard(standupId);
+        eventPublisher.publishEvent(new StandupChangedEvent(standup.getTeamId(), standupId,
+                StandupChangedEvent.Type.DELETED, null));
     }
 
     public List<Standup> getStandupsForSummary(Long teamId, LocalDate date) {
-        return standupRepository.findByTeamIdAndDate(teamId, date);
+        return findStandups(teamId, date, date);
     }
 
+    /**
+     * A team's standups dated start to end, including those of months moved
+     * to the archive
+     */
+    private List<Standup> findStandups(Long teamId, LocalDate start, LocalDate end) {
+        List<Standup> standups = start.equals(end)
+                ? standupRepository.findByTeamIdAndDate(teamId, start)
+                : standupRepository.findByTeamIdAndDateBetween(teamId, start, end);
+        if (!standupArchive.covers(start, end)) {
+            return standups;
+        }
+
+        // A month being archived can briefly be in both
+        List<Standup> merged = new ArrayList<>(standups);
+        Set<Long> live = standups.stream().map(Standup::getId).collect(Collectors.toSet());
+        standupArchive.read(teamId, start, end).stream()
+                .filter(standup -> !live.contains(standup.getId()))
+                .forEach(merged::add);
+        return merged;
+    }
+
+    @ShardTransactional(readOnly = true)
     public java.util.List<com.siamcode.backend.dto.response.HeatmapStatsResponse> getHeatmapStats(Long teamId,
             Long currentUserId) {
         // Verify user is a team member
@@ -172,7 +284,14 @@ public class StandupService {
             throw new UnauthorizedException("You are not a member of this team");
         }
 
-        LocalDate oneYearAgo = LocalDate.now().minusYears(1);
+        return loadHeatmapStats(teamId);
+    }
+
+    /**
+     * Daily standup counts for the last year, without the membership check
+     */
+    List<com.siamcode.backend.dto.response.HeatmapStatsResponse> loadHeatmapStats(Long teamId) {
+        LocalDate oneYearAgo = teamService.getTeamToday(teamId).minusYears(1);
         List<Object[]> dailyCounts = standupRepository.countDailyStandupsByTeamId(teamId, oneYearAgo);
 
         return dailyCounts.stream()
@@ -0,0 +1,286 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.dto.response.StandupChangesResponse;
+import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.event.StandupChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-team fan-out of standup changes to Server-Sent Event subscribers.
+ *
+ * Streams are fed from the standup change log, so every instance sends the
+ * same changes whichever instance made them: a change committed here, or
+ * announced by another instance on the invalidation bus, makes each team
+ * with subscribers read its changes after the last one it sent. Reads of a
+ * team run one at a time, so changes go out once and in order.
+ *
+ * Idle subscribers cost an emitter and a small bounded buffer, not a thread.
+ * A change is serialized once and offered to every subscriber of the team; a
+ * subscriber's buffer is drained by a short-lived virtual thread, so one slow
+ * connection never delays the others. A subscriber whose buffer fills up is
+ * too slow to keep up and is disconnected; the browser's EventSource simply
+ * reconnects. Heartbeats keep proxies from closing idle streams and flush out
+ * dead connections.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandupStreamService {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final StandupChangeLogService changeLogService;
+    private final CacheInvalidationBus invalidationBus;
+    private final ShardRouter shardRouter;
+
+    @Value("${standups.stream.buffer.size:16}")
+    private int bufferSize;
+
+    @Value("${standups.stream.timeout.ms:1800000}")
+    private long streamTimeoutMs;
+
+    private final Map<Long, TeamStream> streamsByTeam = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private Counter evictedCounter;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        Gauge.builder("standups.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        evictedCounter = Counter.builder("standups.stream.evicted").register(meterRegistry);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        streamsByTeam.values().forEach(stream -> stream.subscribers.forEach(Subscriber::close));
+        senders.shutdownNow();
+    }
+
+    /**
+     * Open a stream of the team's standup changes. The caller must already
+     * have checked membership.
+     */
+    public SseEmitter subscribe(Long teamId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(teamId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // Changes up to now are already in what the client loaded
+        long head = shardRouter.onTeamShard(teamId, () -> changeLogService.getHead(teamId));
+        streamsByTeam.compute(teamId, (id, stream) -> {
+            TeamStream joined = stream != null ? stream : new TeamStream(id, head);
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        subscriberCount.incrementAndGet();
+
+        // Sends the response headers right away so the client sees the stream open
+        subscriber.offer(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    /**
+     * Runs in the writer's transaction, so other instances hear of the change
+     * once it commits
+     */
+    @EventListener
+    public void announce(StandupChangedEvent event) {
+        invalidationBus.publish(Topic.STANDUP_CHANGE, List.of(event.teamId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStandupChanged(StandupChangedEvent event) {
+        changed(event.teamId());
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.topic() != Topic.STANDUP_CHANGE) {
+            return;
+        }
+        if (event.isFlush()) {
+            // Changes may have been missed; every stream catches up from its log
+            streamsByTeam.values().forEach(TeamStream::changed);
+        } else {
+            event.ids().forEach(this::changed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${standups.stream.heartbeat.ms:20000}")
+    public void sendHeartbeats() {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        streamsByTeam.values().forEach(stream -> stream.subscribers.forEach(subscriber -> subscriber.offer(frame)));
+    }
+
+    private void changed(Long teamId) {
+        TeamStream stream = streamsByTeam.get(teamId);
+        if (stream != null) {
+            stream.changed();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        streamsByTeam.computeIfPresent(subscriber.teamId, (id, stream) -> {
+            if (stream.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return stream.subscribers.isEmpty() ? null : stream;
+        });
+    }
+
+    /**
+     * A team's subscribers and the last change sent to them
+     */
+    private final class TeamStream {
+        private final Long teamId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final AtomicBoolean reading = new AtomicBoolean();
+        // Only touched by the one reader
+        private long sentUpTo;
+
+        TeamStream(Long teamId, long sentUpTo) {
+            this.teamId = teamId;
+            this.sentUpTo = sentUpTo;
+        }
+
+        void changed() {
+            pending.set(true);
+            if (reading.compareAndSet(false, true)) {
+                senders.execute(this::read);
+            }
+        }
+
+        private void read() {
+            while (true) {
+                if (pending.getAndSet(false)) {
+                    try {
+                        sendChanges();
+                    } catch (RuntimeException e) {
+                        log.warn("Could not read standup changes of team {} for its streams: {}", teamId,
+                                e.getMessage());
+                    }
+                    continue;
+                }
+                reading.set(false);
+                // Re-check: a change announced after getAndSet() but before set(false) has no reader
+                if (!pending.get() || !reading.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private void sendChanges() {
+            StandupChangesResponse changes;
+            do {
+                long since = sentUpTo;
+                changes = shardRouter.onTeamShard(teamId,
+                        () -> changeLogService.getChangesSince(teamId, since, null));
+                for (StandupResponse standup : changes.getUpserts()) {
+                    StandupChangedEvent.Type type = standup.getUpdatedAt() == null
+                            ? StandupChangedEvent.Type.CREATED
+                            : StandupChangedEvent.Type.UPDATED;
+                    send(new StandupChangedEvent(teamId, standup.getId(), type, standup));
+                }
+                for (Long standupId : changes.getDeletedIds()) {
+                    send(new StandupChangedEvent(teamId, standupId, StandupChangedEvent.Type.DELETED, null));
+                }
+                // Past the tombstone horizon deletions were lost; carry on from the head
+                sentUpTo = changes.getNextSince();
+            } while (changes.isHasMore());
+        }
+
+        private void send(StandupChangedEvent event) {
+            Set<DataWithMediaType> frame = SseEmitter.event()
+                    .name("standup")
+                    .id(String.valueOf(event.standupId()))
+                    .data(objectMapper.writeValueAsString(event))
+                    .build();
+            subscribers.forEach(subscriber -> subscriber.offer(frame));
+        }
+    }
+
+    private final class Subscriber {
+        private final Long teamId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long teamId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> buffer) {
+            this.teamId = teamId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (!buffer.offer(frame)) {
+                log.debug("Disconnecting slow standup stream subscriber for team {}", teamId);
+                evictedCounter.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> frame = buffer.poll();
+                if (frame == null) {
+                    draining.set(false);
+                    // Re-check: a frame offered after poll() but before set(false) has no drainer
+                    if (buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    emitter.send(frame);
+                } catch (Exception e) {
+                    // Client went away; the emitter's error callback may not fire for writes we make
+                    remove(this);
+                    buffer.clear();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            remove(this);
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package com.siamcode.backend.service;
 
+import com.siamcode.backend.config.ShardTransactional;
 import com.siamcode.backend.dto.response.StandupSummaryResponse;
 import com.siamcode.backend.entity.Standup;
 import com.siamcode.backend.entity.StandupSummary;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
 import com.siamcode.backend.exception.BadRequestException;
 import com.siamcode.backend.exception.ResourceNotFoundException;
+import com.siamcode.backend.exception.ServiceUnavailableException;
 import com.siamcode.backend.exception.UnauthorizedException;
 import com.siamcode.backend.repository.StandupSummaryRepository;
 import com.siamcode.backend.util.EntityMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,18 +27,29 @@ public class StandupSummaryService {
     private final AIService aiService;
     private final TeamService teamService;
     private final EntityMapper entityMapper;
+    private final SummaryResponseCache responseCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final StandupChangeLogService changeLogService;
 
-    @Transactional
+    @ShardTransactional
     public StandupSummaryResponse generateSummary(Long teamId, LocalDate date, Long currentUserId) {
         // Verify user is a team member
         if (!teamService.isTeamMember(currentUserId, teamId)) {
             throw new UnauthorizedException("You are not a member of this team");
         }
+        changeLogService.lockForWrite(teamId);
 
         // Delete existing summary if present (for regeneration when new standups are
-        // added)
+        // added). The replacement gets a new id, which changes its ETag and its
+        // response cache entry. Flushed now: the INSERT below runs as soon as it
+        // is saved and would otherwise hit the unique (teamId, date) key.
         standupSummaryRepository.findByTeamIdAndDate(teamId, date)
-                .ifPresent(existingSummary -> standupSummaryRepository.delete(existingSummary));
+                .ifPresent(existingSummary -> {
+                    standupSummaryRepository.delete(existingSummary);
+                    standupSummaryRepository.flush();
+                    responseCache.evict(SummaryResponseCache.Kind.DAILY, existingSummary.getId());
+                    invalidationBus.publish(Topic.DAILY_SUMMARY, List.of(existingSummary.getId()));
+                });
 
         // Get all standups for this team and date
         List<Standup> standups = standupService.getStandupsForSummary(teamId, date);
@@ -54,22 +68,105 @@ public class StandupSummaryService {
         summary.setSummaryText(summaryText);
         summary.setGeneratedByAi(true);
 
-        StandupSummary savedSummary = standupSummaryRepository.save(summary);
+        StandupSummary savedSummary;
+        try {
+            savedSummary = standupSummaryRepository.save(summary);
+        } catch (DataIntegrityViolationException e) {
+            // A backfill wrote this day meanwhile; a retry replaces it
+            throw new ServiceUnavailableException("A summary for this date is being generated. Try again.");
+        }
         return entityMapper.toStandupSummaryResponse(savedSummary);
     }
 
+    /**
+     * Check whether a historical date has standups but no stored summary yet.
+     */
+    @ShardTransactional(readOnly = true)
+    public boolean needsBackfill(Long teamId, LocalDate date) {
+        return standupSummaryRepository.findByTeamIdAndDate(teamId, date).isEmpty()
+                && !standupService.getStandupsForSummary(teamId, date).isEmpty();
+    }
+
+    /**
+     * Generate a summary for a historical date without replacing an existing one.
+     * Returns false when a summary already exists or no standups were submitted,
+     * so repeated backfill runs never write the same day twice.
+     */
+    @ShardTransactional
+    public boolean backfillSummary(Long teamId, LocalDate date) {
+        changeLogService.lockForWrite(teamId);
+        if (standupSummaryRepository.findByTeamIdAndDate(teamId, date).isPresent()) {
+            return false;
+        }
+
+        List<Standup> standups = standupService.getStandupsForSummary(teamId, date);
+        if (standups.isEmpty()) {
+            return false;
+        }
+
+        StandupSummary summary = new StandupSummary();
+        summary.setTeamId(teamId);
+        summary.setDate(date);
+        summary.setSummaryText(aiService.generateStandupSummary(standups));
+        summary.setGeneratedByAi(true);
+        standupSummaryRepository.save(summary);
+        return true;
+    }
+
+    @ShardTransactional(readOnly = true)
     public StandupSummaryResponse getSummaryByTeamAndDate(Long teamId, LocalDate date, Long currentUserId) {
         // Verify user is a team member
         if (!teamService.isTeamMember(currentUserId, teamId)) {
             throw new UnauthorizedException("You are not a member of this team");
         }
 
+        return loadSummary(teamId, date);
+    }
+
+    /**
+     * Id of the team's summary for a date, or null if none exists. Cheap
+     * enough to serve as the validator for conditional GETs.
+     */
+    @ShardTransactional(readOnly = true)
+    public Long getSummaryId(Long teamId, LocalDate date, Long currentUserId) {
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+
+        return standupSummaryRepository.findIdByTeamIdAndDate(teamId, date);
+    }
+
+    /**
+     * Encoded JSON of a summary that will not change any more, served from
+     * the response cache. Null if the summary was regenerated since its id
+     * was read.
+     */
+    @ShardTransactional(readOnly = true)
+    public SummaryResponseCache.Encoded getEncodedSummary(Long teamId, Long summaryId, boolean acceptsGzip,
+            Long currentUserId) {
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+
+        return responseCache.get(SummaryResponseCache.Kind.DAILY, summaryId, acceptsGzip,
+                () -> standupSummaryRepository.findById(summaryId)
+                        .filter(summary -> summary.getTeamId().equals(teamId))
+                        .map(entityMapper::toStandupSummaryResponse)
+                        .orElse(null));
+    }
+
+    /**
+     * Summary for a team and date, or null if none exists. Skips the
+     * membership check, which the caller must already have done.
+     */
+    StandupSummaryResponse loadSummary(Long teamId, LocalDate date) {
         // Return null if no summary exists (instead of throwing 404)
         return standupSummaryRepository.findByTeamIdAndDate(teamId, date)
                 .map(entityMapper::toStandupSummaryResponse)
                 .orElse(null);
     }
 
+    @ShardTransactional(readOnly = true)
     public List<StandupSummaryResponse> getSummariesByDateRange(Long teamId, LocalDate startDate, LocalDate endDate,
             Long currentUserId) {
         // Verify user is a team member
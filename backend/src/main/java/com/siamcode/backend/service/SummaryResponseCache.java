@@ -0,0 +1,228 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Already-encoded JSON of summaries that can no longer change, keyed by
+ * summary id. A hit skips loading the entity and running Jackson over the
+ * summary text; larger entries also keep a gzipped copy for clients that
+ * accept it.
+ *
+ * Least recently used entries are evicted once the total size passes
+ * summaries.response.cache.max.bytes. Regenerating a summary gives it a new
+ * id, so a stale entry is never served; the old one is evicted explicitly,
+ * on other instances through the invalidation bus.
+ * Hit rate and bytes saved are under summaries.response.cache.* in
+ * /actuator/metrics.
+ */
+@Service
+@RequiredArgsConstructor
+public class SummaryResponseCache {
+
+    public enum Kind {
+        DAILY,
+        WEEKLY
+    }
+
+    /**
+     * Response body to send, gzipped or not
+     */
+    public record Encoded(byte[] body, boolean gzipped) {
+    }
+
+    private record Key(Kind kind, Long id) {
+    }
+
+    private record Entry(byte[] json, byte[] gzip) {
+        long size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${summaries.response.cache.max.bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${summaries.response.cache.gzip.min.bytes:1024}")
+    private int gzipMinBytes;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private volatile long totalBytes;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+    private Counter serializationBytesSaved;
+    private Counter transferBytesSaved;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        hits = Counter.builder("summaries.response.cache.hits").register(meterRegistry);
+        misses = Counter.builder("summaries.response.cache.misses").register(meterRegistry);
+        evictions = Counter.builder("summaries.response.cache.evictions").register(meterRegistry);
+        serializationBytesSaved = Counter.builder("summaries.response.cache.serialization.bytes.saved")
+                .description("JSON bytes served from the cache instead of being serialized again")
+                .register(meterRegistry);
+        transferBytesSaved = Counter.builder("summaries.response.cache.transfer.bytes.saved")
+                .description("Bytes not sent thanks to the precompressed copy")
+                .register(meterRegistry);
+        Gauge.builder("summaries.response.cache.size.bytes", this, cache -> cache.totalBytes).register(meterRegistry);
+        Gauge.builder("summaries.response.cache.entries", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Encoded JSON for one summary, loading and caching it on a miss. The
+     * loader may return null if the summary is gone; nothing is cached then
+     * and null is returned.
+     */
+    public Encoded get(Kind kind, Long id, boolean acceptsGzip, Supplier<Object> loader) {
+        Key key = new Key(kind, id);
+        Entry entry = lookup(key);
+        if (entry == null) {
+            Object value = loader.get();
+            if (value == null) {
+                return null;
+            }
+            entry = encode(value);
+            store(key, entry);
+        }
+
+        if (acceptsGzip && entry.gzip() != null) {
+            transferBytesSaved.increment(entry.json().length - entry.gzip().length);
+            return new Encoded(entry.gzip(), true);
+        }
+        return new Encoded(entry.json(), false);
+    }
+
+    /**
+     * A JSON array of summaries in the given id order, built from cached
+     * entries. Misses are loaded together in one call to the loader.
+     */
+    public byte[] getArray(Kind kind, List<Long> ids, Function<List<Long>, Map<Long, ?>> loader) {
+        Map<Long, Entry> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Entry entry = lookup(new Key(kind, id));
+            if (entry != null) {
+                found.put(id, entry);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach((id, value) -> {
+                Entry entry = encode(value);
+                store(new Key(kind, id), entry);
+                found.put(id, entry);
+            });
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        boolean first = true;
+        for (Long id : ids) {
+            Entry entry = found.get(id);
+            if (entry == null) {
+                // Deleted since the ids were read
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(entry.json());
+            first = false;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    public void evict(Kind kind, Long id) {
+        synchronized (lock) {
+            Entry removed = entries.remove(new Key(kind, id));
+            if (removed != null) {
+                totalBytes -= removed.size();
+            }
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        // A flush can be ignored: entries are keyed by ids that never change meaning
+        if (event.topic() == Topic.DAILY_SUMMARY && !event.isFlush()) {
+            event.ids().forEach(id -> evict(Kind.DAILY, id));
+        }
+    }
+
+    private Entry lookup(Key key) {
+        Entry entry;
+        synchronized (lock) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            hits.increment();
+            serializationBytesSaved.increment(entry.json().length);
+        } else {
+            misses.increment();
+        }
+        return entry;
+    }
+
+    private void store(Key key, Entry entry) {
+        // One entry taking a large share of the cache would mostly cause churn
+        if (entry.size() > maxBytes / 4) {
+            return;
+        }
+        synchronized (lock) {
+            Entry previous = entries.put(key, entry);
+            totalBytes += entry.size() - (previous != null ? previous.size() : 0);
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().size();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private Entry encode(Object value) {
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        if (json.length < gzipMinBytes) {
+            return new Entry(json, null);
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzip = compressed.toByteArray();
+        // Not worth sending compressed if it barely shrinks
+        return new Entry(json, gzip.length < json.length * 9 / 10 ? gzip : null);
+    }
+}
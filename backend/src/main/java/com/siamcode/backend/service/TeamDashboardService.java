@@ -0,0 +1,140 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.config.ShardContext;
+import com.siamcode.backend.dto.response.HeatmapStatsResponse;
+import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.dto.response.StandupSummaryResponse;
+import com.siamcode.backend.dto.response.TeamDashboardResponse;
+import com.siamcode.backend.dto.response.TeamResponse;
+import com.siamcode.backend.dto.response.UserResponse;
+import com.siamcode.backend.dto.response.WeeklySummaryResponse;
+import com.siamcode.backend.exception.ServiceUnavailableException;
+import com.siamcode.backend.exception.UnauthorizedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the team page in one request. Membership is checked once, then each
+ * section is loaded on its own virtual thread, so the response takes as long
+ * as the slowest section rather than the sum of them.
+ *
+ * Every branch is forked and joined inside getDashboard and anything still
+ * running when it returns is cancelled, so no work outlives the request.
+ * Branches read from the shard bound to the request.
+ * The team and its members are required; the other sections are left empty
+ * and listed in "unavailable" if they fail or miss the branch timeout.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TeamDashboardService {
+
+    private final TeamService teamService;
+    private final StandupService standupService;
+    private final StandupSummaryService standupSummaryService;
+    private final WeeklySummaryService weeklySummaryService;
+
+    @Value("${dashboard.branch.timeout.ms:3000}")
+    private long branchTimeoutMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public TeamDashboardResponse getDashboard(Long teamId, LocalDate date, Long currentUserId) {
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+        LocalDate day = date != null ? date : teamService.getTeamToday(teamId);
+
+        List<Future<?>> branches = new ArrayList<>();
+        try {
+            Future<TeamResponse> team = fork(branches, () -> teamService.getTeamById(teamId));
+            Future<List<UserResponse>> members = fork(branches, () -> teamService.getTeamMembers(teamId));
+            Future<List<StandupResponse>> standups = fork(branches,
+                    () -> standupService.loadStandups(teamId, day));
+            Future<StandupSummaryResponse> summary = fork(branches,
+                    () -> standupSummaryService.loadSummary(teamId, day));
+            Future<WeeklySummaryResponse> weekly = fork(branches,
+                    () -> weeklySummaryService.findLatestWeeklySummary(teamId).orElse(null));
+            Future<List<HeatmapStatsResponse>> heatmap = fork(branches,
+                    () -> standupService.loadHeatmapStats(teamId));
+
+            // All branches start together, so one deadline gives each the full timeout
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(branchTimeoutMs);
+            List<String> unavailable = new ArrayList<>();
+
+            TeamDashboardResponse response = new TeamDashboardResponse();
+            response.setTeam(joinRequired(team, deadline));
+            response.setMembers(joinRequired(members, deadline));
+            response.setDate(day);
+            response.setStandups(joinOptional(standups, deadline, "standups", unavailable));
+            response.setSummary(joinOptional(summary, deadline, "summary", unavailable));
+            response.setLatestWeeklySummary(joinOptional(weekly, deadline, "latestWeeklySummary", unavailable));
+            response.setHeatmap(joinOptional(heatmap, deadline, "heatmap", unavailable));
+            response.setUnavailable(unavailable);
+            return response;
+        } finally {
+            // No-op for finished branches; stops the rest when we bail out early
+            branches.forEach(branch -> branch.cancel(true));
+        }
+    }
+
+    private <T> Future<T> fork(List<Future<?>> branches, Callable<T> task) {
+        Integer shard = ShardContext.current();
+        Future<T> future = executor.submit(() -> ShardContext.call(shard, task));
+        branches.add(future);
+        return future;
+    }
+
+    private <T> T joinRequired(Future<T> branch, long deadline) {
+        try {
+            return branch.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Team dashboard timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Team dashboard interrupted");
+        }
+    }
+
+    private <T> T joinOptional(Future<T> branch, long deadline, String section, List<String> unavailable) {
+        try {
+            return branch.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard section {} failed: {}", section, e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            log.warn("Dashboard section {} timed out after {} ms", section, branchTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Team dashboard interrupted");
+        }
+        unavailable.add(section);
+        return null;
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
@@ -2,6 +2,7 @@ package com.siamcode.backend.service;
 
 import com.siamcode.backend.dto.request.AddTeamMemberRequest;
 import com.siamcode.backend.dto.request.CreateTeamRequest;
+import com.siamcode.backend.dto.request.UpdateReminderSettingsRequest;
 import com.siamcode.backend.dto.request.UpdateTeamRequest;
 import com.siamcode.backend.dto.response.TeamResponse;
 import com.siamcode.backend.dto.response.UserResponse;
@@ -9,17 +10,24 @@ import com.siamcode.backend.entity.Team;
 import com.siamcode.backend.entity.TeamMember;
 import com.siamcode.backend.entity.User;
 import com.siamcode.backend.entity.InvitationStatus;
+import com.siamcode.backend.event.TeamReminderSettingsChangedEvent;
 import com.siamcode.backend.exception.BadRequestException;
 import com.siamcode.backend.exception.ResourceNotFoundException;
 import com.siamcode.backend.exception.UnauthorizedException;
 import com.siamcode.backend.repository.TeamRepository;
 import com.siamcode.backend.repository.TeamMemberRepository;
 import com.siamcode.backend.repository.UserRepository;
+import com.siamcode.backend.security.JwtAuthenticationDetails;
+import com.siamcode.backend.security.SecurityHelper;
 import com.siamcode.backend.util.EntityMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +40,11 @@ public class TeamService {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final EntityMapper entityMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SecurityHelper securityHelper;
+    private final MembershipVersionService membershipVersionService;
+    private final StandupChangeLogService changeLogService;
+    private final ShardRouter shardRouter;
 
     @Transactional
     public TeamResponse createTeam(CreateTeamRequest request, Long ownerUserId) {
@@ -42,6 +55,8 @@ public class TeamService {
         team.setDeleted(false);
 
         Team savedTeam = teamRepository.save(team);
+        int shard = shardRouter.assignShard(savedTeam.getId());
+        shardRouter.runOnShard(shard, () -> changeLogService.createSequence(savedTeam.getId()));
 
         // Add owner as a team member with OWNER role
         TeamMember ownerMember = new TeamMember();
@@ -52,10 +67,12 @@ public class TeamService {
         ownerMember.setInvitedAt(LocalDateTime.now());
         ownerMember.setRespondedAt(LocalDateTime.now());
         teamMemberRepository.save(ownerMember);
+        membershipVersionService.membershipChanged(List.of(ownerUserId));
 
         return entityMapper.toTeamResponse(savedTeam);
     }
 
+    @Transactional(readOnly = true)
     public List<TeamResponse> getTeamsByUser(Long userId) {
         // Get all team IDs where user is an ACCEPTED member
         List<Long> teamIds = teamMemberRepository.findByUserId(userId)
@@ -115,6 +132,66 @@ public class TeamService {
         // Soft delete
         team.setDeleted(true);
         teamRepository.save(team);
+        membershipVersionService.membershipChanged(teamMemberRepository.findByTeamId(teamId).stream()
+                .map(TeamMember::getUserId)
+                .collect(Collectors.toList()));
+        eventPublisher.publishEvent(new TeamReminderSettingsChangedEvent(teamId));
+    }
+
+    @Transactional
+    public TeamResponse updateReminderSettings(Long teamId, UpdateReminderSettingsRequest request,
+            Long currentUserId) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
+
+        if (team.isDeleted()) {
+            throw new BadRequestException("Cannot update deleted team");
+        }
+
+        // Only owner can change reminder settings
+        if (!team.getOwnerUserId().equals(currentUserId)) {
+            throw new UnauthorizedException("Only team owner can change reminder settings");
+        }
+
+        String timezone = request.getTimezone();
+        if (timezone != null && !timezone.isBlank()) {
+            try {
+                timezone = ZoneId.of(timezone.trim()).getId();
+            } catch (DateTimeException e) {
+                throw new BadRequestException("Unknown timezone: " + timezone);
+            }
+        } else {
+            timezone = null;
+        }
+
+        team.setTimezone(timezone);
+        team.setReminderTime(request.getReminderTime());
+        Team updatedTeam = teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamReminderSettingsChangedEvent(teamId));
+        return entityMapper.toTeamResponse(updatedTeam);
+    }
+
+    /**
+     * Resolve the team's timezone, falling back to the server zone when unset
+     */
+    public ZoneId getTeamZone(Team team) {
+        if (team.getTimezone() == null) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(team.getTimezone());
+        } catch (DateTimeException e) {
+            return ZoneId.systemDefault();
+        }
+    }
+
+    /**
+     * Current date in the team's timezone
+     */
+    public LocalDate getTeamToday(Long teamId) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
+        return LocalDate.now(getTeamZone(team));
     }
 
     @Transactional
@@ -183,14 +260,26 @@ public class TeamService {
         }
 
         teamMemberRepository.deleteByTeamIdAndUserId(teamId, userId);
+        membershipVersionService.membershipChanged(List.of(userId));
     }
 
+    /**
+     * Whether the user is an accepted member of the team. When checking the
+     * caller, the team list in their token is used as long as its membership
+     * version is still current, avoiding the membership query.
+     */
     public boolean isTeamMember(Long userId, Long teamId) {
+        JwtAuthenticationDetails token = securityHelper.getTokenMembership(userId);
+        if (token != null && membershipVersionService.isCurrent(userId, token.getMembershipVersion())) {
+            return token.getTeamIds().contains(teamId);
+        }
+
         return teamMemberRepository.findByTeamIdAndUserId(teamId, userId)
                 .map(member -> member.getStatus() == InvitationStatus.ACCEPTED)
                 .orElse(false);
     }
 
+    @Transactional(readOnly = true)
     public List<UserResponse> getTeamMembers(Long teamId) {
         // Find all ACCEPTED team members
         List<TeamMember> members = teamMemberRepository.findByTeamId(teamId)
@@ -219,6 +308,7 @@ public class TeamService {
     /**
      * Get team member entities (for internal service use)
      */
+    @Transactional(readOnly = true)
     public List<User> getTeamMemberEntities(Long teamId) {
         List<TeamMember> members = teamMemberRepository.findByTeamId(teamId)
                 .stream()
@@ -267,6 +357,7 @@ public class TeamService {
         member.setInvitedAt(LocalDateTime.now());
         member.setRespondedAt(LocalDateTime.now());
         teamMemberRepository.save(member);
+        membershipVersionService.membershipChanged(List.of(userId));
     }
 
     @Transactional
@@ -281,6 +372,7 @@ public class TeamService {
         member.setStatus(InvitationStatus.ACCEPTED);
         member.setRespondedAt(LocalDateTime.now());
         teamMemberRepository.save(member);
+        membershipVersionService.membershipChanged(List.of(userId));
     }
 
     @Transactional
@@ -297,6 +389,7 @@ public class TeamService {
         teamMemberRepository.save(member);
     }
 
+    @Transactional(readOnly = true)
     public List<UserResponse> getPendingInvitations(Long teamId, Long currentUserId) {
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new ResourceNotFoundException("Team not found"));
@@ -326,6 +419,7 @@ public class TeamService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<TeamResponse> getUserPendingInvitations(Long userId) {
         // Get all PENDING team memberships for this user
         List<TeamMember> pendingMembers = teamMemberRepository.findByUserId(userId)
@@ -0,0 +1,140 @@
+package com.siamcode.backend.service;
+
+import com.siamcode.backend.entity.RevokedToken;
+import com.siamcode.backend.repository.RevokedTokenRepository;
+import com.siamcode.backend.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access tokens, checked on every authenticated request.
+ *
+ * Revocations are persisted in revoked_tokens and mirrored in memory: a Bloom
+ * filter over revoked token ids in front of an exact id -> expiry map, plus a
+ * per-user cutoff for "log out everywhere". A check is at most a few bit
+ * lookups and two hash map reads, never a query. Other instances' revocations
+ * are picked up by polling the table for new rows. Entries are dropped once
+ * the token they cover has expired, and the filter is rebuilt from what is
+ * left so it never fills up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MIN_FILTER_CAPACITY = 4096;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.expiration:900000}")
+    private long accessTokenLifetimeMs;
+
+    private final Map<String, Long> revokedTokenExpiry = new ConcurrentHashMap<>();
+    private final Map<Long, Long> userCutoffs = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(MIN_FILTER_CAPACITY, FALSE_POSITIVE_RATE);
+
+    // Highest revoked_tokens id applied to memory; guarded by "this"
+    private long lastSyncedId;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        syncRevocations();
+        log.info("Loaded {} revoked tokens and {} user cutoffs", revokedTokenExpiry.size(), userCutoffs.size());
+    }
+
+    /**
+     * Whether an access token has been revoked, either individually or by a
+     * cutoff for its user
+     */
+    public boolean isRevoked(String tokenId, Long userId, long issuedAtEpochSecond) {
+        // iat has one-second resolution, so tokens from the cutoff second itself
+        // are treated as revoked too
+        Long cutoff = userCutoffs.get(userId);
+        if (cutoff != null && issuedAtEpochSecond <= cutoff) {
+            return true;
+        }
+        return tokenId != null && filter.mightContain(tokenId) && revokedTokenExpiry.containsKey(tokenId);
+    }
+
+    /**
+     * Revoke a single access token until it expires
+     */
+    @Transactional
+    public void revokeToken(String tokenId, Long userId, long expiresAtEpochSecond) {
+        long now = Instant.now().getEpochSecond();
+        if (expiresAtEpochSecond <= now) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(null, tokenId, userId, now, expiresAtEpochSecond));
+        applyTokenRevocation(tokenId, expiresAtEpochSecond);
+    }
+
+    /**
+     * Revoke every access token the user currently holds. Tokens issued in
+     * later seconds are unaffected.
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        long now = Instant.now().getEpochSecond();
+        revokedTokenRepository.save(new RevokedToken(null, null, userId, now, now + accessTokenLifetimeSeconds()));
+        userCutoffs.merge(userId, now, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync.ms:5000}")
+    public synchronized void syncRevocations() {
+        List<RevokedToken> added = revokedTokenRepository.findByIdGreaterThanOrderById(lastSyncedId);
+        for (RevokedToken revoked : added) {
+            if (revoked.getTokenId() != null) {
+                applyTokenRevocation(revoked.getTokenId(), revoked.getExpiresAt());
+            } else {
+                userCutoffs.merge(revoked.getUserId(), revoked.getRevokedAt(), Math::max);
+            }
+            lastSyncedId = revoked.getId();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup.ms:600000}")
+    @Transactional
+    public void removeExpired() {
+        long now = Instant.now().getEpochSecond();
+        revokedTokenRepository.deleteExpired(now);
+
+        revokedTokenExpiry.values().removeIf(expiresAt -> expiresAt < now);
+        // Tokens issued before a cutoff are all expired one lifetime after it
+        userCutoffs.values().removeIf(cutoff -> cutoff + accessTokenLifetimeSeconds() < now);
+        rebuildFilter();
+    }
+
+    private long accessTokenLifetimeSeconds() {
+        return (accessTokenLifetimeMs + 999) / 1000;
+    }
+
+    private void applyTokenRevocation(String tokenId, long expiresAt) {
+        if (revokedTokenExpiry.put(tokenId, expiresAt) == null) {
+            BloomFilter current = filter;
+            current.put(tokenId);
+            if (revokedTokenExpiry.size() > current.getExpectedInsertions()) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    private synchronized void rebuildFilter() {
+        int capacity = Math.max(MIN_FILTER_CAPACITY, revokedTokenExpiry.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        revokedTokenExpiry.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // Pick up anything revoked while the new filter was being filled
+        revokedTokenExpiry.keySet().forEach(rebuilt::put);
+    }
+}
@@ -8,7 +8,6 @@ import com.siamcode.backend.exception.ResourceNotFoundException;
 import com.siamcode.backend.repository.UserRepository;
 import com.siamcode.backend.util.EntityMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,7 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final EntityMapper entityMapper;
 
     @Transactional
@@ -31,7 +30,7 @@ public class UserService {
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail().toLowerCase()); // Normalize to lowercase
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
 
         User savedUser = userRepository.save(user);
         return entityMapper.toUserResponse(savedUser);
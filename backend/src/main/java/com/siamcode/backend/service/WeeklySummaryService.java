@@ -1,5 +1,6 @@
 package com.siamcode.backend.service;
 
+import com.siamcode.backend.config.ShardTransactional;
 import com.siamcode.backend.dto.response.WeeklySummaryResponse;
 import com.siamcode.backend.entity.Standup;
 import com.siamcode.backend.entity.Team;
@@ -14,13 +15,17 @@ import com.siamcode.backend.repository.UserRepository;
 import com.siamcode.backend.repository.WeeklySummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,8 +40,10 @@ public class WeeklySummaryService {
     private final TeamService teamService;
     private final AIService aiService;
     private final EmailService emailService;
+    private final SummaryResponseCache responseCache;
+    private final StandupChangeLogService changeLogService;
 
-    @Transactional
+    @ShardTransactional
     public WeeklySummaryResponse generateAndSendWeeklySummary(Long teamId, Long currentUserId) {
         // Verify ownership
         Team team = teamRepository.findById(teamId)
@@ -45,9 +52,10 @@ public class WeeklySummaryService {
         if (!team.getOwnerUserId().equals(currentUserId)) {
             throw new UnauthorizedException("Only team owner can generate weekly summaries");
         }
+        changeLogService.lockForWrite(teamId);
 
         // Calculate week range (last 7 days including today)
-        LocalDate today = LocalDate.now();
+        LocalDate today = LocalDate.now(teamService.getTeamZone(team));
         LocalDate weekStart = today.minusDays(6);
         LocalDate weekEnd = today;
 
@@ -65,11 +73,7 @@ public class WeeklySummaryService {
         }
 
         // Generate AI summary
-        String summaryText = aiService.generateStandupSummary(standups);
-
-        // Prepend week info to summary
-        String fullSummary = String.format("## 📅 Weekly Summary: %s to %s\n\n**Total Standups:** %d\n\n---\n\n%s",
-                weekStart, weekEnd, standups.size(), summaryText);
+        String fullSummary = buildWeeklySummaryText(standups, weekStart, weekEnd);
 
         // Save weekly summary
         WeeklySummary weeklySummary = new WeeklySummary();
@@ -92,72 +96,127 @@ public class WeeklySummaryService {
             // Continue saving even if email fails
         }
 
-        WeeklySummary savedSummary = weeklySummaryRepository.save(weeklySummary);
+        WeeklySummary savedSummary;
+        try {
+            savedSummary = weeklySummaryRepository.save(weeklySummary);
+        } catch (DataIntegrityViolationException e) {
+            // Written concurrently (e.g. by a backfill)
+            throw new BadRequestException(
+                    "Weekly summary already exists for this week. Try again next week or view the existing summary.");
+        }
         return toResponse(savedSummary);
     }
 
-    public List<WeeklySummaryResponse> getWeeklySummaries(Long teamId, Long currentUserId) {
+    /**
+     * Check whether a past week has standups but no stored weekly summary yet.
+     */
+    @ShardTransactional(readOnly = true)
+    public boolean needsBackfill(Long teamId, LocalDate weekStart) {
+        return weeklySummaryRepository.findByTeamIdAndWeekStartDate(teamId, weekStart).isEmpty()
+                && !standupRepository.findByTeamIdAndDateBetween(teamId, weekStart, weekStart.plusDays(6)).isEmpty();
+    }
+
+    /**
+     * Generate a weekly summary for a past week without emailing the owner.
+     * Returns false when the week is already summarized or has no standups.
+     */
+    @ShardTransactional
+    public boolean backfillWeeklySummary(Long teamId, LocalDate weekStart) {
+        changeLogService.lockForWrite(teamId);
+        if (weeklySummaryRepository.findByTeamIdAndWeekStartDate(teamId, weekStart).isPresent()) {
+            return false;
+        }
+
+        LocalDate weekEnd = weekStart.plusDays(6);
+        List<Standup> standups = standupRepository.findByTeamIdAndDateBetween(teamId, weekStart, weekEnd);
+        if (standups.isEmpty()) {
+            return false;
+        }
+
+        WeeklySummary weeklySummary = new WeeklySummary();
+        weeklySummary.setTeamId(teamId);
+        weeklySummary.setWeekStartDate(weekStart);
+        weeklySummary.setWeekEndDate(weekEnd);
+        weeklySummary.setSummaryText(buildWeeklySummaryText(standups, weekStart, weekEnd));
+        weeklySummary.setSentToOwner(false);
+        weeklySummaryRepository.save(weeklySummary);
+        return true;
+    }
+
+    /**
+     * Validator for a team's weekly summaries (the list and the latest one),
+     * for conditional GETs
+     */
+    @ShardTransactional(readOnly = true)
+    public String getWeeklySummariesVersion(Long teamId, Long currentUserId) {
         if (!teamService.isTeamMember(currentUserId, teamId)) {
             throw new UnauthorizedException("You are not a member of this team");
         }
 
-        return weeklySummaryRepository.findByTeamIdOrderByWeekStartDateDesc(teamId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        Object[] version = weeklySummaryRepository.findVersion(teamId).get(0);
+        return "weekly-" + teamId + "-" + version[0] + "-" + version[1];
     }
 
-    public WeeklySummaryResponse getLatestWeeklySummary(Long teamId, Long currentUserId) {
+    /**
+     * All of a team's weekly summaries, newest first, as JSON assembled from
+     * the response cache (weekly summaries never change once written)
+     */
+    @ShardTransactional(readOnly = true)
+    public byte[] getEncodedWeeklySummaries(Long teamId, Long currentUserId) {
         if (!teamService.isTeamMember(currentUserId, teamId)) {
             throw new UnauthorizedException("You are not a member of this team");
         }
 
-        WeeklySummary summary = weeklySummaryRepository.findFirstByTeamIdOrderByWeekStartDateDesc(teamId)
+        List<Long> ids = weeklySummaryRepository.findIdsNewestFirst(teamId, Pageable.unpaged());
+        return responseCache.getArray(SummaryResponseCache.Kind.WEEKLY, ids,
+                missing -> weeklySummaryRepository.findAllById(missing).stream()
+                        .collect(Collectors.toMap(WeeklySummary::getId, this::toResponse)));
+    }
+
+    @ShardTransactional(readOnly = true)
+    public SummaryResponseCache.Encoded getEncodedLatestWeeklySummary(Long teamId, boolean acceptsGzip,
+            Long currentUserId) {
+        if (!teamService.isTeamMember(currentUserId, teamId)) {
+            throw new UnauthorizedException("You are not a member of this team");
+        }
+
+        Long latestId = weeklySummaryRepository.findIdsNewestFirst(teamId, PageRequest.of(0, 1)).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("No weekly summaries found for this team"));
+        SummaryResponseCache.Encoded encoded = responseCache.get(SummaryResponseCache.Kind.WEEKLY, latestId,
+                acceptsGzip, () -> weeklySummaryRepository.findById(latestId).map(this::toResponse).orElse(null));
+        if (encoded == null) {
+            throw new ResourceNotFoundException("No weekly summaries found for this team");
+        }
+        return encoded;
+    }
+
+    /**
+     * Most recent weekly summary, without the membership check
+     */
+    Optional<WeeklySummaryResponse> findLatestWeeklySummary(Long teamId) {
+        return weeklySummaryRepository.findFirstByTeamIdOrderByWeekStartDateDesc(teamId)
+                .map(this::toResponse);
+    }
 
-        return toResponse(summary);
+    private String buildWeeklySummaryText(List<Standup> standups, LocalDate weekStart, LocalDate weekEnd) {
+        String summaryText = aiService.generateStandupSummary(standups);
+
+        // Prepend week info to summary
+        return String.format("## 📅 Weekly Summary: %s to %s\n\n**Total Standups:** %d\n\n---\n\n%s",
+                weekStart, weekEnd, standups.size(), summaryText);
     }
 
     private void sendWeeklySummaryEmail(User owner, Team team, String summary, LocalDate weekStart, LocalDate weekEnd) {
         String subject = String.format("📊 Weekly Summary for %s (%s - %s)",
                 team.getName(), weekStart, weekEnd);
 
-        String htmlContent = """
-                <div style="font-family: 'Segoe UI', Arial, sans-serif; max-width: 700px; margin: 0 auto; background-color: #ffffff;">
-                    <div style="background: linear-gradient(135deg, #14b8a6 0%%, #0d9488 100%%); padding: 30px; border-radius: 12px 12px 0 0;">
-                        <h1 style="color: white; margin: 0; font-size: 24px;">📊 Weekly Team Summary</h1>
-                        <p style="color: rgba(255,255,255,0.9); margin: 10px 0 0 0;">%s</p>
-                    </div>
-
-                    <div style="padding: 30px; background-color: #f8fafc; border: 1px solid #e2e8f0; border-top: none;">
-                        <p style="color: #475569; margin-bottom: 20px;">Hi %s,</p>
-                        <p style="color: #475569; margin-bottom: 20px;">Here's your weekly standup summary for <strong>%s</strong> from %s to %s.</p>
-
-                        <div style="background-color: white; padding: 25px; border-radius: 8px; border: 1px solid #e2e8f0; margin-bottom: 25px;">
-                            <div style="color: #1e293b; line-height: 1.6; white-space: pre-wrap;">%s</div>
-                        </div>
-
-                        <p style="color: #64748b; font-size: 14px; margin-top: 25px;">
-                            This summary was generated by StandUpStrip AI.
-                        </p>
-                    </div>
-
-                    <div style="padding: 20px 30px; background-color: #1e293b; border-radius: 0 0 12px 12px; text-align: center;">
-                        <p style="color: #94a3b8; margin: 0; font-size: 13px;">
-                            StandUpStrip - Keep your team aligned
-                        </p>
-                    </div>
-                </div>
-                """
-                .formatted(
-                        team.getName(),
-                        owner.getName(),
-                        team.getName(),
-                        weekStart,
-                        weekEnd,
-                        summary.replace("\n", "<br/>"));
-
-        emailService.sendHtmlEmail(owner.getEmail(), subject, htmlContent);
+        emailService.sendTemplatedEmail(owner.getEmail(), subject, "weekly-summary", Map.of(
+                "teamName", team.getName(),
+                "ownerName", owner.getName(),
+                "weekStart", weekStart,
+                "weekEnd", weekEnd,
+                "summaryHtml", summary.replace("\n", "<br/>")));
     }
 
     private WeeklySummaryResponse toResponse(WeeklySummary summary) {
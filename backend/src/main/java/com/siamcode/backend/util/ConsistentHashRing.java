@@ -0,0 +1,55 @@
+package com.siamcode.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hashing of long keys onto numbered nodes. Each node owns
+ * {@code virtualNodes} points on a 64-bit ring and a key belongs to the first
+ * point at or after its hash, so adding a node only takes over about 1/n of
+ * the keys and leaves the rest where they were. Immutable.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashRing(int nodeCount, int virtualNodes) {
+        if (nodeCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one node and one point per node");
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            for (int point = 0; point < virtualNodes; point++) {
+                // Points depend only on the node number, so existing nodes keep them as the ring grows
+                ring.put(hash64(("node-" + node + "#" + point).getBytes(StandardCharsets.UTF_8)), node);
+            }
+        }
+    }
+
+    public int nodeFor(long key) {
+        Map.Entry<Long, Integer> point = ring.ceilingEntry(mix(key));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 64-bit FNV-1a finished with a murmur3 mix
+     */
+    private static long hash64(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
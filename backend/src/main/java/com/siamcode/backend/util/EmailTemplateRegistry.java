@@ -0,0 +1,112 @@
+package com.siamcode.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email HTML templates, loaded from classpath:email-templates/*.html and split
+ * once at startup into literal segments and {{placeholder}} slots. Rendering
+ * appends segments and values into a per-thread buffer, so no template text is
+ * re-scanned or re-formatted per email.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRegistry {
+
+    private static final String TEMPLATE_LOCATION = "classpath:email-templates/*.html";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+
+    private final ThreadLocal<StringBuilder> renderBuffer = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    @jakarta.annotation.PostConstruct
+    public void loadTemplates() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                String name = filename.substring(0, filename.length() - ".html".length());
+                templates.put(name, EmailTemplate.parse(name, source));
+            }
+        }
+        log.info("Loaded {} email templates: {}", templates.size(), templates.keySet());
+    }
+
+    /**
+     * Render a template with the given placeholder values. Missing values are
+     * rendered as "null", matching String.format.
+     */
+    public String render(String templateName, Map<String, ?> values) {
+        EmailTemplate template = templates.get(templateName);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + templateName);
+        }
+
+        StringBuilder buffer = renderBuffer.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, values);
+        String result = buffer.toString();
+
+        // Don't let one huge email pin a large buffer to the thread forever
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            renderBuffer.remove();
+        }
+        return result;
+    }
+
+    /**
+     * A template pre-split into literals[0] slot[0] literals[1] ... slot[n-1] literals[n]
+     */
+    static final class EmailTemplate {
+        private final String[] literals;
+        private final String[] slots;
+
+        private EmailTemplate(String[] literals, String[] slots) {
+            this.literals = literals;
+            this.slots = slots;
+        }
+
+        static EmailTemplate parse(String name, String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> slots = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int open = source.indexOf("{{", position);
+                if (open < 0) {
+                    break;
+                }
+                int close = source.indexOf("}}", open + 2);
+                if (close < 0) {
+                    throw new IllegalStateException("Unclosed placeholder in email template " + name);
+                }
+                literals.add(source.substring(position, open));
+                slots.add(source.substring(open + 2, close).trim());
+                position = close + 2;
+            }
+            literals.add(source.substring(position));
+            return new EmailTemplate(literals.toArray(String[]::new), slots.toArray(String[]::new));
+        }
+
+        void renderTo(StringBuilder out, Map<String, ?> values) {
+            for (int i = 0; i < slots.length; i++) {
+                out.append(literals[i]).append(values.get(slots[i]));
+            }
+            out.append(literals[slots.length]);
+        }
+    }
+}
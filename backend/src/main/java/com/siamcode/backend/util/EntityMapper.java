@@ -27,7 +27,9 @@ public class EntityMapper {
                 team.getDescription(),
                 team.getOwnerUserId(),
                 team.getCreatedAt(),
-                team.getInviteCode());
+                team.getInviteCode(),
+                team.getTimezone(),
+                team.getReminderTime());
     }
 
     public StandupResponse toStandupResponse(Standup standup, String userName) {
@@ -43,7 +45,8 @@ public class EntityMapper {
                 standup.getTodayText(),
                 standup.getBlockersText(),
                 standup.getCreatedAt(),
-                standup.getUpdatedAt());
+                standup.getUpdatedAt(),
+                standup.getVersion());
     }
 
     public StandupSummaryResponse toStandupSummaryResponse(StandupSummary summary) {
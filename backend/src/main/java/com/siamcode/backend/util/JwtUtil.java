@@ -1,6 +1,8 @@
 package com.siamcode.backend.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,7 +10,14 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
@@ -16,15 +25,44 @@ public class JwtUtil {
     @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationAndValidation12345}")
     private String secret;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
+    @Value("${jwt.expiration:900000}") // 15 minutes in milliseconds
     private Long expiration;
 
+    // Users in more teams than this get no membership claim and fall back to
+    // a database lookup, keeping tokens small
+    @Value("${jwt.membership.max.teams:32}")
+    private int maxMembershipTeams;
+
+    // Recently verified tokens, so a client's repeated requests skip the
+    // base64/JSON decoding and HMAC check
+    @Value("${jwt.verified.cache.size:10000}")
+    private int verifiedCacheSize;
+
+    public static final String TEAMS_CLAIM = "tms";
+    public static final String MEMBERSHIP_VERSION_CLAIM = "mv";
+
+    private static final long CACHE_SWEEP_INTERVAL_MS = 1000;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Keyed by the full token string, so a hit means the exact bytes were verified
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private volatile long lastCacheSweep;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     public String generateToken(Long userId) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
@@ -32,24 +70,104 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Generate a token that also carries the user's accepted team ids and the
+     * membership version they were read at
+     */
+    public String generateToken(Long userId, Collection<Long> teamIds, long membershipVersion) {
+        if (teamIds.size() > maxMembershipTeams) {
+            return generateToken(userId);
+        }
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(userId.toString())
+                .claim(TEAMS_CLAIM, List.copyOf(teamIds))
+                .claim(MEMBERSHIP_VERSION_CLAIM, membershipVersion)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(getSigningKey())
+                .compact();
+    }
+
+    /**
+     * Verify a token and return its claims, or null if it is malformed, has a
+     * bad signature or has expired. Each token is verified once and then served
+     * from a bounded cache until its own expiry.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (now < cached.expiresAt()) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(token);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        if (claims.getExpiration() != null) {
+            cacheVerified(token, new VerifiedToken(claims, claims.getExpiration().getTime()), now);
+        }
+        return claims;
+    }
+
+    private void cacheVerified(String token, VerifiedToken verified, long now) {
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            if (now - lastCacheSweep < CACHE_SWEEP_INTERVAL_MS) {
+                return;
+            }
+            lastCacheSweep = now;
+            verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                return;
+            }
+        }
+        verifiedTokens.put(token, verified);
+    }
+
+    /**
+     * Team ids from the membership claim, or null if the token has none
+     */
+    public Set<Long> getTeamIds(Claims claims) {
+        Object raw = claims.get(TEAMS_CLAIM);
+        if (!(raw instanceof Collection<?> values) || !(claims.get(MEMBERSHIP_VERSION_CLAIM) instanceof Number)) {
+            return null;
+        }
+        Set<Long> teamIds = new HashSet<>();
+        for (Object value : values) {
+            teamIds.add(((Number) value).longValue());
+        }
+        return teamIds;
+    }
+
+    public Long getMembershipVersion(Claims claims) {
+        Object raw = claims.get(MEMBERSHIP_VERSION_CLAIM);
+        return raw instanceof Number number ? number.longValue() : null;
+    }
+
+    public long getExpirationMs() {
+        return expiration;
+    }
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parseVerifiedClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired token");
+        }
         return Long.parseLong(claims.getSubject());
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseVerifiedClaims(token) != null;
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
 }
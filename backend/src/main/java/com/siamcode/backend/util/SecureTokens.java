@@ -0,0 +1,42 @@
+package com.siamcode.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Random opaque tokens (refresh, verification, password reset) and the hash
+ * they are stored under. Only the hash is persisted; the raw token is handed
+ * to the user once.
+ */
+public final class SecureTokens {
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private SecureTokens() {
+    }
+
+    /**
+     * 256 random bits, URL-safe base64 without padding (43 characters)
+     */
+    public static String generate() {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Hex SHA-256 of the token, used as its lookup key in the database
+     */
+    public static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
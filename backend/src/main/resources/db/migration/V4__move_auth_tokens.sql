@@ -0,0 +1,31 @@
+-- Move email verification and password reset tokens out of users into their
+-- own table, stored as SHA-256 hashes
+CREATE TABLE IF NOT EXISTS auth_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    purpose VARCHAR(32) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_user_purpose ON auth_tokens (user_id, purpose);
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_expires_at ON auth_tokens (expires_at);
+
+-- Carry over tokens that are still valid so outstanding emails keep working
+INSERT INTO auth_tokens (token_hash, user_id, purpose, expires_at, created_at)
+SELECT encode(sha256(verification_token::bytea), 'hex'), id, 'EMAIL_VERIFICATION', token_expiry, CURRENT_TIMESTAMP
+FROM users
+WHERE verification_token IS NOT NULL AND token_expiry > CURRENT_TIMESTAMP
+ON CONFLICT (token_hash) DO NOTHING;
+
+INSERT INTO auth_tokens (token_hash, user_id, purpose, expires_at, created_at)
+SELECT encode(sha256(password_reset_token::bytea), 'hex'), id, 'PASSWORD_RESET', token_expiry, CURRENT_TIMESTAMP
+FROM users
+WHERE password_reset_token IS NOT NULL AND token_expiry > CURRENT_TIMESTAMP
+ON CONFLICT (token_hash) DO NOTHING;
+
+ALTER TABLE users
+DROP COLUMN IF EXISTS verification_token,
+DROP COLUMN IF EXISTS password_reset_token,
+DROP COLUMN IF EXISTS token_expiry;
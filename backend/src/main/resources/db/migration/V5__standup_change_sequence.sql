@@ -0,0 +1,34 @@
+-- Per-team change sequence for standup delta sync
+ALTER TABLE teams
+ADD COLUMN IF NOT EXISTS standup_change_seq BIGINT DEFAULT 0,
+ADD COLUMN IF NOT EXISTS standup_tombstone_horizon BIGINT DEFAULT 0;
+
+ALTER TABLE standups
+ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT 0;
+
+-- Number existing standups per team in the order they last changed
+UPDATE standups s
+SET change_seq = numbered.seq
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY team_id ORDER BY COALESCE(updated_at, created_at), id) AS seq
+    FROM standups
+) numbered
+WHERE s.id = numbered.id;
+
+UPDATE teams t
+SET standup_change_seq = COALESCE((SELECT MAX(s.change_seq) FROM standups s WHERE s.team_id = t.id), 0);
+
+CREATE INDEX IF NOT EXISTS idx_standups_team_change_seq ON standups (team_id, change_seq);
+
+-- Deleted standups, kept for the retention period so clients learn about deletions
+CREATE TABLE IF NOT EXISTS standup_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    team_id BIGINT NOT NULL,
+    standup_id BIGINT NOT NULL UNIQUE,
+    date DATE NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_standup_tombstones_team_seq ON standup_tombstones (team_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_standup_tombstones_deleted_at ON standup_tombstones (deleted_at);
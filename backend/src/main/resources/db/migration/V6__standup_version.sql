@@ -0,0 +1,3 @@
+-- Optimistic locking for standup edits (sent back by clients as If-Match)
+ALTER TABLE standups
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- Move the standup change counter off the teams row: it changes on every
+-- standup write, which would keep invalidating cached teams
+CREATE TABLE IF NOT EXISTS team_standup_sequences (
+    team_id BIGINT PRIMARY KEY,
+    change_seq BIGINT NOT NULL,
+    tombstone_horizon BIGINT NOT NULL
+);
+
+INSERT INTO team_standup_sequences (team_id, change_seq, tombstone_horizon)
+SELECT id, COALESCE(standup_change_seq, 0), COALESCE(standup_tombstone_horizon, 0)
+FROM teams
+ON CONFLICT (team_id) DO NOTHING;
+
+ALTER TABLE teams
+DROP COLUMN IF EXISTS standup_change_seq,
+DROP COLUMN IF EXISTS standup_tombstone_horizon;
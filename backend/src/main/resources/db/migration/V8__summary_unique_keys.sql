@@ -0,0 +1,22 @@
+-- One daily summary per team and date, one weekly summary per team and week,
+-- so a backfill racing a manual generate cannot write both. Of existing
+-- duplicates the newest is kept.
+DELETE FROM standup_summaries s
+USING standup_summaries newer
+WHERE newer.team_id = s.team_id AND newer.date = s.date AND newer.id > s.id;
+
+DELETE FROM weekly_summaries s
+USING weekly_summaries newer
+WHERE newer.team_id = s.team_id AND newer.week_start_date = s.week_start_date AND newer.id > s.id;
+
+DO $$
+BEGIN
+    ALTER TABLE standup_summaries ADD CONSTRAINT uk_summary_team_date UNIQUE (team_id, date);
+EXCEPTION WHEN duplicate_table OR duplicate_object THEN NULL;
+END $$;
+
+DO $$
+BEGIN
+    ALTER TABLE weekly_summaries ADD CONSTRAINT uk_weekly_summary_team_week UNIQUE (team_id, week_start_date);
+EXCEPTION WHEN duplicate_table OR duplicate_object THEN NULL;
+END $$;
@@ -0,0 +1,5 @@
+-- Blocker digests claim their alerts in the table, so with several
+-- instances each alert goes out once and is only removed once sent
+ALTER TABLE blocker_alerts
+ADD COLUMN IF NOT EXISTS claim_token VARCHAR(36),
+ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP;
@@ -6,6 +6,15 @@
 -- ============================================================================
 
 -- Drop tables if they exist (for clean reinstall)
+DROP TABLE IF EXISTS team_shards CASCADE;
+DROP TABLE IF EXISTS email_suppressions CASCADE;
+DROP TABLE IF EXISTS revoked_tokens CASCADE;
+DROP TABLE IF EXISTS refresh_tokens CASCADE;
+DROP TABLE IF EXISTS auth_tokens CASCADE;
+DROP TABLE IF EXISTS blocker_alerts CASCADE;
+DROP TABLE IF EXISTS team_standup_sequences CASCADE;
+DROP TABLE IF EXISTS standup_tombstones CASCADE;
+DROP TABLE IF EXISTS weekly_summaries CASCADE;
 DROP TABLE IF EXISTS standup_summaries CASCADE;
 DROP TABLE IF EXISTS standups CASCADE;
 DROP TABLE IF EXISTS team_members CASCADE;
@@ -71,10 +80,12 @@ CREATE INDEX idx_team_members_user ON team_members(user_id);
 
 -- ============================================================================
 -- Standups Table
--- Stores daily standup submissions from team members
+-- Stores daily standup submissions from team members. On PostgreSQL the
+-- application converts it at startup into a table partitioned by month of
+-- date, which is why date is part of the primary key.
 -- ============================================================================
 CREATE TABLE standups (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL NOT NULL,
     team_id BIGINT NOT NULL,
     user_id BIGINT NOT NULL,
     date DATE NOT NULL,
@@ -83,6 +94,9 @@ CREATE TABLE standups (
     blockers_text TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    change_seq BIGINT DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, date),
     CONSTRAINT fk_standups_team FOREIGN KEY (team_id) 
         REFERENCES teams(id) ON DELETE CASCADE,
     CONSTRAINT fk_standups_user FOREIGN KEY (user_id) 
@@ -94,6 +108,52 @@ CREATE TABLE standups (
 CREATE INDEX idx_standups_team_date ON standups(team_id, date);
 CREATE INDEX idx_standups_user ON standups(user_id);
 CREATE INDEX idx_standups_date ON standups(date);
+CREATE INDEX idx_standups_team_created ON standups(team_id, created_at, id);
+CREATE INDEX idx_standups_team_change_seq ON standups(team_id, change_seq);
+CREATE INDEX idx_standups_team_date_seq ON standups(team_id, date, change_seq);
+
+-- ============================================================================
+-- Standup Tombstones Table
+-- Deleted standups, kept for the retention period so delta-sync clients
+-- learn about deletions
+-- ============================================================================
+CREATE TABLE standup_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    team_id BIGINT NOT NULL,
+    standup_id BIGINT NOT NULL UNIQUE,
+    date DATE NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_standup_tombstones_team_seq ON standup_tombstones(team_id, change_seq);
+CREATE INDEX idx_standup_tombstones_deleted_at ON standup_tombstones(deleted_at);
+
+-- ============================================================================
+-- Team Standup Sequences Table
+-- Per-team counter of standup changes for delta sync
+-- ============================================================================
+CREATE TABLE team_standup_sequences (
+    team_id BIGINT PRIMARY KEY,
+    change_seq BIGINT NOT NULL,
+    tombstone_horizon BIGINT NOT NULL
+);
+
+-- ============================================================================
+-- Blocker Alerts Table
+-- Blockers waiting for the next digest to the team owner
+-- ============================================================================
+CREATE TABLE blocker_alerts (
+    id BIGSERIAL PRIMARY KEY,
+    standup_id BIGINT NOT NULL UNIQUE,
+    team_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    user_name VARCHAR(255) NOT NULL,
+    blockers_text TEXT,
+    reported_at TIMESTAMP NOT NULL,
+    claim_token VARCHAR(36),
+    claimed_at TIMESTAMP
+);
 
 -- ============================================================================
 -- Standup Summaries Table
@@ -114,6 +174,93 @@ CREATE TABLE standup_summaries (
 -- Indexes for standup_summaries table
 CREATE INDEX idx_summaries_team_date ON standup_summaries(team_id, date);
 CREATE INDEX idx_summaries_date ON standup_summaries(date);
+CREATE INDEX idx_standup_summaries_team_created ON standup_summaries(team_id, created_at, id);
+
+-- ============================================================================
+-- Weekly Summaries Table
+-- Stores AI-generated weekly summaries sent to team owners
+-- ============================================================================
+CREATE TABLE weekly_summaries (
+    id BIGSERIAL PRIMARY KEY,
+    team_id BIGINT NOT NULL,
+    week_start_date DATE NOT NULL,
+    week_end_date DATE NOT NULL,
+    summary_text TEXT,
+    sent_to_owner BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_weekly_summary_team_week UNIQUE (team_id, week_start_date)
+);
+
+-- ============================================================================
+-- Auth Tokens Table
+-- Email verification and password reset tokens, stored as SHA-256 hashes
+-- ============================================================================
+CREATE TABLE auth_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    purpose VARCHAR(32) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_auth_tokens_user_purpose ON auth_tokens(user_id, purpose);
+CREATE INDEX idx_auth_tokens_expires_at ON auth_tokens(expires_at);
+
+-- ============================================================================
+-- Refresh Tokens Table
+-- Rotating refresh tokens, stored as SHA-256 hashes and grouped in families
+-- ============================================================================
+CREATE TABLE refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP,
+    rotated_at TIMESTAMP
+);
+
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens(user_id);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens(family_id);
+
+-- ============================================================================
+-- Revoked Tokens Table
+-- Access tokens revoked before they expire (token_id NULL revokes all of the
+-- user's tokens issued up to revoked_at); times are epoch seconds
+-- ============================================================================
+CREATE TABLE revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_id VARCHAR(36),
+    user_id BIGINT NOT NULL,
+    revoked_at BIGINT NOT NULL,
+    expires_at BIGINT NOT NULL
+);
+
+-- ============================================================================
+-- Email Suppressions Table
+-- Addresses that bounced or complained, reported by the Resend webhook
+-- ============================================================================
+CREATE TABLE email_suppressions (
+    id BIGSERIAL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    reason VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    last_event_at TIMESTAMP NOT NULL
+);
+
+-- ============================================================================
+-- Team Shards Table
+-- Directory of the shard holding each team's data (teams without an entry
+-- are on shard 0, the primary)
+-- ============================================================================
+CREATE TABLE team_shards (
+    team_id BIGINT PRIMARY KEY,
+    shard_id INT NOT NULL,
+    moving BOOLEAN NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
 
 -- ============================================================================
 -- Comments and Documentation
@@ -124,6 +271,15 @@ COMMENT ON TABLE teams IS 'Stores team information with soft delete support';
 COMMENT ON TABLE team_members IS 'Junction table linking users to teams with roles';
 COMMENT ON TABLE standups IS 'Daily standup submissions from team members';
 COMMENT ON TABLE standup_summaries IS 'AI-generated summaries of team standups';
+COMMENT ON TABLE weekly_summaries IS 'AI-generated weekly summaries for team owners';
+COMMENT ON TABLE standup_tombstones IS 'Deleted standups, for delta sync';
+COMMENT ON TABLE team_standup_sequences IS 'Per-team standup change counters';
+COMMENT ON TABLE blocker_alerts IS 'Blockers waiting for the owner digest';
+COMMENT ON TABLE auth_tokens IS 'Hashed email verification and password reset tokens';
+COMMENT ON TABLE refresh_tokens IS 'Hashed rotating refresh tokens';
+COMMENT ON TABLE revoked_tokens IS 'Access tokens revoked before expiry';
+COMMENT ON TABLE email_suppressions IS 'Addresses no longer mailed';
+COMMENT ON TABLE team_shards IS 'Shard of each team';
 
 COMMENT ON COLUMN teams.deleted IS 'Soft delete flag - true means team is deleted';
 COMMENT ON COLUMN standup_summaries.generated_by_ai IS 'Indicates if summary was AI-generated';
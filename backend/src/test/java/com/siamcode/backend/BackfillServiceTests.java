@@ -0,0 +1,222 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.BackfillRequest;
+import com.siamcode.backend.dto.response.BackfillJobResponse;
+import com.siamcode.backend.dto.response.StandupSummaryResponse;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.StandupSummary;
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.exception.BadRequestException;
+import com.siamcode.backend.exception.ResourceNotFoundException;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.repository.StandupSummaryRepository;
+import com.siamcode.backend.repository.TeamRepository;
+import com.siamcode.backend.service.AIService;
+import com.siamcode.backend.service.BackfillService;
+import com.siamcode.backend.service.StandupSummaryService;
+import com.siamcode.backend.service.TeamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"backfill.ai.requests.per.minute=600000",
+		"backfill.jobs.retention.ms=0"
+})
+class BackfillServiceTests {
+
+	@Autowired
+	private BackfillService backfillService;
+
+	@Autowired
+	private TeamService teamService;
+
+	@Autowired
+	private TeamRepository teamRepository;
+
+	@Autowired
+	private StandupRepository standupRepository;
+
+	@Autowired
+	private StandupSummaryRepository standupSummaryRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@MockitoSpyBean
+	private StandupSummaryService standupSummaryService;
+
+	@MockitoBean
+	private AIService aiService;
+
+	private User owner;
+	private Long teamId;
+	private LocalDate today;
+
+	@BeforeEach
+	void setUp() {
+		when(aiService.generateStandupSummary(anyList())).thenReturn("Summary");
+		owner = fixtures.createUser("Backfill Test");
+		teamId = fixtures.createTeam("Backfill Team", owner);
+		today = teamService.getTeamToday(teamId);
+	}
+
+	@Test
+	void rerunSkipsDaysAlreadySummarized() {
+		submitStandup(today.minusDays(3));
+		submitStandup(today.minusDays(2));
+
+		BackfillJobResponse first = awaitCompletion(startJob(today.minusDays(3), today.minusDays(1), 2));
+		assertThat(first.getCreatedCount()).isEqualTo(2);
+		assertThat(first.getSkippedCount()).isEqualTo(1);
+
+		BackfillJobResponse second = awaitCompletion(startJob(today.minusDays(3), today.minusDays(1), 2));
+		assertThat(second.getCreatedCount()).isZero();
+		assertThat(second.getSkippedCount()).isEqualTo(3);
+		assertThat(standupSummaryRepository.findByTeamIdAndDate(teamId, today.minusDays(3))).isPresent();
+	}
+
+	@Test
+	void summaryWrittenConcurrentlyCountsAsSkipped() {
+		submitStandup(today.minusDays(1));
+		doThrow(new DataIntegrityViolationException("uk_summary_team_date"))
+				.when(standupSummaryService).backfillSummary(eq(teamId), any());
+
+		BackfillJobResponse job = awaitCompletion(startJob(today.minusDays(1), today.minusDays(1), 1));
+
+		assertThat(job.getSkippedCount()).isEqualTo(1);
+		assertThat(job.getFailedCount()).isZero();
+	}
+
+	@Test
+	void regeneratingReplacesTheSummary() {
+		submitStandup(today.minusDays(1));
+		Long firstId = standupSummaryService.generateSummary(teamId, today.minusDays(1), owner.getId()).getId();
+		when(aiService.generateStandupSummary(anyList())).thenReturn("Regenerated");
+
+		StandupSummaryResponse regenerated = standupSummaryService.generateSummary(teamId, today.minusDays(1),
+				owner.getId());
+
+		// A new id, so the summary's ETag and cached responses change with it
+		assertThat(regenerated.getId()).isNotEqualTo(firstId);
+		assertThat(regenerated.getSummaryText()).isEqualTo("Regenerated");
+		StandupSummary stored = standupSummaryRepository.findByTeamIdAndDate(teamId, today.minusDays(1)).orElseThrow();
+		assertThat(stored.getId()).isEqualTo(regenerated.getId());
+		assertThat(standupSummaryRepository.findById(firstId)).isEmpty();
+	}
+
+	@Test
+	void summariesAreUniquePerTeamAndDate() {
+		standupSummaryRepository.save(summary(today.minusDays(1)));
+
+		assertThatThrownBy(() -> standupSummaryRepository.save(summary(today.minusDays(1))))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void endDateMustBeBeforeTodayInTheTeamsZone() {
+		// Already tomorrow there for most of the day wherever the server is
+		Team team = teamRepository.findById(teamId).orElseThrow();
+		team.setTimezone("Pacific/Kiritimati");
+		teamRepository.save(team);
+		LocalDate teamToday = LocalDate.now(ZoneId.of("Pacific/Kiritimati"));
+
+		assertThatThrownBy(() -> startJob(teamToday.minusDays(1), teamToday, 1))
+				.isInstanceOf(BadRequestException.class);
+		assertThat(startJob(teamToday.minusDays(1), teamToday.minusDays(1), 1).getStatus()).isNotNull();
+	}
+
+	@Test
+	void resumingRightAfterPausingKeepsParallelism() throws InterruptedException {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		doAnswer(invocation -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20);
+				return invocation.callRealMethod();
+			} finally {
+				running.decrementAndGet();
+			}
+		}).when(standupSummaryService).needsBackfill(eq(teamId), any());
+
+		BackfillJobResponse job = startJob(today.minusDays(30), today.minusDays(1), 2);
+		for (int i = 0; i < 5; i++) {
+			backfillService.pauseJob(job.getId(), owner.getId());
+			backfillService.resumeJob(job.getId(), owner.getId());
+		}
+
+		BackfillJobResponse done = awaitCompletion(job);
+		assertThat(done.getProcessedTasks()).isEqualTo(30);
+		assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void finishedJobsAreForgottenAfterRetention() {
+		BackfillJobResponse job = awaitCompletion(startJob(today.minusDays(1), today.minusDays(1), 1));
+
+		backfillService.purgeFinishedJobs();
+
+		assertThatThrownBy(() -> backfillService.getJob(job.getId(), owner.getId()))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private BackfillJobResponse startJob(LocalDate start, LocalDate end, int parallelism) {
+		return backfillService.startJob(new BackfillRequest(List.of(teamId), start, end, true, false, parallelism),
+				owner.getId());
+	}
+
+	private BackfillJobResponse awaitCompletion(BackfillJobResponse job) {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (true) {
+			BackfillJobResponse current = backfillService.getJob(job.getId(), owner.getId());
+			if (current.getStatus().equals("COMPLETED")) {
+				return current;
+			}
+			assertThat(System.currentTimeMillis()).as("job %s finished", job.getId()).isLessThan(deadline);
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private void submitStandup(LocalDate date) {
+		Standup standup = new Standup();
+		standup.setTeamId(teamId);
+		standup.setUserId(owner.getId());
+		standup.setDate(date);
+		standup.setYesterdayText("Yesterday");
+		standup.setTodayText("Today");
+		standupRepository.save(standup);
+	}
+
+	private StandupSummary summary(LocalDate date) {
+		StandupSummary summary = new StandupSummary();
+		summary.setTeamId(teamId);
+		summary.setDate(date);
+		summary.setSummaryText("Summary");
+		summary.setGeneratedByAi(true);
+		return summary;
+	}
+}
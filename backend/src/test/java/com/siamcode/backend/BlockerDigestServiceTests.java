@@ -0,0 +1,135 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.repository.BlockerAlertRepository;
+import com.siamcode.backend.service.BlockerDigestService;
+import com.siamcode.backend.service.EmailService;
+import com.siamcode.backend.service.StandupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Digests are driven by the blocker_alerts table. Each call to sendDigests
+ * stands for one window on any instance.
+ */
+@SpringBootTest
+class BlockerDigestServiceTests {
+
+	@Autowired
+	private BlockerDigestService blockerDigestService;
+
+	@Autowired
+	private StandupService standupService;
+
+	@Autowired
+	private BlockerAlertRepository blockerAlertRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@MockitoBean
+	private EmailService emailService;
+
+	private User owner;
+	private Long teamId;
+	private CompletableFuture<String> delivery;
+
+	@BeforeEach
+	void setUp() {
+		when(emailService.sendTemplatedEmail(anyString(), anyString(), anyString(), anyMap()))
+				.thenReturn(CompletableFuture.completedFuture("other"));
+		owner = fixtures.createUser("Digest Test");
+		teamId = fixtures.createTeam("Digest Team", owner);
+		delivery = new CompletableFuture<>();
+		when(emailService.sendTemplatedEmail(eq(owner.getEmail()), anyString(), eq("blocker-digest"), anyMap()))
+				.thenAnswer(invocation -> delivery);
+	}
+
+	@Test
+	void alertIsMailedOnceAndDeletedWhenSent() {
+		StandupResponse standup = submit("Waiting on review");
+
+		blockerDigestService.sendDigests();
+		// Another instance's window while the email is still in flight
+		blockerDigestService.sendDigests();
+
+		verifyDigests(1);
+		assertThat(blockerAlertRepository.findByStandupId(standup.getId())).isPresent();
+
+		delivery.complete("email-id");
+		assertThat(blockerAlertRepository.findByStandupId(standup.getId())).isEmpty();
+	}
+
+	@Test
+	void failedDigestIsRetriedNextWindow() {
+		StandupResponse standup = submit("Waiting on review");
+
+		blockerDigestService.sendDigests();
+		delivery.completeExceptionally(new IllegalStateException("Resend returned status 503"));
+		assertThat(blockerAlertRepository.findByStandupId(standup.getId())).isPresent();
+
+		delivery = CompletableFuture.completedFuture("email-id");
+		blockerDigestService.sendDigests();
+
+		verifyDigests(2);
+		assertThat(blockerAlertRepository.findByStandupId(standup.getId())).isEmpty();
+	}
+
+	@Test
+	void clearedBlockerIsNotMailed() {
+		StandupResponse standup = submit("Waiting on review");
+		standupService.updateStandup(standup.getId(), owner.getId(), null,
+				new CreateStandupRequest("Yesterday", "Today", " "));
+
+		blockerDigestService.sendDigests();
+
+		verifyDigests(0);
+		assertThat(blockerAlertRepository.findByStandupId(standup.getId())).isEmpty();
+	}
+
+	@Test
+	void editWhileSendingGoesOutInTheNextDigest() {
+		StandupResponse standup = submit("Waiting on review");
+		blockerDigestService.sendDigests();
+
+		standupService.updateStandup(standup.getId(), owner.getId(), null,
+				new CreateStandupRequest("Yesterday", "Today", "Still waiting on review"));
+		delivery.complete("email-id");
+		assertThat(blockerAlertRepository.findByStandupId(standup.getId())).isPresent();
+
+		delivery = CompletableFuture.completedFuture("email-id");
+		blockerDigestService.sendDigests();
+
+		verifyDigests(2);
+		assertThat(blockerAlertRepository.findByStandupId(standup.getId())).isEmpty();
+	}
+
+	private void verifyDigests(int count) {
+		verify(emailService, count == 0 ? never() : times(count))
+				.sendTemplatedEmail(eq(owner.getEmail()), anyString(), eq("blocker-digest"), any());
+		clearInvocations(emailService);
+	}
+
+	private StandupResponse submit(String blockers) {
+		return standupService.createStandup(teamId, owner.getId(),
+				new CreateStandupRequest("Yesterday", "Today", blockers));
+	}
+}
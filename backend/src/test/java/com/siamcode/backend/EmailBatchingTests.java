@@ -0,0 +1,185 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.service.EmailService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Batching against a stub of the Resend API. Batches hold three emails and
+ * are flushed every 1.5 s.
+ */
+@SpringBootTest(properties = {
+		"resend.api.key=re_test",
+		"resend.batch.size=3",
+		"resend.batch.flush.ms=1500"
+})
+class EmailBatchingTests {
+
+	private static final List<Request> REQUESTS = new CopyOnWriteArrayList<>();
+	private static final HttpServer RESEND = startResend();
+	// Status and body for a request path and its recipients
+	private static volatile BiFunction<String, List<String>, Response> responder;
+
+	@Autowired
+	private EmailService emailService;
+
+	private final String domain = UUID.randomUUID() + ".test";
+
+	record Request(String path, List<String> recipients) {
+	}
+
+	record Response(int status, String body) {
+	}
+
+	@DynamicPropertySource
+	static void resendUrl(DynamicPropertyRegistry registry) {
+		registry.add("resend.api.url", () -> "http://localhost:" + RESEND.getAddress().getPort());
+	}
+
+	@AfterAll
+	static void stopResend() {
+		RESEND.stop(0);
+	}
+
+	@BeforeEach
+	void acceptEverything() {
+		responder = (path, recipients) -> path.endsWith("/batch")
+				? new Response(200, "{\"data\":[" + recipients.stream().map(to -> "{\"id\":\"" + to + "\"}")
+						.collect(Collectors.joining(",")) + "]}")
+				: new Response(200, "{\"id\":\"" + recipients.get(0) + "\"}");
+	}
+
+	@Test
+	void fullBatchIsSentAtOnceAndIdsMapByPosition() throws Exception {
+		List<CompletableFuture<String>> results = send("a", "b", "c");
+
+		// Well before the flush interval
+		assertThat(results.get(2).get(1, TimeUnit.SECONDS)).isEqualTo(address("c"));
+		assertThat(results.get(0).get()).isEqualTo(address("a"));
+		assertThat(results.get(1).get()).isEqualTo(address("b"));
+		assertThat(requests()).containsExactly(new Request("/emails/batch", addresses("a", "b", "c")));
+	}
+
+	@Test
+	void partialBatchIsSentWhenTheIntervalElapses() throws Exception {
+		List<CompletableFuture<String>> results = send("a", "b");
+
+		assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(address("b"));
+		assertThat(results.get(0).get()).isEqualTo(address("a"));
+		assertThat(requests()).containsExactly(new Request("/emails/batch", addresses("a", "b")));
+	}
+
+	@Test
+	void rejectedBatchIsRetriedOneByOne() throws Exception {
+		responder = (path, recipients) -> {
+			if (path.endsWith("/batch") || recipients.contains(address("bad"))) {
+				return new Response(422, "{\"message\":\"Invalid `to` field\"}");
+			}
+			return new Response(200, "{\"id\":\"single-" + recipients.get(0) + "\"}");
+		};
+
+		List<CompletableFuture<String>> results = send("a", "bad", "c");
+
+		assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("single-" + address("a"));
+		assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEqualTo("single-" + address("c"));
+		assertThatThrownBy(() -> results.get(1).get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+		assertThat(requests()).extracting(Request::path)
+				.containsExactly("/emails/batch", "/emails", "/emails", "/emails");
+	}
+
+	@Test
+	void serverErrorFailsTheWholeBatch() {
+		responder = (path, recipients) -> new Response(503, "{\"message\":\"Unavailable\"}");
+
+		List<CompletableFuture<String>> results = send("a", "b", "c");
+
+		for (CompletableFuture<String> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasMessageContaining("503");
+		}
+		assertThat(requests()).containsExactly(new Request("/emails/batch", addresses("a", "b", "c")));
+	}
+
+	private List<CompletableFuture<String>> send(String... names) {
+		List<CompletableFuture<String>> results = new ArrayList<>();
+		for (String name : names) {
+			results.add(emailService.sendTemplatedEmail(address(name), "Subject", "welcome",
+					Map.of("userName", name)));
+		}
+		return results;
+	}
+
+	/**
+	 * Requests for this test's addresses (other beans may send mail too)
+	 */
+	private List<Request> requests() {
+		return REQUESTS.stream()
+				.filter(request -> request.recipients().stream().anyMatch(to -> to.endsWith("@" + domain)))
+				.collect(Collectors.toList());
+	}
+
+	private String address(String name) {
+		return name + "@" + domain;
+	}
+
+	private List<String> addresses(String... names) {
+		List<String> addresses = new ArrayList<>();
+		for (String name : names) {
+			addresses.add(address(name));
+		}
+		return addresses;
+	}
+
+	private static HttpServer startResend() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/emails", exchange -> {
+				String path = exchange.getRequestURI().getPath();
+				JsonNode body = new ObjectMapper().readTree(exchange.getRequestBody());
+				List<String> recipients = new ArrayList<>();
+				for (JsonNode email : body.isArray() ? body : List.of(body)) {
+					recipients.add(email.path("to").path(0).asString());
+				}
+				REQUESTS.add(new Request(path, recipients));
+
+				Response response = responder.apply(path, recipients);
+				byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(response.status(), bytes.length);
+				exchange.getResponseBody().write(bytes);
+				exchange.close();
+			});
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.response.FeedItemResponse;
+import com.siamcode.backend.dto.response.FeedPageResponse;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.StandupSummary;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.repository.StandupSummaryRepository;
+import com.siamcode.backend.service.FeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walking the feed with its cursor returns every item exactly once, newest
+ * first, whatever the page size. Timestamps are shared across teams and item
+ * types so pages keep ending in the middle of ties.
+ */
+@SpringBootTest
+class FeedServiceTests {
+
+	private static final int TEAMS = 3;
+	private static final int STANDUPS_PER_TEAM = 15;
+	private static final int SUMMARIES_PER_TEAM = 4;
+	private static final int DISTINCT_TIMES = 5;
+
+	@Autowired
+	private FeedService feedService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private StandupRepository standupRepository;
+
+	@Autowired
+	private StandupSummaryRepository standupSummaryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User user;
+	private final List<Item> items = new ArrayList<>();
+	private LocalDateTime base;
+
+	@BeforeEach
+	void setUp() {
+		user = fixtures.createUser("Feed Test");
+
+		base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(1);
+		int n = 0;
+		for (int t = 0; t < TEAMS; t++) {
+			Long teamId = fixtures.createTeam("Feed Team " + t, user);
+			for (int i = 0; i < STANDUPS_PER_TEAM; i++) {
+				addStandup(teamId, LocalDate.now().minusDays(i), base.minusMinutes(n++ % DISTINCT_TIMES));
+			}
+			for (int i = 0; i < SUMMARIES_PER_TEAM; i++) {
+				addSummary(teamId, LocalDate.now().minusDays(i), base.minusMinutes(n++ % DISTINCT_TIMES));
+			}
+		}
+		// The feed's order: newest first, standups before summaries, then highest id first
+		items.sort(Comparator.comparing(Item::createdAt, Comparator.reverseOrder())
+				.thenComparing(Item::type)
+				.thenComparing(Item::id, Comparator.reverseOrder()));
+	}
+
+	@Test
+	void cursorWalkReturnsEveryItemOnceInOrder() {
+		List<String> expected = items.stream().map(Item::key).toList();
+
+		for (int pageSize : new int[] { 1, 2, 3, 5, 7, 20, 100 }) {
+			assertThat(walk(pageSize)).as("page size %d", pageSize).containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	void itemsAddedDuringTheWalkDoNotShiftIt() {
+		List<String> expected = items.stream().map(Item::key).toList();
+
+		FeedPageResponse first = feedService.getFeed(user.getId(), null, 10);
+		Long teamId = first.getItems().getFirst().getTeamId();
+		// Newer than anything already served, so it belongs before the cursor
+		jdbcTemplate.update("INSERT INTO standups (team_id, user_id, date, created_at, change_seq, version) "
+				+ "VALUES (?, ?, ?, ?, 0, 0)", teamId, user.getId(), LocalDate.now().plusDays(1), base.plusMinutes(1));
+
+		List<String> walked = new ArrayList<>(keys(first));
+		walked.addAll(walkFrom(first.getNextCursor(), 10));
+		assertThat(walked).containsExactlyElementsOf(expected);
+	}
+
+	private List<String> walk(int pageSize) {
+		return walkFrom(null, pageSize);
+	}
+
+	private List<String> walkFrom(String cursor, int pageSize) {
+		List<String> walked = new ArrayList<>();
+		// Never more pages than items, or the cursor is going round in circles
+		for (int pages = 0; pages <= items.size(); pages++) {
+			FeedPageResponse page = feedService.getFeed(user.getId(), cursor, pageSize);
+			assertThat(page.getItems()).hasSizeLessThanOrEqualTo(pageSize);
+			walked.addAll(keys(page));
+			cursor = page.getNextCursor();
+			if (cursor == null) {
+				return walked;
+			}
+			assertThat(page.getItems()).hasSize(pageSize);
+		}
+		throw new AssertionError("Feed did not end after " + items.size() + " pages");
+	}
+
+	private static List<String> keys(FeedPageResponse page) {
+		return page.getItems().stream()
+				.map(item -> item.getType() + ":" + itemId(item))
+				.toList();
+	}
+
+	private static Long itemId(FeedItemResponse item) {
+		return item.getStandup() != null ? item.getStandup().getId() : item.getSummary().getId();
+	}
+
+	private void addStandup(Long teamId, LocalDate date, LocalDateTime createdAt) {
+		Standup standup = new Standup();
+		standup.setTeamId(teamId);
+		standup.setUserId(user.getId());
+		standup.setDate(date);
+		standup.setTodayText("Feed");
+		Long id = standupRepository.save(standup).getId();
+		jdbcTemplate.update("UPDATE standups SET created_at = ? WHERE id = ?", createdAt, id);
+		items.add(new Item("STANDUP", id, createdAt));
+	}
+
+	private void addSummary(Long teamId, LocalDate date, LocalDateTime createdAt) {
+		StandupSummary summary = new StandupSummary();
+		summary.setTeamId(teamId);
+		summary.setDate(date);
+		summary.setSummaryText("Feed");
+		Long id = standupSummaryRepository.save(summary).getId();
+		jdbcTemplate.update("UPDATE standup_summaries SET created_at = ? WHERE id = ?", createdAt, id);
+		items.add(new Item("SUMMARY", id, createdAt));
+	}
+
+	private record Item(String type, Long id, LocalDateTime createdAt) {
+
+		String key() {
+			return type + ":" + id;
+		}
+	}
+}
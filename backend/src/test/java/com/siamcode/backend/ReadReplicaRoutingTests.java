@@ -0,0 +1,122 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.service.CacheInvalidationBus;
+import com.siamcode.backend.service.TeamService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both pools point at the same in-memory database; each tags its connections
+ * with a session variable so a query can tell which pool it ran on.
+ */
+@SpringBootTest(properties = {
+		"replica.datasource.url=${spring.datasource.url}",
+		"spring.datasource.hikari.connection-init-sql=SET @POOL = 'primary'",
+		"replica.datasource.hikari.connection-init-sql=SET @POOL = 'replica'",
+		"replica.sticky.ms=300"
+})
+class ReadReplicaRoutingTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CacheInvalidationBus invalidationBus;
+
+	@Autowired
+	private TeamService teamService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsUseReplica() {
+		assertThat(poolUsed(true)).isEqualTo("replica");
+		assertThat(poolUsed(false)).isEqualTo("primary");
+	}
+
+	@Test
+	void usersReadTheirOwnWritesFromPrimary() throws InterruptedException {
+		authenticateAs(9001L);
+		poolUsed(false);
+		assertThat(poolUsed(true)).isEqualTo("primary");
+
+		authenticateAs(9002L);
+		assertThat(poolUsed(true)).isEqualTo("replica");
+
+		Thread.sleep(400);
+		authenticateAs(9001L);
+		assertThat(poolUsed(true)).isEqualTo("replica");
+	}
+
+	@Test
+	void rolledBackWritesDoNotStick() {
+		authenticateAs(9003L);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			jdbcTemplate.queryForObject("SELECT @POOL", String.class);
+			status.setRollbackOnly();
+		});
+		assertThat(poolUsed(true)).isEqualTo("replica");
+	}
+
+	@Test
+	void cachedDataChangesKeepAllReadsOnPrimary() throws InterruptedException {
+		invalidationBus.publish(Topic.TEAM, List.of(1L));
+		assertThat(poolUsed(true)).isEqualTo("primary");
+
+		Thread.sleep(400);
+		assertThat(poolUsed(true)).isEqualTo("replica");
+	}
+
+	@Test
+	void uncachedDataChangesLeaveReadsOnReplica() {
+		invalidationBus.publish(Topic.STANDUP_CHANGE, List.of(1L));
+		invalidationBus.publish(Topic.DAILY_SUMMARY, List.of(1L));
+		invalidationBus.publish(Topic.STANDUP_ARCHIVE, List.of(202401L));
+
+		assertThat(poolUsed(true)).isEqualTo("replica");
+	}
+
+	@Test
+	void readOnlyServiceMethodsUseReplica() {
+		double before = replicaReads();
+		teamService.getTeamsByUser(9004L);
+		assertThat(replicaReads()).isEqualTo(before + 1);
+	}
+
+	private String poolUsed(boolean readOnly) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(readOnly);
+		return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT @POOL", String.class));
+	}
+
+	private double replicaReads() {
+		return meterRegistry.get("datasource.routing.reads").tag("target", "replica").counter().count();
+	}
+
+	private static void authenticateAs(Long userId) {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+	}
+}
@@ -0,0 +1,126 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.entity.RefreshToken;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.exception.UnauthorizedException;
+import com.siamcode.backend.repository.RefreshTokenRepository;
+import com.siamcode.backend.service.RefreshTokenService;
+import com.siamcode.backend.service.RefreshTokenService.Rotation;
+import com.siamcode.backend.service.TokenRevocationService;
+import com.siamcode.backend.util.SecureTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RefreshTokenRotationTests {
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepository;
+
+	@Autowired
+	private TokenRevocationService tokenRevocationService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = fixtures.createUser("Refresh Test");
+	}
+
+	@Test
+	void rotationReplacesTheToken() {
+		String token = refreshTokenService.issue(user.getId());
+
+		Rotation rotation = refreshTokenService.rotate(token);
+
+		assertThat(rotation.userId()).isEqualTo(user.getId());
+		assertThat(rotation.refreshToken()).isNotEqualTo(token);
+		assertThat(refreshTokenService.rotate(rotation.refreshToken()).userId()).isEqualTo(user.getId());
+	}
+
+	@Test
+	void reuseAfterGraceRevokesEverything() {
+		String token = refreshTokenService.issue(user.getId());
+		String successor = refreshTokenService.rotate(token).refreshToken();
+		rotatedLongAgo(token);
+		long issuedAt = Instant.now().getEpochSecond() - 1;
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(token)).isInstanceOf(UnauthorizedException.class);
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(successor)).isInstanceOf(UnauthorizedException.class);
+		assertThat(tokenRevocationService.isRevoked("access-token-id", user.getId(), issuedAt)).isTrue();
+	}
+
+	@Test
+	void reuseWithinGraceGetsItsOwnSuccessor() {
+		String token = refreshTokenService.issue(user.getId());
+		String first = refreshTokenService.rotate(token).refreshToken();
+
+		// A second tab refreshing with the same token a moment later
+		String second = refreshTokenService.rotate(token).refreshToken();
+
+		assertThat(second).isNotEqualTo(first);
+		assertThat(refreshTokenService.rotate(first).userId()).isEqualTo(user.getId());
+		assertThat(refreshTokenService.rotate(second).userId()).isEqualTo(user.getId());
+	}
+
+	@Test
+	void reuseAfterLogoutIsNotForgiven() {
+		String token = refreshTokenService.issue(user.getId());
+		String successor = refreshTokenService.rotate(token).refreshToken();
+		refreshTokenService.revoke(successor);
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(token)).isInstanceOf(UnauthorizedException.class);
+	}
+
+	@Test
+	void concurrentRefreshesBothSucceed() throws Exception {
+		String token = refreshTokenService.issue(user.getId());
+		CountDownLatch start = new CountDownLatch(1);
+		Callable<Rotation> refresh = () -> {
+			start.await();
+			return refreshTokenService.rotate(token);
+		};
+
+		ExecutorService tabs = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<Rotation>> rotations = new ArrayList<>();
+			rotations.add(tabs.submit(refresh));
+			rotations.add(tabs.submit(refresh));
+			start.countDown();
+
+			for (Future<Rotation> rotation : rotations) {
+				String successor = rotation.get().refreshToken();
+				assertThat(refreshTokenService.rotate(successor).userId()).isEqualTo(user.getId());
+			}
+		} finally {
+			tabs.shutdownNow();
+		}
+	}
+
+	private void rotatedLongAgo(String rawToken) {
+		RefreshToken token = refreshTokenRepository.findByTokenHash(SecureTokens.hash(rawToken)).orElseThrow();
+		token.setRotatedAt(token.getRotatedAt().minusMinutes(1));
+		refreshTokenRepository.save(token);
+	}
+}
@@ -0,0 +1,151 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.entity.EmailSuppression;
+import com.siamcode.backend.entity.SuppressionReason;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.repository.EmailSuppressionRepository;
+import com.siamcode.backend.service.CacheInvalidationBus;
+import com.siamcode.backend.service.EmailSuppressionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "resend.webhook.secret=" + ResendWebhookTests.SECRET)
+class ResendWebhookTests {
+
+	static final String SECRET = "whsec_c2lnbmluZy1zZWNyZXQtZm9yLXRlc3Rz";
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private EmailSuppressionService emailSuppressionService;
+
+	@Autowired
+	private EmailSuppressionRepository suppressionRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@MockitoSpyBean
+	private CacheInvalidationBus invalidationBus;
+
+	private MockMvc mockMvc;
+	private String address;
+	private String payload;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+		address = UUID.randomUUID() + "@example.com";
+		payload = "{\"type\":\"email.complained\",\"data\":{\"to\":[\"" + address + "\"]}}";
+	}
+
+	@Test
+	void signedEventSuppressesTheAddress() throws Exception {
+		String id = "msg_" + UUID.randomUUID();
+		String timestamp = String.valueOf(Instant.now().getEpochSecond());
+
+		mockMvc.perform(event().header("svix-id", id).header("svix-timestamp", timestamp)
+				.header("svix-signature", "v1," + sign(id, timestamp, payload)))
+				.andExpect(status().isOk());
+
+		assertThat(emailSuppressionService.isSuppressed(address)).isTrue();
+		Long suppressionId = suppressionRepository.findByEmail(address).orElseThrow().getId();
+		verify(invalidationBus).publish(Topic.SUPPRESSION, List.of(suppressionId));
+	}
+
+	@Test
+	void suppressionRecordedByAnotherInstanceIsSeenOnceAnnounced() {
+		// What another instance's webhook writes
+		Long id = suppressionRepository.save(suppression(address)).getId();
+		assertThat(emailSuppressionService.isSuppressed(address)).isFalse();
+
+		eventPublisher.publishEvent(new CacheInvalidationEvent(Topic.SUPPRESSION, Set.of(id)));
+
+		assertThat(emailSuppressionService.isSuppressed(address)).isTrue();
+	}
+
+	@Test
+	void flushReloadsSuppressions() {
+		suppressionRepository.save(suppression(address));
+
+		eventPublisher.publishEvent(new CacheInvalidationEvent(Topic.SUPPRESSION, null));
+
+		assertThat(emailSuppressionService.isSuppressed(address)).isTrue();
+	}
+
+	@Test
+	void unsignedEventIsRejected() throws Exception {
+		mockMvc.perform(event()).andExpect(status().isUnauthorized());
+
+		assertThat(emailSuppressionService.isSuppressed(address)).isFalse();
+	}
+
+	@Test
+	void eventWithBadSignatureIsRejected() throws Exception {
+		String id = "msg_" + UUID.randomUUID();
+		String timestamp = String.valueOf(Instant.now().getEpochSecond());
+		String signedForOtherPayload = sign(id, timestamp, "{}");
+
+		mockMvc.perform(event().header("svix-id", id).header("svix-timestamp", timestamp)
+				.header("svix-signature", "v1," + signedForOtherPayload))
+				.andExpect(status().isUnauthorized());
+
+		assertThat(emailSuppressionService.isSuppressed(address)).isFalse();
+	}
+
+	@Test
+	void webhookIsDisabledWithoutSecret() throws Exception {
+		ReflectionTestUtils.setField(emailSuppressionService, "webhookSecret", "");
+		try {
+			mockMvc.perform(event()).andExpect(status().isNotFound());
+		} finally {
+			ReflectionTestUtils.setField(emailSuppressionService, "webhookSecret", SECRET);
+		}
+
+		assertThat(emailSuppressionService.isSuppressed(address)).isFalse();
+	}
+
+	private MockHttpServletRequestBuilder event() {
+		return post("/api/webhooks/resend").contentType(MediaType.APPLICATION_JSON).content(payload);
+	}
+
+	private static EmailSuppression suppression(String email) {
+		LocalDateTime now = LocalDateTime.now();
+		return new EmailSuppression(null, email, SuppressionReason.BOUNCE, now, now);
+	}
+
+	private static String sign(String id, String timestamp, String body) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(Base64.getDecoder().decode(SECRET.substring("whsec_".length())), "HmacSHA256"));
+		return Base64.getEncoder().encodeToString(
+				mac.doFinal((id + "." + timestamp + "." + body).getBytes(StandardCharsets.UTF_8)));
+	}
+}
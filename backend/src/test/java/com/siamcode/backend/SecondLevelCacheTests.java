@@ -0,0 +1,154 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.UpdateTeamRequest;
+import com.siamcode.backend.entity.InvitationStatus;
+import com.siamcode.backend.entity.Team;
+import com.siamcode.backend.entity.TeamMember;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.repository.TeamMemberRepository;
+import com.siamcode.backend.repository.TeamRepository;
+import com.siamcode.backend.repository.UserRepository;
+import com.siamcode.backend.service.TeamService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teams, users and team members are in the second-level cache; every way
+ * they change must leave no stale copy behind.
+ */
+@SpringBootTest
+class SecondLevelCacheTests {
+
+	@Autowired
+	private TeamService teamService;
+
+	@Autowired
+	private TeamRepository teamRepository;
+
+	@Autowired
+	private TeamMemberRepository teamMemberRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void repeatedTeamReadsAreServedFromCache() {
+		User owner = fixtures.createUser("Cache Test");
+		Long teamId = fixtures.createTeam("Cache Team", owner);
+		teamRepository.findById(teamId);
+
+		long hitsBefore = statistics().getSecondLevelCacheHitCount();
+		assertThat(teamRepository.findById(teamId)).isPresent();
+
+		assertThat(statistics().getSecondLevelCacheHitCount()).isGreaterThan(hitsBefore);
+		assertThat(sessionFactory().getCache().containsEntity(Team.class, teamId)).isTrue();
+	}
+
+	@Test
+	void teamUpdateIsVisibleAfterCaching() {
+		User owner = fixtures.createUser("Cache Test");
+		Long teamId = fixtures.createTeam("Cache Team", owner);
+		teamRepository.findById(teamId);
+
+		teamService.updateTeam(teamId, new UpdateTeamRequest("Renamed", "New description"), owner.getId());
+
+		Team team = teamRepository.findById(teamId).orElseThrow();
+		assertThat(team.getName()).isEqualTo("Renamed");
+		assertThat(team.getDescription()).isEqualTo("New description");
+	}
+
+	@Test
+	void softDeletedTeamIsNotServedStale() {
+		User owner = fixtures.createUser("Cache Test");
+		Long teamId = fixtures.createTeam("Cache Team", owner);
+		teamRepository.findById(teamId);
+
+		teamService.deleteTeam(teamId, owner.getId());
+
+		assertThat(teamRepository.findById(teamId).orElseThrow().isDeleted()).isTrue();
+		assertThat(teamRepository.findByOwnerUserIdAndDeletedFalse(owner.getId())).isEmpty();
+	}
+
+	@Test
+	void bulkUpdatesEvictCachedEntities() {
+		User owner = fixtures.createUser("Cache Test");
+		Long teamId = fixtures.createTeam("Cache Team", owner);
+		LocalDate today = LocalDate.now();
+		teamRepository.findById(teamId);
+		userRepository.findById(owner.getId());
+		long membershipVersion = userRepository.findById(owner.getId()).orElseThrow().getMembershipVersion();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			teamRepository.claimAutoReminder(teamId, today);
+			userRepository.incrementMembershipVersion(List.of(owner.getId()));
+		});
+
+		assertThat(teamRepository.findById(teamId).orElseThrow().getLastAutoReminderDate()).isEqualTo(today);
+		assertThat(userRepository.findById(owner.getId()).orElseThrow().getMembershipVersion())
+				.isEqualTo(membershipVersion + 1);
+	}
+
+	@Test
+	void acceptedInvitationUpdatesCachedMembership() {
+		User owner = fixtures.createUser("Cache Test");
+		User invitee = fixtures.createUser("Cache Test");
+		Long teamId = fixtures.createTeam("Cache Team", owner);
+		fixtures.addMember(teamId, invitee, InvitationStatus.PENDING);
+		assertThat(teamMemberRepository.findAcceptedTeamIdsByUserId(invitee.getId())).isEmpty();
+		teamMemberRepository.findByTeamIdAndUserId(teamId, invitee.getId());
+
+		teamService.acceptInvitation(teamId, invitee.getId());
+
+		assertThat(teamMemberRepository.findAcceptedTeamIdsByUserId(invitee.getId())).containsExactly(teamId);
+		assertThat(teamMemberRepository.findByTeamIdAndUserId(teamId, invitee.getId()).orElseThrow().getStatus())
+				.isEqualTo(InvitationStatus.ACCEPTED);
+	}
+
+	@Test
+	void removedMemberDisappearsFromCachedQueries() {
+		User owner = fixtures.createUser("Cache Test");
+		User member = fixtures.createUser("Cache Test");
+		Long teamId = fixtures.createTeam("Cache Team", owner);
+		fixtures.addMember(teamId, member, InvitationStatus.ACCEPTED);
+		assertThat(teamMemberRepository.findByTeamId(teamId)).hasSize(2);
+		assertThat(teamMemberRepository.findByTeamIdAndUserId(teamId, member.getId())).isPresent();
+
+		long queryHitsBefore = statistics().getQueryCacheHitCount();
+		assertThat(teamMemberRepository.findByTeamId(teamId)).hasSize(2);
+		assertThat(statistics().getQueryCacheHitCount()).isGreaterThan(queryHitsBefore);
+
+		teamService.removeMember(teamId, member.getId(), owner.getId());
+
+		assertThat(teamMemberRepository.findByTeamIdAndUserId(teamId, member.getId())).isEmpty();
+		assertThat(teamMemberRepository.findByTeamId(teamId)).extracting(TeamMember::getUserId)
+				.containsExactly(owner.getId());
+		assertThat(teamService.isTeamMember(member.getId(), teamId)).isFalse();
+	}
+
+	private SessionFactory sessionFactory() {
+		return entityManagerFactory.unwrap(SessionFactory.class);
+	}
+
+	private Statistics statistics() {
+		return sessionFactory().getStatistics();
+	}
+}
@@ -0,0 +1,154 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.config.ShardDataSources;
+import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.dto.response.UserResponse;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.exception.ServiceUnavailableException;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.repository.TeamShardRepository;
+import com.siamcode.backend.service.ShardMoveService;
+import com.siamcode.backend.service.ShardRouter;
+import com.siamcode.backend.service.StandupService;
+import com.siamcode.backend.service.TeamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Shard 0 is the test database, shard 1 a second in-memory database.
+ */
+@SpringBootTest(properties = {
+		"sharding.enabled=true",
+		"sharding.urls=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1"
+})
+class ShardRoutingTests {
+
+	@Autowired
+	private TeamService teamService;
+
+	@Autowired
+	private StandupService standupService;
+
+	@Autowired
+	private StandupRepository standupRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private TeamShardRepository teamShardRepository;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private ShardMoveService shardMoveService;
+
+	@Autowired
+	private ShardDataSources shards;
+
+	@Test
+	void standupsAreStoredOnTheTeamsShard() {
+		User owner = fixtures.createUser("Shard Test");
+		Long teamId = createTeamOnShard(owner, 1);
+
+		StandupResponse standup = submitStandup(teamId, owner);
+
+		assertThat(standup.getId()).isGreaterThanOrEqualTo(1L << 40);
+		assertThat(standupCount(1, teamId)).isEqualTo(1);
+		assertThat(standupCount(0, teamId)).isZero();
+	}
+
+	@Test
+	void pendingMembersSpanTheDirectoryAndTheShard() {
+		User owner = fixtures.createUser("Shard Test");
+		Long teamId = createTeamOnShard(owner, 1);
+		LocalDate today = teamService.getTeamToday(teamId);
+
+		assertThat(shardRouter.onTeamShard(teamId, () -> standupService.getPendingMembers(teamId, today,
+				owner.getId()))).hasSize(1);
+
+		submitStandup(teamId, owner);
+
+		assertThat(shardRouter.onTeamShard(teamId, () -> standupService.getPendingMembers(teamId, today,
+				owner.getId()))).isEmpty();
+	}
+
+	@Test
+	void pendingMembersOfATeamOnThePrimary() {
+		User owner = fixtures.createUser("Shard Test");
+		Long teamId = createTeamOnShard(owner, 0);
+		LocalDate today = teamService.getTeamToday(teamId);
+
+		assertThat(standupService.getPendingMembers(teamId, today, owner.getId()))
+				.extracting(UserResponse::getId).containsExactly(owner.getId());
+
+		submitStandup(teamId, owner);
+
+		assertThat(standupService.getPendingMembers(teamId, today, owner.getId())).isEmpty();
+	}
+
+	@Test
+	void movedTeamKeepsItsData() {
+		User owner = fixtures.createUser("Shard Test");
+		Long teamId = createTeamOnShard(owner, 0);
+		StandupResponse standup = submitStandup(teamId, owner);
+
+		ShardMoveService.TeamMove move = shardMoveService.moveTeam(teamId, 1);
+
+		assertThat(move.fromShard()).isZero();
+		assertThat(teamShardRepository.findShardId(teamId)).isEqualTo(1);
+		assertThat(standupCount(0, teamId)).isZero();
+		assertThat(standupCount(1, teamId)).isEqualTo(1);
+		List<StandupResponse> standups = shardRouter.onTeamShard(teamId, () -> standupService
+				.getStandupsByTeamAndDate(teamId, teamService.getTeamToday(teamId), owner.getId()));
+		assertThat(standups).extracting(StandupResponse::getId).containsExactly(standup.getId());
+
+		// A write routed before the move fails rather than landing on the old shard
+		User member = fixtures.createUser("Shard Test");
+		fixtures.addMember(teamId, member);
+		shardRouter.runOnShard(0, () -> assertThatThrownBy(() -> submitStandupOnBoundShard(teamId, member))
+				.isInstanceOf(ServiceUnavailableException.class));
+		submitStandup(teamId, member);
+		assertThat(standupCount(1, teamId)).isEqualTo(2);
+		assertThat(standupCount(0, teamId)).isZero();
+	}
+
+	@Test
+	void teamDataNeedsABoundShard() {
+		assertThatThrownBy(() -> standupRepository.count())
+				.hasRootCauseMessage("No shard bound for team-scoped data");
+	}
+
+	private Long createTeamOnShard(User owner, int shard) {
+		while (true) {
+			Long teamId = fixtures.createTeam("Shard Team", owner);
+			if (shardRouter.shardOf(teamId) == shard) {
+				return teamId;
+			}
+		}
+	}
+
+	private StandupResponse submitStandup(Long teamId, User user) {
+		return shardRouter.onTeamShard(teamId, () -> submitStandupOnBoundShard(teamId, user));
+	}
+
+	private StandupResponse submitStandupOnBoundShard(Long teamId, User user) {
+		return standupService.createStandup(teamId, user.getId(),
+				new CreateStandupRequest("Yesterday", "Today", null));
+	}
+
+	private long standupCount(int shard, Long teamId) {
+		return new JdbcTemplate(shards.getShard(shard))
+				.queryForObject("SELECT COUNT(*) FROM standups WHERE team_id = ?", Long.class, teamId);
+	}
+}
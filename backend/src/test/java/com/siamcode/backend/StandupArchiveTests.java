@@ -0,0 +1,143 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.service.StandupArchive;
+import com.siamcode.backend.service.StandupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archived months are read back alongside the standups still in the
+ * database. The archive is written directly; partitions need PostgreSQL.
+ */
+@SpringBootTest(properties = "standups.archive.dir=target/standup-archive-test/${random.uuid}")
+class StandupArchiveTests {
+
+	@Autowired
+	private StandupArchive standupArchive;
+
+	@Autowired
+	private StandupService standupService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void archivedStandupsAreReadWithLiveOnes() {
+		User owner = fixtures.createUser("Archive Test");
+		Long teamId = fixtures.createTeam("Archive Team", owner);
+		StandupResponse live = submitStandup(teamId, owner);
+		LocalDate archivedDay = LocalDate.of(2020, 3, 10);
+		archive(YearMonth.of(2020, 3), archived(9_000_001L, teamId, owner, archivedDay),
+				archived(9_000_002L, teamId + 1, owner, archivedDay));
+
+		List<StandupResponse> range = standupService.getStandupsByDateRange(teamId, LocalDate.of(2020, 1, 1),
+				LocalDate.now().plusDays(1), owner.getId());
+		assertThat(range).extracting(StandupResponse::getId).containsExactlyInAnyOrder(live.getId(), 9_000_001L);
+
+		List<StandupResponse> day = standupService.getStandupsByTeamAndDate(teamId, archivedDay, owner.getId());
+		assertThat(day).singleElement().satisfies(standup -> {
+			assertThat(standup.getUserName()).isEqualTo(owner.getName());
+			assertThat(standup.getYesterdayText()).isEqualTo("Archived");
+		});
+	}
+
+	@Test
+	void standupInBothPlacesIsReadOnce() {
+		User owner = fixtures.createUser("Archive Test");
+		Long teamId = fixtures.createTeam("Archive Team", owner);
+		StandupResponse live = submitStandup(teamId, owner);
+		LocalDate today = live.getDate();
+		archive(YearMonth.from(today), archived(live.getId(), teamId, owner, today));
+		archive(YearMonth.from(today), archived(live.getId(), teamId, owner, today));
+
+		assertThat(standupService.getStandupsByTeamAndDate(teamId, today, owner.getId()))
+				.extracting(StandupResponse::getId).containsExactly(live.getId());
+	}
+
+	@Test
+	void uncommittedMonthIsNotArchived() {
+		User owner = fixtures.createUser("Archive Test");
+		try (StandupArchive.Writer writer = standupArchive.open(YearMonth.of(2019, 6), 0)) {
+			writer.write(archived(9_000_003L, 1L, owner, LocalDate.of(2019, 6, 1)));
+		}
+
+		assertThat(standupArchive.covers(LocalDate.of(2019, 6, 1), LocalDate.of(2019, 6, 30))).isFalse();
+		assertThat(standupArchive.read(1L, LocalDate.of(2019, 6, 1), LocalDate.of(2019, 6, 30))).isEmpty();
+	}
+
+	@Test
+	void monthArchivedByAnotherInstanceIsSeenOnceAnnounced() throws IOException {
+		User owner = fixtures.createUser("Archive Test");
+		Long teamId = fixtures.createTeam("Archive Team", owner);
+		LocalDate day = LocalDate.of(2018, 2, 5);
+		Path dir = Path.of((String) ReflectionTestUtils.getField(standupArchive, "archiveDir"));
+		try (OutputStream out = new GZIPOutputStream(
+				Files.newOutputStream(Files.createDirectories(dir).resolve("standups-2018-02.s1.jsonl.gz")))) {
+			out.write((objectMapper.writeValueAsString(archived(9_000_004L, teamId, owner, day)) + "\n")
+					.getBytes(StandardCharsets.UTF_8));
+		}
+		assertThat(standupArchive.covers(day, day)).isFalse();
+
+		eventPublisher.publishEvent(new CacheInvalidationEvent(Topic.STANDUP_ARCHIVE, Set.of(201802L)));
+
+		assertThat(standupService.getStandupsByTeamAndDate(teamId, day, owner.getId()))
+				.extracting(StandupResponse::getId).containsExactly(9_000_004L);
+	}
+
+	private void archive(YearMonth month, Standup... standups) {
+		try (StandupArchive.Writer writer = standupArchive.open(month, 0)) {
+			for (Standup standup : standups) {
+				writer.write(standup);
+			}
+			writer.commit();
+		}
+	}
+
+	private static Standup archived(Long id, Long teamId, User user, LocalDate date) {
+		Standup standup = new Standup();
+		standup.setId(id);
+		standup.setTeamId(teamId);
+		standup.setUserId(user.getId());
+		standup.setDate(date);
+		standup.setYesterdayText("Archived");
+		standup.setTodayText("Today");
+		standup.setCreatedAt(date.atTime(9, 0));
+		standup.setUpdatedAt(LocalDateTime.of(2020, 4, 1, 12, 0));
+		standup.setVersion(1);
+		return standup;
+	}
+
+	private StandupResponse submitStandup(Long teamId, User user) {
+		return standupService.createStandup(teamId, user.getId(), new CreateStandupRequest("Yesterday", "Today", null));
+	}
+}
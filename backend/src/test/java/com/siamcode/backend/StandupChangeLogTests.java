@@ -0,0 +1,141 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.dto.response.StandupChangesResponse;
+import com.siamcode.backend.dto.response.StandupResponse;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.service.StandupChangeLogService;
+import com.siamcode.backend.service.StandupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delta sync pages through upserts and tombstones merged by change sequence,
+ * and sends clients from before the tombstone horizon back to a full reload.
+ */
+@SpringBootTest
+class StandupChangeLogTests {
+
+	@Autowired
+	private StandupChangeLogService changeLogService;
+
+	@Autowired
+	private StandupService standupService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long teamId;
+	private final List<User> members = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 4; i++) {
+			members.add(fixtures.createUser("Change Log Test"));
+		}
+		teamId = fixtures.createTeam("Change Log Team", members.getFirst());
+		members.stream().skip(1).forEach(member -> fixtures.addMember(teamId, member));
+	}
+
+	@Test
+	void pagesInterleaveUpsertsAndTombstones() {
+		Long first = submit(members.get(0));   // 1
+		Long second = submit(members.get(1));  // 2
+		Long third = submit(members.get(2));   // 3
+		delete(first, members.get(0));         // 4
+		edit(second, members.get(1));          // 5, moves past the tombstone
+		Long fourth = submit(members.get(3));  // 6
+		delete(third, members.get(2));         // 7
+
+		// Left in the log: tombstone 4, upsert 5, upsert 6, tombstone 7
+		StandupChangesResponse page = changeLogService.getChangesSince(teamId, 0, 2);
+		assertThat(page.getDeletedIds()).containsExactly(first);
+		assertThat(upsertIds(page)).containsExactly(second);
+		assertThat(page.isHasMore()).isTrue();
+		assertThat(page.getNextSince()).isEqualTo(5);
+
+		page = changeLogService.getChangesSince(teamId, page.getNextSince(), 2);
+		assertThat(upsertIds(page)).containsExactly(fourth);
+		assertThat(page.getDeletedIds()).containsExactly(third);
+		assertThat(page.isHasMore()).isFalse();
+		assertThat(page.getNextSince()).isEqualTo(7);
+
+		// Ending a page on a tombstone, then on an upsert, loses nothing either
+		for (int limit = 1; limit <= 4; limit++) {
+			List<String> walked = new ArrayList<>();
+			long since = 0;
+			do {
+				page = changeLogService.getChangesSince(teamId, since, limit);
+				assertThat(page.getUpserts().size() + page.getDeletedIds().size()).isLessThanOrEqualTo(limit);
+				upsertIds(page).forEach(id -> walked.add("upsert " + id));
+				page.getDeletedIds().forEach(id -> walked.add("delete " + id));
+				since = page.getNextSince();
+			} while (page.isHasMore());
+
+			assertThat(walked).as("limit %d", limit).containsExactlyInAnyOrder(
+					"delete " + first, "upsert " + second, "upsert " + fourth, "delete " + third);
+			assertThat(since).isEqualTo(7);
+		}
+
+		assertThat(changeLogService.getChangesSince(teamId, 7, 2).getUpserts()).isEmpty();
+	}
+
+	@Test
+	void resetRequiredBeforeTheHorizon() {
+		Long first = submit(members.get(0));   // 1
+		Long second = submit(members.get(1));  // 2
+		delete(first, members.get(0));         // 3
+		edit(second, members.get(1));          // 4
+
+		// The tombstone ages out and is purged, raising the horizon to 3
+		jdbcTemplate.update("UPDATE standup_tombstones SET deleted_at = ? WHERE standup_id = ?",
+				LocalDateTime.now().minusYears(1), first);
+		changeLogService.compactTombstones();
+
+		// A client that last synced before the deletion never learns of it
+		StandupChangesResponse stale = changeLogService.getChangesSince(teamId, 2, null);
+		assertThat(stale.isResetRequired()).isTrue();
+		assertThat(stale.getUpserts()).isEmpty();
+		assertThat(stale.getNextSince()).isEqualTo(4);
+
+		StandupChangesResponse current = changeLogService.getChangesSince(teamId, 3, null);
+		assertThat(current.isResetRequired()).isFalse();
+		assertThat(upsertIds(current)).containsExactly(second);
+		assertThat(current.getDeletedIds()).isEmpty();
+
+		// A first sync is a full load, with nothing to have missed
+		StandupChangesResponse initial = changeLogService.getChangesSince(teamId, 0, null);
+		assertThat(initial.isResetRequired()).isFalse();
+		assertThat(upsertIds(initial)).containsExactly(second);
+	}
+
+	private Long submit(User member) {
+		return standupService.createStandup(teamId, member.getId(),
+				new CreateStandupRequest("Yesterday", "Today", null)).getId();
+	}
+
+	private void edit(Long standupId, User member) {
+		standupService.updateStandup(standupId, member.getId(), null,
+				new CreateStandupRequest("Yesterday", "Edited", null));
+	}
+
+	private void delete(Long standupId, User member) {
+		standupService.deleteStandup(standupId, member.getId());
+	}
+
+	private static List<Long> upsertIds(StandupChangesResponse page) {
+		return page.getUpserts().stream().map(StandupResponse::getId).toList();
+	}
+}
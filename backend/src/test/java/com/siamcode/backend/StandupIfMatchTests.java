@@ -0,0 +1,148 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.service.StandupChangeLogService;
+import com.siamcode.backend.service.StandupService;
+import com.siamcode.backend.service.TeamService;
+import com.siamcode.backend.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Standup edits need If-Match with the version the client loaded, so
+ * concurrent edits never silently overwrite each other.
+ */
+@SpringBootTest
+class StandupIfMatchTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private StandupService standupService;
+
+	@Autowired
+	private StandupChangeLogService changeLogService;
+
+	@Autowired
+	private StandupRepository standupRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@MockitoSpyBean
+	private TeamService teamService;
+
+	private MockMvc mockMvc;
+	private User owner;
+	private Long teamId;
+	private Long standupId;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+		owner = fixtures.createUser("If-Match Test");
+		teamId = fixtures.createTeam("If-Match Team", owner);
+		standupId = standupService.createStandup(teamId, owner.getId(),
+				new CreateStandupRequest("Yesterday", "Loaded", null)).getId();
+	}
+
+	@Test
+	void missingIfMatchIsRequired() throws Exception {
+		mockMvc.perform(edit("Edited")).andExpect(status().isPreconditionRequired());
+
+		assertThat(standup().getTodayText()).isEqualTo("Loaded");
+	}
+
+	@Test
+	void currentVersionUpdatesAndStaleVersionFails() throws Exception {
+		mockMvc.perform(edit("Edited").header(HttpHeaders.IF_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("$.version").value(1));
+
+		// Another tab still holding version 0
+		mockMvc.perform(edit("Stale").header(HttpHeaders.IF_MATCH, "\"0\""))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(edit("Stale").header(HttpHeaders.IF_MATCH, "not-a-version"))
+				.andExpect(status().isPreconditionFailed());
+
+		assertThat(standup().getTodayText()).isEqualTo("Edited");
+		assertThat(standup().getVersion()).isEqualTo(1);
+	}
+
+	@Test
+	void wildcardSkipsTheCheck() throws Exception {
+		standupService.updateStandup(standupId, owner.getId(), 0L,
+				new CreateStandupRequest("Yesterday", "Elsewhere", null));
+
+		mockMvc.perform(edit("Forced").header(HttpHeaders.IF_MATCH, "*"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+		assertThat(standup().getTodayText()).isEqualTo("Forced");
+	}
+
+	@Test
+	void editCommittedMidRequestFailsAndRollsBack() throws Exception {
+		// After the request has read version 0 and passed the If-Match check,
+		// but before it writes, another edit commits
+		AtomicBoolean interfere = new AtomicBoolean(true);
+		doAnswer(invocation -> {
+			if (interfere.getAndSet(false)) {
+				CompletableFuture.runAsync(() -> standupService.updateStandup(standupId, owner.getId(), 0L,
+						new CreateStandupRequest("Yesterday", "Concurrent", null))).join();
+			}
+			return invocation.callRealMethod();
+		}).when(teamService).getTeamToday(eq(teamId));
+		long headBefore = changeLogService.getHead(teamId);
+
+		mockMvc.perform(edit("Lost").header(HttpHeaders.IF_MATCH, "\"0\""))
+				.andExpect(status().isPreconditionFailed());
+
+		Standup standup = standup();
+		assertThat(standup.getTodayText()).isEqualTo("Concurrent");
+		assertThat(standup.getVersion()).isEqualTo(1);
+		// Only the concurrent edit took a change sequence; ours was rolled back
+		assertThat(changeLogService.getHead(teamId)).isEqualTo(headBefore + 1);
+		assertThat(standup.getChangeSeq()).isEqualTo(headBefore + 1);
+	}
+
+	private MockHttpServletRequestBuilder edit(String todayText) {
+		return put("/api/standups/" + standupId)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(owner.getId()))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"yesterdayText\":\"Yesterday\",\"todayText\":\"" + todayText + "\"}");
+	}
+
+	private Standup standup() {
+		return standupRepository.findById(standupId).orElseThrow();
+	}
+}
@@ -0,0 +1,146 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.CreateStandupRequest;
+import com.siamcode.backend.entity.Standup;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.event.CacheInvalidationEvent;
+import com.siamcode.backend.event.CacheInvalidationEvent.Topic;
+import com.siamcode.backend.repository.StandupRepository;
+import com.siamcode.backend.repository.TeamStandupSequenceRepository;
+import com.siamcode.backend.service.StandupService;
+import com.siamcode.backend.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams are opened with single-use tickets and fed from the change log,
+ * whichever instance made the change.
+ */
+@SpringBootTest
+class StandupStreamTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private StandupService standupService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private StandupRepository standupRepository;
+
+	@Autowired
+	private TeamStandupSequenceRepository sequenceRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	private MockMvc mockMvc;
+	private User owner;
+	private Long teamId;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+		owner = fixtures.createUser("Stream Test");
+		teamId = fixtures.createTeam("Stream Team", owner);
+	}
+
+	@Test
+	void ticketOpensOneStream() throws Exception {
+		String ticket = ticket();
+
+		mockMvc.perform(stream().param("ticket", ticket)).andExpect(request().asyncStarted());
+
+		mockMvc.perform(stream().param("ticket", ticket)).andExpect(status().isUnauthorized());
+		mockMvc.perform(stream().param("ticket", "not-a-ticket")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void accessTokenInTheUrlIsNotAccepted() throws Exception {
+		mockMvc.perform(stream().param("access_token", jwtUtil.generateToken(owner.getId())))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void localChangeIsStreamed() throws Exception {
+		MvcResult result = mockMvc.perform(stream().param("ticket", ticket())).andReturn();
+
+		Long standupId = standupService.createStandup(teamId, owner.getId(),
+				new CreateStandupRequest("Yesterday", "Today", null)).getId();
+
+		awaitEvent(result, "\"standupId\":" + standupId + ",\"type\":\"CREATED\"");
+	}
+
+	@Test
+	void changeAnnouncedByAnotherInstanceIsStreamed() throws Exception {
+		MvcResult result = mockMvc.perform(stream().param("ticket", ticket())).andReturn();
+
+		// What another instance writes, without an event in this one
+		Long standupId = transactionTemplate.execute(status -> {
+			sequenceRepository.increment(teamId);
+			Standup standup = new Standup();
+			standup.setTeamId(teamId);
+			standup.setUserId(owner.getId());
+			standup.setDate(LocalDate.now());
+			standup.setYesterdayText("Elsewhere");
+			standup.setChangeSeq(sequenceRepository.findChangeSeq(teamId));
+			return standupRepository.save(standup).getId();
+		});
+		assertThat(result.getResponse().getContentAsString()).doesNotContain("\"standupId\":" + standupId);
+
+		eventPublisher.publishEvent(new CacheInvalidationEvent(Topic.STANDUP_CHANGE, Set.of(teamId)));
+
+		awaitEvent(result, "\"standupId\":" + standupId + ",\"type\":\"CREATED\"");
+	}
+
+	private String ticket() throws Exception {
+		String body = mockMvc.perform(post("/api/auth/stream-ticket")
+				.header("Authorization", "Bearer " + jwtUtil.generateToken(owner.getId())))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).path("ticket").asString();
+	}
+
+	private MockHttpServletRequestBuilder stream() {
+		return get("/api/standups/teams/" + teamId + "/stream");
+	}
+
+	private static void awaitEvent(MvcResult result, String fragment) {
+		await().atMost(Duration.ofSeconds(5))
+				.untilAsserted(() -> assertThat(result.getResponse().getContentAsString()).contains(fragment));
+	}
+}
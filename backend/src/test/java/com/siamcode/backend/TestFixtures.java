@@ -0,0 +1,60 @@
+package com.siamcode.backend;
+
+import com.siamcode.backend.dto.request.CreateTeamRequest;
+import com.siamcode.backend.entity.InvitationStatus;
+import com.siamcode.backend.entity.TeamMember;
+import com.siamcode.backend.entity.User;
+import com.siamcode.backend.repository.TeamMemberRepository;
+import com.siamcode.backend.repository.UserRepository;
+import com.siamcode.backend.service.TeamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Users, teams and memberships for tests to start from. Every user gets a
+ * fresh email, as all tests share one database.
+ */
+@Component
+class TestFixtures {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TeamService teamService;
+
+	@Autowired
+	private TeamMemberRepository teamMemberRepository;
+
+	User createUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(UUID.randomUUID() + "@example.com");
+		user.setPasswordHash("unused");
+		return userRepository.save(user);
+	}
+
+	/**
+	 * Create a team the way the API does, with its owner as the first member
+	 */
+	Long createTeam(String name, User owner) {
+		return teamService.createTeam(new CreateTeamRequest(name, null), owner.getId()).getId();
+	}
+
+	void addMember(Long teamId, User user) {
+		addMember(teamId, user, InvitationStatus.ACCEPTED);
+	}
+
+	void addMember(Long teamId, User user, InvitationStatus status) {
+		TeamMember member = new TeamMember();
+		member.setTeamId(teamId);
+		member.setUserId(user.getId());
+		member.setRole("MEMBER");
+		member.setStatus(status);
+		member.setInvitedAt(LocalDateTime.now());
+		teamMemberRepository.save(member);
+	}
+}
@@ -1,6 +1,6 @@
 "use client";
 
-import { useEffect, useState } from "react";
+import { useEffect, useRef, useState } from "react";
 import Layout from "@/components/Layout";
 import { Button } from "@/components/ui/Button";
 import { Card, CardContent, CardDescription, CardHeader, CardTitle, CardFooter } from "@/components/ui/Card";
@@ -26,13 +26,14 @@ import { EditStandupModal } from "@/components/EditStandupModal";
 import { StandupList } from "@/components/StandupList";
 import { useParams, useSearchParams, useRouter } from "next/navigation";
 import Link from "next/link";
-import { Team, UserResponse, StandupResponse, StandupSummaryResponse } from "@/lib/types";
+import { Team, UserResponse, StandupResponse, StandupSummaryResponse, HeatmapStatsResponse, TeamDashboardResponse } from "@/lib/types";
 import { Input } from "@/components/ui/Input";
 import { toast } from "sonner";
 import { cn } from "@/lib/utils";
 import { StatsCards } from "@/components/StatsCards";
 import ParticipationHeatmap from "@/components/ParticipationHeatmap";
 import { getLocalDateFormat } from "@/lib/date";
+import { useStandupStream } from "@/hooks/useStandupStream";
 
 export default function TeamDetailsPage() {
     const { user, isLoading: authLoading } = useAuth();
@@ -44,6 +45,8 @@ export default function TeamDetailsPage() {
     const [team, setTeam] = useState<Team | null>(null);
     const [members, setMembers] = useState<UserResponse[]>([]);
     const [standups, setStandups] = useState<StandupResponse[]>([]);
+    const [heatmap, setHeatmap] = useState<HeatmapStatsResponse[] | null>(null);
+    const dashboardLoadedFor = useRef<number | null>(null);
     const [date, setDate] = useState<string>(getLocalDateFormat()); // Initialize with today's date
     const [copied, setCopied] = useState(false);
 
@@ -73,6 +76,30 @@ export default function TeamDetailsPage() {
     const [sendingReminders, setSendingReminders] = useState<Set<number>>(new Set());
     const [sendingAllReminders, setSendingAllReminders] = useState(false);
 
+    // Initial load: one request for the whole page
+    const fetchDashboard = async () => {
+        try {
+            const data = await ApiClient.get<TeamDashboardResponse>(ENDPOINTS.TEAMS.DASHBOARD(teamId, date));
+            setTeam(data.team);
+            setMembers(data.members);
+            setHeatmap(data.heatmap);
+            if (data.standups) {
+                setStandups(data.standups);
+            } else {
+                fetchStandups();
+            }
+            if (data.unavailable.includes("summary")) {
+                fetchSummary();
+            } else {
+                setSummary(data.summary && data.summary.summaryText ? data.summary : null);
+            }
+        } catch (error) {
+            toast.error("Failed to load team data");
+        } finally {
+            setLoading(false);
+        }
+    };
+
     const fetchTeamData = async () => {
         try {
             const [teamData, membersData] = await Promise.all([
@@ -145,18 +172,33 @@ export default function TeamDetailsPage() {
     };
 
     useEffect(() => {
-        if (user && teamId) {
-            fetchTeamData();
+        if (!user || !teamId) {
+            return;
         }
-    }, [user, teamId]);
-
-    useEffect(() => {
-        if (user && teamId) {
+        if (dashboardLoadedFor.current !== teamId) {
+            dashboardLoadedFor.current = teamId;
+            fetchDashboard();
+        } else {
             fetchStandups();
             fetchSummary();
         }
     }, [user, teamId, date]);
 
+    // Apply live changes from teammates instead of re-fetching the list
+    useStandupStream(teamId, !!user, (event) => {
+        if (event.type === "DELETED") {
+            setStandups((current) => current.filter((s) => s.id !== event.standupId));
+            return;
+        }
+        if (!event.standup || event.standup.date !== date) {
+            return;
+        }
+        const changed = event.standup;
+        setStandups((current) => current.some((s) => s.id === changed.id)
+            ? current.map((s) => (s.id === changed.id ? changed : s))
+            : [...current, changed]);
+    });
+
     const handleSendReminder = async (userId: number) => {
         setSendingReminders(prev => new Set(prev).add(userId));
         try {
@@ -511,7 +553,7 @@ export default function TeamDetailsPage() {
                     </Card>
                 </div>
 
-                <ParticipationHeatmap teamId={teamId} />
+                <ParticipationHeatmap teamId={teamId} initialData={heatmap} />
             </div>
 
             <AddMemberModal
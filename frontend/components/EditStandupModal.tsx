@@ -45,7 +45,10 @@ export function EditStandupModal({ isOpen, onClose, onSuccess, standup }: EditSt
         onSubmit: async (values) => {
             setError(null);
             try {
-                await ApiClient.put(ENDPOINTS.STANDUPS.UPDATE(standup.id), values);
+                // Rejected with 412 if the standup was edited elsewhere since it was loaded
+                await ApiClient.put(ENDPOINTS.STANDUPS.UPDATE(standup.id), values, {
+                    "If-Match": `"${standup.version}"`,
+                });
                 toast.success("Standup updated successfully!");
                 onSuccess();
                 onClose();
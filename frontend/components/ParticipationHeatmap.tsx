@@ -18,7 +18,8 @@ interface HeatmapData {
     level: number;
 }
 
-export default function ParticipationHeatmap({ teamId }: { teamId: number }) {
+// initialData comes from the team dashboard payload; without it the heatmap fetches its own
+export default function ParticipationHeatmap({ teamId, initialData }: { teamId: number; initialData?: HeatmapData[] | null }) {
     const [data, setData] = useState<HeatmapData[]>([]);
     const [loading, setLoading] = useState(true);
     const { theme } = useTheme();
@@ -43,7 +44,7 @@ export default function ParticipationHeatmap({ teamId }: { teamId: number }) {
     useEffect(() => {
         const fetchData = async () => {
             try {
-                const response = await ApiClient.get<HeatmapData[]>(ENDPOINTS.STATS.HEATMAP(teamId));
+                const response = initialData ?? await ApiClient.get<HeatmapData[]>(ENDPOINTS.STATS.HEATMAP(teamId));
 
                 const currentYear = new Date().getFullYear();
                 const startDateStr = `${currentYear}-01-01`;
@@ -77,7 +78,7 @@ export default function ParticipationHeatmap({ teamId }: { teamId: number }) {
             }
         };
         fetchData();
-    }, [teamId]);
+    }, [teamId, initialData]);
 
     if (loading) return <div className="h-40 animate-pulse bg-muted rounded-md w-full"></div>;
 
@@ -59,6 +59,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
             const authToken = response.token;
 
             localStorage.setItem("token", authToken);
+            localStorage.setItem("refreshToken", response.refreshToken);
             setToken(authToken);
 
             // Backend returns { token, user: { id, email, name, verified } }
@@ -97,7 +98,13 @@ export function AuthProvider({ children }: { children: ReactNode }) {
     };
 
     const logout = () => {
+        const refreshToken = localStorage.getItem("refreshToken");
+        if (refreshToken) {
+            // Revoke server-side; the local session is cleared regardless
+            ApiClient.post(ENDPOINTS.AUTH.LOGOUT, { refreshToken }).catch(() => {});
+        }
         localStorage.removeItem("token");
+        localStorage.removeItem("refreshToken");
         localStorage.removeItem("user");
         setToken(null);
         setUser(null);
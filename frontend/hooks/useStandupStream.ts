@@ -0,0 +1,61 @@
+"use client";
+
+import { useEffect, useRef } from "react";
+import ApiClient from "@/lib/api";
+import { ENDPOINTS } from "@/lib/endpoints";
+import { StandupChangedEvent } from "@/lib/types";
+
+const RECONNECT_DELAY_MS = 3000;
+
+/**
+ * Subscribe to live standup changes for a team. Each connection needs a fresh
+ * single-use ticket, so after an error we close the stream and open a new one
+ * rather than let EventSource retry with the spent ticket. Getting a ticket
+ * refreshes the access token if needed; if that fails we stop.
+ */
+export function useStandupStream(teamId: number, enabled: boolean, onChange: (event: StandupChangedEvent) => void) {
+    const onChangeRef = useRef(onChange);
+    onChangeRef.current = onChange;
+
+    useEffect(() => {
+        if (!enabled || !teamId) {
+            return;
+        }
+
+        let source: EventSource | null = null;
+        let reconnectTimer: ReturnType<typeof setTimeout> | null = null;
+        let closed = false;
+
+        const connect = async () => {
+            let opened: EventSource;
+            try {
+                opened = await ApiClient.eventSource(ENDPOINTS.STANDUPS.STREAM(teamId));
+            } catch {
+                return;
+            }
+            if (closed) {
+                opened.close();
+                return;
+            }
+            source = opened;
+            source.addEventListener("standup", (message) => {
+                onChangeRef.current(JSON.parse((message as MessageEvent).data) as StandupChangedEvent);
+            });
+            source.onerror = () => {
+                opened.close();
+                if (!closed) {
+                    reconnectTimer = setTimeout(connect, RECONNECT_DELAY_MS);
+                }
+            };
+        };
+
+        connect();
+        return () => {
+            closed = true;
+            if (reconnectTimer) {
+                clearTimeout(reconnectTimer);
+            }
+            source?.close();
+        };
+    }, [teamId, enabled]);
+}
@@ -1,10 +1,14 @@
-import { API_BASE_URL } from "./endpoints";
+import { API_BASE_URL, ENDPOINTS } from "./endpoints";
+import { StreamTicketResponse } from "./types";
 
 interface RequestOptions extends RequestInit {
     headers?: Record<string, string>;
 }
 
 class ApiClient {
+    // Shared so that concurrent 401s trigger a single refresh
+    private static refreshInFlight: Promise<boolean> | null = null;
+
     private static getToken(): string | null {
         if (typeof window !== "undefined") {
             return localStorage.getItem("token");
@@ -12,7 +16,62 @@ class ApiClient {
         return null;
     }
 
-    private static async request<T>(endpoint: string, options: RequestOptions = {}): Promise<T> {
+    /**
+     * Exchange the stored refresh token for a new access token.
+     * Resolves to false (and clears the session) if the refresh token is no longer valid.
+     *
+     * Tabs share the tokens through localStorage, so refreshes are serialized
+     * across tabs with a Web Lock: a tab that waited for another tab's refresh
+     * picks up its tokens instead of presenting the already rotated refresh token.
+     */
+    static refreshAccessToken(): Promise<boolean> {
+        if (typeof window === "undefined") {
+            return Promise.resolve(false);
+        }
+
+        if (!this.refreshInFlight) {
+            const rejectedToken = this.getToken();
+            const refresh = () => this.refreshUnlessRefreshed(rejectedToken);
+            this.refreshInFlight = (navigator.locks
+                ? navigator.locks.request("standupstrip-token-refresh", refresh)
+                : refresh())
+                .catch(() => false)
+                .finally(() => {
+                    this.refreshInFlight = null;
+                });
+        }
+        return this.refreshInFlight;
+    }
+
+    private static async refreshUnlessRefreshed(rejectedToken: string | null): Promise<boolean> {
+        const currentToken = this.getToken();
+        if (currentToken && currentToken !== rejectedToken) {
+            // Another tab refreshed while this one waited for the lock
+            return true;
+        }
+        const refreshToken = localStorage.getItem("refreshToken");
+        if (!refreshToken) {
+            return false;
+        }
+
+        const response = await fetch(`${API_BASE_URL}${ENDPOINTS.AUTH.REFRESH}`, {
+            method: "POST",
+            headers: { "Content-Type": "application/json" },
+            body: JSON.stringify({ refreshToken }),
+            cache: "no-store",
+        });
+        if (!response.ok) {
+            localStorage.removeItem("token");
+            localStorage.removeItem("refreshToken");
+            return false;
+        }
+        const data = await response.json();
+        localStorage.setItem("token", data.token);
+        localStorage.setItem("refreshToken", data.refreshToken);
+        return true;
+    }
+
+    private static async request<T>(endpoint: string, options: RequestOptions = {}, retried = false): Promise<T> {
         const url = `${API_BASE_URL}${endpoint}`;
         const token = this.getToken();
         const headers: Record<string, string> = {
@@ -34,16 +93,19 @@ class ApiClient {
             const response = await fetch(url, {
                 ...options,
                 headers,
-                cache: "no-store", // Disable Next.js fetch caching
+                // Reads revalidate with If-None-Match (304 when unchanged); writes bypass the cache
+                cache: (options.method ?? "GET") === "GET" ? "no-cache" : "no-store",
                 signal: controller.signal,
             });
 
             clearTimeout(timeoutId);
 
             if (!response.ok) {
-                if (response.status === 401) {
-                    if (typeof window !== "undefined") {
-                        // Unauthorized access handling
+                const refreshable = !endpoint.startsWith("/api/auth/") || endpoint === ENDPOINTS.AUTH.STREAM_TICKET;
+                if (response.status === 401 && !retried && refreshable) {
+                    // Access token expired or revoked - refresh once and retry
+                    if (await this.refreshAccessToken()) {
+                        return this.request<T>(endpoint, options, true);
                     }
                 }
                 const errorText = await response.text();
@@ -90,6 +152,18 @@ class ApiClient {
         }
     }
 
+    /**
+     * Open a Server-Sent Events stream. EventSource cannot send headers, so it
+     * authenticates with a single-use ticket in the query string instead of
+     * the access token. A ticket opens one connection: after an error, open a
+     * new stream rather than letting EventSource retry with a spent ticket.
+     */
+    static async eventSource(endpoint: string): Promise<EventSource> {
+        const { ticket } = await this.post<StreamTicketResponse>(ENDPOINTS.AUTH.STREAM_TICKET, {});
+        const separator = endpoint.includes("?") ? "&" : "?";
+        return new EventSource(`${API_BASE_URL}${endpoint}${separator}ticket=${encodeURIComponent(ticket)}`);
+    }
+
     static get<T>(url: string): Promise<T> {
         return this.request<T>(url, { method: "GET" });
     }
@@ -101,10 +175,11 @@ class ApiClient {
         });
     }
 
-    static put<T>(url: string, body: any): Promise<T> {
+    static put<T>(url: string, body: any, headers?: Record<string, string>): Promise<T> {
         return this.request<T>(url, {
             method: "PUT",
             body: JSON.stringify(body),
+            headers,
         });
     }
 
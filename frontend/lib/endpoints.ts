@@ -4,8 +4,11 @@ export const ENDPOINTS = {
     AUTH: {
         LOGIN: "/api/auth/login",
         REGISTER: "/api/auth/register",
+        REFRESH: "/api/auth/refresh",
+        LOGOUT: "/api/auth/logout",
         VERIFY_PASSWORD: "/api/auth/verify-password",
         RESEND_VERIFICATION: "/api/auth/resend-verification",
+        STREAM_TICKET: "/api/auth/stream-ticket",
     },
     USERS: {
         GET_BY_ID: (id: number) => `/api/users/${id}`,
@@ -19,6 +22,7 @@ export const ENDPOINTS = {
         DELETE: (id: number) => `/api/teams/${id}`,
         ADD_MEMBER: (teamId: number) => `/api/teams/${teamId}/members`,
         GET_MEMBERS: (teamId: number) => `/api/teams/${teamId}/members`,
+        DASHBOARD: (teamId: number, date: string) => `/api/teams/${teamId}/dashboard?date=${date}`,
         REMOVE_MEMBER: (teamId: number, userId: number) => `/api/teams/${teamId}/members/${userId}`,
         GET_BY_INVITE_CODE: (code: string) => `/api/teams/join/${code}`,
         JOIN_BY_CODE: (code: string) => `/api/teams/join/${code}`,
@@ -32,6 +36,7 @@ export const ENDPOINTS = {
         UPDATE: (standupId: number) => `/api/standups/${standupId}`,
         DELETE: (standupId: number) => `/api/standups/${standupId}`,
         GET_BY_DATE: (teamId: number, date: string) => `/api/standups/teams/${teamId}?date=${date}`,
+        STREAM: (teamId: number) => `/api/standups/teams/${teamId}/stream`,
         GET_BY_RANGE: (teamId: number, startDate: string, endDate: string) =>
             `/api/standups/teams/${teamId}/range?startDate=${startDate}&endDate=${endDate}`,
     },
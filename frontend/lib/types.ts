@@ -24,6 +24,19 @@ export interface StandupResponse {
     blockersText: string;
     createdAt: string;
     updatedAt?: string;
+    version: number;
+}
+
+export interface StreamTicketResponse {
+    ticket: string;
+    expiresIn: number;
+}
+
+export interface StandupChangedEvent {
+    teamId: number;
+    standupId: number;
+    type: "CREATED" | "UPDATED" | "DELETED";
+    standup: StandupResponse | null;
 }
 
 export interface StandupSummaryResponse {
@@ -44,3 +57,21 @@ export interface WeeklySummaryResponse {
     sentToOwner: boolean;
     createdAt: string;
 }
+
+export interface HeatmapStatsResponse {
+    date: string;
+    count: number;
+    level: number;
+}
+
+export interface TeamDashboardResponse {
+    team: Team;
+    members: UserResponse[];
+    date: string;
+    standups: StandupResponse[] | null;
+    summary: StandupSummaryResponse | null;
+    latestWeeklySummary: WeeklySummaryResponse | null;
+    heatmap: HeatmapStatsResponse[] | null;
+    // Sections the server could not load in time; fetch them separately
+    unavailable: string[];
+}